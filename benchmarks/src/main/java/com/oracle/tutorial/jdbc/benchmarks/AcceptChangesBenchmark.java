@@ -0,0 +1,90 @@
+package com.oracle.tutorial.jdbc.benchmarks;
+
+import com.oracle.tutorial.jdbc.BatchingSyncProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetFactory;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes back a CachedRowSet of COFFEES in which every row was updated, with
+ * the reference writer, which checks and updates one row at a time, and with
+ * BatchingRowSetWriter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AcceptChangesBenchmark {
+
+    @Param({"10000"})
+    int rows;
+
+    @Param({"reference", "batching"})
+    String writer;
+
+    private Connection con;
+    private RowSetFactory factory;
+    private CachedRowSet crs;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        con = BenchmarkDatabase.open("accept_changes");
+        BenchmarkDatabase.createCoffeesAndSuppliers(con);
+        BenchmarkDatabase.populateCoffeesAndSuppliers(con, 100, rows);
+        con.setAutoCommit(false);
+        factory = RowSetProvider.newFactory();
+    }
+
+    @Setup(Level.Invocation)
+    public void updateRows() throws SQLException {
+        crs = factory.createCachedRowSet();
+        crs.setType(ResultSet.TYPE_SCROLL_INSENSITIVE);
+        crs.setConcurrency(ResultSet.CONCUR_UPDATABLE);
+        crs.setCommand("select COF_NAME, SUP_ID, PRICE, SALES, TOTAL from COFFEES");
+        crs.setTableName("COFFEES");
+        crs.setKeyColumns(new int[]{1});
+        crs.execute(con);
+        if (writer.equals("batching")) {
+            BatchingSyncProvider.install(crs);
+        }
+        while (crs.next()) {
+            crs.updateInt("SALES", crs.getInt("SALES") + 1);
+            crs.updateRow();
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeRowSet() throws SQLException {
+        crs.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        BenchmarkDatabase.shutdown(con);
+    }
+
+    @Benchmark
+    public void acceptChanges() throws SQLException {
+        crs.acceptChanges(con);
+    }
+}
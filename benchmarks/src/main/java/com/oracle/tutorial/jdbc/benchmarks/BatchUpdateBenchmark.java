@@ -0,0 +1,73 @@
+package com.oracle.tutorial.jdbc.benchmarks;
+
+import com.oracle.tutorial.jdbc.CoffeesTable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs CoffeesTable.updateCoffeeSales for every coffee with different batch
+ * sizes. A batch size of 0 runs the original version, which executes and
+ * commits each coffee separately.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchUpdateBenchmark {
+
+    @Param({"10000"})
+    int rows;
+
+    @Param({"0", "1", "10", "100", "1000"})
+    int batchSize;
+
+    private Connection con;
+    private CoffeesTable coffeesTable;
+    private HashMap<String, Integer> salesForWeek;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        con = BenchmarkDatabase.open("batch_update");
+        BenchmarkDatabase.createCoffeesAndSuppliers(con);
+        BenchmarkDatabase.populateCoffeesAndSuppliers(con, 100, rows);
+        coffeesTable = new CoffeesTable(con, "benchmark", "hsqldb");
+        salesForWeek = new HashMap<>();
+        for (int i = 0; i < rows; i++) {
+            salesForWeek.put("COFFEE_" + i, i % 100);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        BenchmarkDatabase.shutdown(con);
+    }
+
+    @Benchmark
+    public Set<String> updateCoffeeSales() throws SQLException {
+        if (batchSize == 0) {
+            coffeesTable.updateCoffeeSales(salesForWeek);
+            return null;
+        }
+        return coffeesTable.updateCoffeeSales(salesForWeek, batchSize);
+    }
+}
@@ -0,0 +1,141 @@
+package com.oracle.tutorial.jdbc.benchmarks;
+
+import com.oracle.tutorial.jdbc.CoffeesTable;
+import com.oracle.tutorial.jdbc.PooledDataSource;
+import com.oracle.tutorial.jdbc.SuppliersTable;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+
+/**
+ * Creates and fills the tutorial tables in an in-memory HSQLDB database so
+ * that the benchmarks do not need an external server.
+ */
+final class BenchmarkDatabase {
+
+    private BenchmarkDatabase() {
+    }
+
+    static Connection open(String name) throws SQLException {
+        return DriverManager.getConnection("jdbc:hsqldb:mem:" + name, "SA", "");
+    }
+
+    static void shutdown(Connection con) throws SQLException {
+        try (Statement stmt = con.createStatement()) {
+            stmt.execute("SHUTDOWN");
+        }
+        con.close();
+    }
+
+    static void createCoffeesAndSuppliers(Connection con) throws SQLException {
+        new SuppliersTable(con, "benchmark", "hsqldb").createTable();
+        new CoffeesTable(con, "benchmark", "hsqldb").createTable();
+    }
+
+    /**
+     * Inserts suppliers numbered 1..suppliers and coffees named COFFEE_n,
+     * spread round-robin over the suppliers.
+     */
+    static void populateCoffeesAndSuppliers(Connection con, int suppliers, int coffees) throws SQLException {
+        boolean autoCommit = con.getAutoCommit();
+        con.setAutoCommit(false);
+        try (PreparedStatement insertSupplier = con.prepareStatement(
+                "insert into SUPPLIERS values(?, ?, ?, ?, ?, ?)");
+             PreparedStatement insertCoffee = con.prepareStatement(
+                     "insert into COFFEES values(?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= suppliers; i++) {
+                insertSupplier.setInt(1, i);
+                insertSupplier.setString(2, "Supplier " + i);
+                insertSupplier.setString(3, i + " Market Street");
+                insertSupplier.setString(4, "City " + (i % 100));
+                insertSupplier.setString(5, "CA");
+                insertSupplier.setString(6, "95199");
+                insertSupplier.addBatch();
+                if (i % 1000 == 0 || i == suppliers) insertSupplier.executeBatch();
+            }
+
+            for (int i = 0; i < coffees; i++) {
+                insertCoffee.setString(1, "COFFEE_" + i);
+                insertCoffee.setInt(2, 1 + i % suppliers);
+                insertCoffee.setBigDecimal(3, BigDecimal.valueOf(500 + i % 1000, 2));
+                insertCoffee.setInt(4, i % 200);
+                insertCoffee.setInt(5, i % 5000);
+                insertCoffee.addBatch();
+                if (i % 1000 == 999 || i == coffees - 1) insertCoffee.executeBatch();
+            }
+            con.commit();
+        } finally {
+            con.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Creates COFFEE_HOUSES with stores numbered from 10000 and cities taken
+     * round-robin from a list of ten.
+     */
+    static void createCoffeeHouses(Connection con, int stores) throws SQLException {
+        String[] cities = {"SF", "LA", "San Jose", "Oakland", "Sacramento",
+                "Fresno", "Palo Alto", "Berkeley", "Monterey", "Davis"};
+        try (Statement stmt = con.createStatement()) {
+            stmt.executeUpdate("create table COFFEE_HOUSES (STORE_ID integer NOT NULL, CITY varchar(32), " +
+                    "COFFEE int NOT NULL, MERCH int NOT NULL, TOTAL int NOT NULL, PRIMARY KEY (STORE_ID))");
+        }
+        boolean autoCommit = con.getAutoCommit();
+        con.setAutoCommit(false);
+        try (PreparedStatement insert = con.prepareStatement(
+                "insert into COFFEE_HOUSES values(?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < stores; i++) {
+                insert.setInt(1, 10000 + i);
+                insert.setString(2, cities[i % cities.length]);
+                insert.setInt(3, i % 5000);
+                insert.setInt(4, i % 3000);
+                insert.setInt(5, i % 5000 + i % 3000);
+                insert.addBatch();
+                if (i % 1000 == 999 || i == stores - 1) insert.executeBatch();
+            }
+            con.commit();
+        } finally {
+            con.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Creates MERCH_INVENTORY with items numbered 1..items.
+     */
+    static void createMerchInventory(Connection con, int items) throws SQLException {
+        try (Statement stmt = con.createStatement()) {
+            stmt.executeUpdate("create table MERCH_INVENTORY (ITEM_ID integer NOT NULL, ITEM_NAME varchar(20), " +
+                    "SUP_ID int, QUAN int, DATE_VAL timestamp, PRIMARY KEY (ITEM_ID))");
+        }
+        boolean autoCommit = con.getAutoCommit();
+        con.setAutoCommit(false);
+        try (PreparedStatement insert = con.prepareStatement(
+                "insert into MERCH_INVENTORY values(?, ?, ?, ?, ?)")) {
+            Timestamp date = Timestamp.valueOf("2006-05-01 00:00:00");
+            for (int i = 1; i <= items; i++) {
+                insert.setInt(1, i);
+                insert.setString(2, "Item " + i);
+                insert.setInt(3, 1 + i % 100);
+                insert.setInt(4, i % 50);
+                insert.setTimestamp(5, date);
+                insert.addBatch();
+                if (i % 1000 == 0 || i == items) insert.executeBatch();
+            }
+            con.commit();
+        } finally {
+            con.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Returns a small pool of connections to the in-memory database name.
+     */
+    static PooledDataSource dataSource(String name) {
+        return new PooledDataSource(() -> open(name), 1, 4, 30_000, 0, 0, 5, 32);
+    }
+}
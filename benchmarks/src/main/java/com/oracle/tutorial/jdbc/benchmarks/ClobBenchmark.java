@@ -0,0 +1,100 @@
+package com.oracle.tutorial.jdbc.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads a coffee description stored as a CLOB, as ClobSample does, either
+ * materialized as one String or streamed through a small char buffer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClobBenchmark {
+
+    private static final String QUERY = "select COF_DESC from COFFEE_DESCRIPTIONS where COF_NAME = ?";
+
+    @Param({"1048576"})
+    int length;
+
+    private Connection con;
+    private PreparedStatement query;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        con = BenchmarkDatabase.open("clob");
+        try (Statement stmt = con.createStatement()) {
+            stmt.executeUpdate("create table COFFEE_DESCRIPTIONS " +
+                    "(COF_NAME varchar(32) NOT NULL, COF_DESC clob NOT NULL, PRIMARY KEY (COF_NAME))");
+        }
+        char[] text = new char[length];
+        Arrays.fill(text, 'c');
+        try (PreparedStatement insert = con.prepareStatement("insert into COFFEE_DESCRIPTIONS values(?, ?)")) {
+            insert.setString(1, "Colombian");
+            insert.setString(2, new String(text));
+            insert.executeUpdate();
+        }
+        query = con.prepareStatement(QUERY);
+        query.setString(1, "Colombian");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        query.close();
+        BenchmarkDatabase.shutdown(con);
+    }
+
+    @Benchmark
+    public int getSubString() throws SQLException {
+        try (ResultSet rs = query.executeQuery()) {
+            rs.next();
+            Clob clob = rs.getClob(1);
+            String description = clob.getSubString(1, (int) clob.length());
+            clob.free();
+            return description.length();
+        }
+    }
+
+    @Benchmark
+    public int characterStream() throws SQLException, IOException {
+        char[] buffer = new char[8192];
+        int count = 0;
+        try (ResultSet rs = query.executeQuery()) {
+            rs.next();
+            Clob clob = rs.getClob(1);
+            try (Reader reader = clob.getCharacterStream()) {
+                int n;
+                while ((n = reader.read(buffer)) > 0) {
+                    count += n;
+                }
+            }
+            clob.free();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,121 @@
+package com.oracle.tutorial.jdbc.benchmarks;
+
+import com.oracle.tutorial.jdbc.CityFilter;
+import com.oracle.tutorial.jdbc.CompiledPredicate;
+import com.oracle.tutorial.jdbc.CompositePredicate;
+import com.oracle.tutorial.jdbc.FilteredRowSets;
+import com.oracle.tutorial.jdbc.StateFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.rowset.FilteredRowSet;
+import javax.sql.rowset.RowSetFactory;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filters COFFEE_HOUSES by store range or city and reads the matching rows
+ * several times, with the filter set by setFilter and evaluated on every
+ * cursor move, and with CompiledPredicate.applyTo. The last two benchmarks
+ * also include populating the rowset, once with the whole table filtered in
+ * Java and once with the filter pushed into the query by FilteredRowSets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilteredRowSetBenchmark {
+
+    @Param({"100000"})
+    int stores;
+
+    @Param({"10"})
+    int passes;
+
+    private Connection con;
+    private RowSetFactory factory;
+    private FilteredRowSet frs;
+    private CompiledPredicate predicate;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        con = BenchmarkDatabase.open("filtered_row_set");
+        BenchmarkDatabase.createCoffeeHouses(con, stores);
+        factory = RowSetProvider.newFactory();
+        frs = factory.createFilteredRowSet();
+        frs.setCommand("SELECT * FROM COFFEE_HOUSES");
+        frs.execute(con);
+        predicate = CompositePredicate.or(
+                new StateFilter(10000, 10999, "STORE_ID"),
+                new CityFilter(new String[]{"SF", "LA", "Davis"}, "CITY"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        frs.close();
+        BenchmarkDatabase.shutdown(con);
+    }
+
+    @Benchmark
+    public int setFilter() throws SQLException {
+        frs.setFilter(predicate);
+        return readPasses();
+    }
+
+    @Benchmark
+    public int applyTo() throws SQLException {
+        predicate.applyTo(frs);
+        return readPasses();
+    }
+
+    @Benchmark
+    public int populateAndFilterInJava() throws SQLException {
+        try (FilteredRowSet all = factory.createFilteredRowSet()) {
+            all.setCommand("SELECT * FROM COFFEE_HOUSES");
+            all.execute(con);
+            predicate.applyTo(all);
+            return readOnce(all);
+        }
+    }
+
+    @Benchmark
+    public int populateWithPushDown() throws SQLException {
+        try (FilteredRowSet matching = FilteredRowSets.create(factory, con, "COFFEE_HOUSES", predicate)) {
+            return readOnce(matching);
+        }
+    }
+
+    private static int readOnce(FilteredRowSet rowSet) throws SQLException {
+        int count = 0;
+        while (rowSet.next()) {
+            count += rowSet.getInt(1);
+        }
+        return count;
+    }
+
+    private int readPasses() throws SQLException {
+        int count = 0;
+        for (int i = 0; i < passes; i++) {
+            frs.beforeFirst();
+            while (frs.next()) {
+                count += frs.getInt(1);
+            }
+        }
+        return count;
+    }
+}
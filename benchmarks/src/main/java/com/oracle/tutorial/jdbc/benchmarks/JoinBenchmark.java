@@ -0,0 +1,104 @@
+package com.oracle.tutorial.jdbc.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.JoinRowSet;
+import javax.sql.rowset.RowSetFactory;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds the coffees bought from one supplier, as JoinSample does, with a
+ * JoinRowSet over two CachedRowSets, with a client-side hash join and with a
+ * SQL join. JoinRowSet compares every pair of rows, so this uses small
+ * tables; SupplierJoinBenchmark compares the other two at full size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class JoinBenchmark {
+
+    @Param({"100"})
+    int suppliers;
+
+    @Param({"10000"})
+    int coffees;
+
+    private Connection con;
+    private RowSetFactory factory;
+    private String supplierName;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        con = BenchmarkDatabase.open("join");
+        BenchmarkDatabase.createCoffeesAndSuppliers(con);
+        BenchmarkDatabase.populateCoffeesAndSuppliers(con, suppliers, coffees);
+        factory = RowSetProvider.newFactory();
+        supplierName = "Supplier " + (suppliers / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        BenchmarkDatabase.shutdown(con);
+    }
+
+    @Benchmark
+    public void joinRowSet(Blackhole bh) throws SQLException {
+        try (CachedRowSet coffeesRowSet = factory.createCachedRowSet();
+             CachedRowSet suppliersRowSet = factory.createCachedRowSet();
+             JoinRowSet jrs = factory.createJoinRowSet()) {
+            coffeesRowSet.setCommand("SELECT * FROM COFFEES");
+            coffeesRowSet.execute(con);
+            suppliersRowSet.setCommand("SELECT * FROM SUPPLIERS");
+            suppliersRowSet.execute(con);
+
+            jrs.addRowSet(coffeesRowSet, "SUP_ID");
+            jrs.addRowSet(suppliersRowSet, "SUP_ID");
+            while (jrs.next()) {
+                if (jrs.getString("SUP_NAME").equals(supplierName)) {
+                    bh.consume(jrs.getString(1));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void hashJoin(Blackhole bh) throws SQLException {
+        SupplierJoinBenchmark.hashJoin(con, supplierName, bh);
+    }
+
+    @Benchmark
+    public void sqlJoin(Blackhole bh) throws SQLException {
+        String query = "SELECT COFFEES.COF_NAME FROM COFFEES, SUPPLIERS " +
+                "WHERE SUPPLIERS.SUP_NAME = ? and SUPPLIERS.SUP_ID = COFFEES.SUP_ID";
+        try (PreparedStatement ps = con.prepareStatement(query)) {
+            ps.setString(1, supplierName);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    bh.consume(rs.getString(1));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.oracle.tutorial.jdbc.benchmarks;
+
+import com.oracle.tutorial.jdbc.KeysetPager;
+import com.oracle.tutorial.jdbc.PooledDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetFactory;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads one page of 100 rows of a 1,010,000-row MERCH_INVENTORY into a
+ * CachedRowSet, with OFFSET ... FETCH and with KeysetPager, at page 1 and at
+ * page 10,000. Also walks ten pages from page 10,000 with KeysetPager, with
+ * and without reading the next page ahead, while doing some work per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeysetPagingBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int ITEMS = 1_010_000; // Ten more pages after page 10,000
+
+    @Param({"1", "10000"})
+    int page;
+
+    private Connection con;
+    private PooledDataSource dataSource;
+    private RowSetFactory factory;
+    private KeysetPager pager;
+    private KeysetPager prefetchingPager;
+    private int keyBeforePage;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        con = BenchmarkDatabase.open("keyset_paging");
+        BenchmarkDatabase.createMerchInventory(con, ITEMS);
+        dataSource = BenchmarkDatabase.dataSource("keyset_paging");
+        factory = RowSetProvider.newFactory();
+        pager = new KeysetPager(dataSource, "MERCH_INVENTORY", "*", "ITEM_ID", PAGE_SIZE, false);
+        prefetchingPager = new KeysetPager(dataSource, "MERCH_INVENTORY", "*", "ITEM_ID", PAGE_SIZE, true);
+        // ITEM_ID runs from 1, so the page starts after this key
+        keyBeforePage = (page - 1) * PAGE_SIZE;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        pager.close();
+        prefetchingPager.close();
+        dataSource.close();
+        BenchmarkDatabase.shutdown(con);
+    }
+
+    @Benchmark
+    public CachedRowSet offset() throws SQLException {
+        CachedRowSet crs = factory.createCachedRowSet();
+        try (Connection c = dataSource.getConnection();
+             PreparedStatement ps = c.prepareStatement(
+                     "select * from MERCH_INVENTORY order by ITEM_ID offset ? rows fetch next ? rows only")) {
+            ps.setInt(1, keyBeforePage);
+            ps.setInt(2, PAGE_SIZE);
+            try (ResultSet rs = ps.executeQuery()) {
+                crs.populate(rs);
+            }
+        }
+        return crs;
+    }
+
+    @Benchmark
+    public CachedRowSet keyset() throws SQLException {
+        return pager.pageAfter(keyBeforePage);
+    }
+
+    @Benchmark
+    public void keysetWalk(Blackhole bh) throws SQLException {
+        walk(pager, bh);
+    }
+
+    @Benchmark
+    public void keysetWalkPrefetch(Blackhole bh) throws SQLException {
+        walk(prefetchingPager, bh);
+    }
+
+    private void walk(KeysetPager pager, Blackhole bh) throws SQLException {
+        CachedRowSet crs = pager.pageAfter(keyBeforePage);
+        for (int i = 0; i < 10 && crs != null; i++) {
+            while (crs.next()) {
+                bh.consume(crs.getString(2));
+                Blackhole.consumeCPU(2000);
+            }
+            crs = pager.nextPage();
+        }
+    }
+}
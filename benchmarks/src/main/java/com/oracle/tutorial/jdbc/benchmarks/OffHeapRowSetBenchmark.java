@@ -0,0 +1,98 @@
+package com.oracle.tutorial.jdbc.benchmarks;
+
+import com.oracle.tutorial.jdbc.OffHeapCachedRowSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetFactory;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads all of COFFEES into the reference CachedRowSet, into an
+ * OffHeapCachedRowSet that fits in its memory budget and into one that
+ * spills every row to a file, then reads the rows back. Run it with -prof gc
+ * to compare the garbage each creates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx1g"})
+public class OffHeapRowSetBenchmark {
+
+    private static final String QUERY = "select COF_NAME, SUP_ID, PRICE, SALES, TOTAL from COFFEES";
+
+    @Param({"100000", "1000000"})
+    int rows;
+
+    private Connection con;
+    private RowSetFactory factory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        con = BenchmarkDatabase.open("off_heap_row_set");
+        BenchmarkDatabase.createCoffeesAndSuppliers(con);
+        BenchmarkDatabase.populateCoffeesAndSuppliers(con, 100, rows);
+        factory = RowSetProvider.newFactory();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        BenchmarkDatabase.shutdown(con);
+    }
+
+    @Benchmark
+    public void cachedRowSet(Blackhole bh) throws SQLException {
+        try (CachedRowSet crs = factory.createCachedRowSet()) {
+            read(crs, bh);
+        }
+    }
+
+    @Benchmark
+    public void offHeap(Blackhole bh) throws SQLException {
+        try (CachedRowSet crs = new OffHeapCachedRowSet()) {
+            read(crs, bh);
+        }
+    }
+
+    @Benchmark
+    public void offHeapSpilled(Blackhole bh) throws SQLException {
+        try (CachedRowSet crs = new OffHeapCachedRowSet(0)) {
+            read(crs, bh);
+        }
+    }
+
+    private void read(CachedRowSet crs, Blackhole bh) throws SQLException {
+        crs.setCommand(QUERY);
+        crs.execute(con);
+        while (crs.next()) {
+            consumeRow(crs, bh);
+        }
+    }
+
+    private static void consumeRow(ResultSet rs, Blackhole bh) throws SQLException {
+        bh.consume(rs.getString(1));
+        bh.consume(rs.getInt(2));
+        bh.consume(rs.getBigDecimal(3));
+        bh.consume(rs.getInt(4));
+        bh.consume(rs.getInt(5));
+    }
+}
@@ -0,0 +1,102 @@
+package com.oracle.tutorial.jdbc.benchmarks;
+
+import com.oracle.tutorial.jdbc.CoffeeRow;
+import com.oracle.tutorial.jdbc.CoffeeRowMapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads every row of COFFEES by column label, by column index and through
+ * CoffeeRowMapper. Run with -prof gc to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    private static final String QUERY = "select COF_NAME, SUP_ID, PRICE, SALES, TOTAL from COFFEES";
+
+    @Param({"100000"})
+    int rows;
+
+    private Connection con;
+    private PreparedStatement query;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        con = BenchmarkDatabase.open("row_mapping");
+        BenchmarkDatabase.createCoffeesAndSuppliers(con);
+        BenchmarkDatabase.populateCoffeesAndSuppliers(con, 100, rows);
+        query = con.prepareStatement(QUERY);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        query.close();
+        BenchmarkDatabase.shutdown(con);
+    }
+
+    @Benchmark
+    public void byLabel(Blackhole bh) throws SQLException {
+        try (ResultSet rs = query.executeQuery()) {
+            while (rs.next()) {
+                bh.consume(rs.getString("COF_NAME"));
+                bh.consume(rs.getInt("SUP_ID"));
+                bh.consume(rs.getDouble("PRICE"));
+                bh.consume(rs.getInt("SALES"));
+                bh.consume(rs.getInt("TOTAL"));
+            }
+        }
+    }
+
+    @Benchmark
+    public void byIndex(Blackhole bh) throws SQLException {
+        try (ResultSet rs = query.executeQuery()) {
+            while (rs.next()) {
+                bh.consume(rs.getString(1));
+                bh.consume(rs.getInt(2));
+                bh.consume(rs.getDouble(3));
+                bh.consume(rs.getInt(4));
+                bh.consume(rs.getInt(5));
+            }
+        }
+    }
+
+    @Benchmark
+    public void cachedMapper(Blackhole bh) throws SQLException {
+        CoffeeRowMapper mapper = new CoffeeRowMapper(QUERY);
+        CoffeeRow row = new CoffeeRow();
+        try (ResultSet rs = query.executeQuery()) {
+            while (rs.next()) {
+                mapper.mapRow(rs, row);
+                bh.consume(row.getCoffeeName());
+                bh.consume(row.getSupplierID());
+                bh.consume(row.getPriceCents());
+                bh.consume(row.getSales());
+                bh.consume(row.getTotal());
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.oracle.tutorial.jdbc.benchmarks;
+
+import com.oracle.tutorial.jdbc.SnapshotRowSet;
+import com.oracle.tutorial.jdbc.SnapshotWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetFactory;
+import javax.sql.rowset.RowSetProvider;
+import javax.sql.rowset.WebRowSet;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ships COFFEES as WebRowSet XML and as a SnapshotWriter snapshot: writing
+ * from the database, and reading every row back. The sizes of both are
+ * printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnapshotBenchmark {
+
+    private static final String QUERY = "select COF_NAME, SUP_ID, PRICE, SALES, TOTAL from COFFEES";
+
+    @Param({"100000"})
+    int rows;
+
+    private Connection con;
+    private RowSetFactory factory;
+    private String xml;
+    private Path snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException {
+        con = BenchmarkDatabase.open("snapshot");
+        BenchmarkDatabase.createCoffeesAndSuppliers(con);
+        BenchmarkDatabase.populateCoffeesAndSuppliers(con, 100, rows);
+        factory = RowSetProvider.newFactory();
+        try (WebRowSet wrs = factory.createWebRowSet()) {
+            wrs.setCommand(QUERY);
+            wrs.execute(con);
+            StringWriter out = new StringWriter();
+            wrs.writeXml(out);
+            xml = out.toString();
+        }
+        snapshot = Files.createTempFile("coffees", ".snapshot");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(snapshot));
+             PreparedStatement ps = con.prepareStatement(QUERY);
+             ResultSet rs = ps.executeQuery()) {
+            SnapshotWriter.write(rs, out);
+        }
+        System.out.println("WebRowSet XML: " + xml.getBytes(StandardCharsets.UTF_8).length +
+                " bytes, snapshot: " + Files.size(snapshot) + " bytes");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException, IOException {
+        Files.deleteIfExists(snapshot);
+        BenchmarkDatabase.shutdown(con);
+    }
+
+    @Benchmark
+    public void writeXml() throws SQLException {
+        try (WebRowSet wrs = factory.createWebRowSet()) {
+            wrs.setCommand(QUERY);
+            wrs.execute(con);
+            wrs.writeXml(Writer.nullWriter());
+        }
+    }
+
+    @Benchmark
+    public long writeSnapshot() throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(QUERY);
+             ResultSet rs = ps.executeQuery()) {
+            return SnapshotWriter.write(rs, OutputStream.nullOutputStream());
+        }
+    }
+
+    @Benchmark
+    public void readXml(Blackhole bh) throws SQLException {
+        try (WebRowSet wrs = factory.createWebRowSet()) {
+            wrs.readXml(new StringReader(xml));
+            consume(wrs, bh);
+        }
+    }
+
+    @Benchmark
+    public void readSnapshot(Blackhole bh) throws SQLException {
+        try (SnapshotRowSet crs = SnapshotRowSet.open(snapshot)) {
+            consume(crs, bh);
+        }
+    }
+
+    private static void consume(CachedRowSet crs, Blackhole bh) throws SQLException {
+        crs.beforeFirst();
+        while (crs.next()) {
+            bh.consume(crs.getString(1));
+            bh.consume(crs.getInt(2));
+            bh.consume(crs.getBigDecimal(3));
+            bh.consume(crs.getInt(4));
+            bh.consume(crs.getInt(5));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.oracle.tutorial.jdbc.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up one coffee by name with a Statement whose SQL text embeds the
+ * name and with a PreparedStatement that is prepared once and reused.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatementBenchmark {
+
+    @Param({"10000"})
+    int rows;
+
+    private Connection con;
+    private PreparedStatement lookup;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        con = BenchmarkDatabase.open("statement");
+        BenchmarkDatabase.createCoffeesAndSuppliers(con);
+        BenchmarkDatabase.populateCoffeesAndSuppliers(con, 100, rows);
+        lookup = con.prepareStatement("select PRICE from COFFEES where COF_NAME = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        lookup.close();
+        BenchmarkDatabase.shutdown(con);
+    }
+
+    @Benchmark
+    public double statement() throws SQLException {
+        String name = "COFFEE_" + ThreadLocalRandom.current().nextInt(rows);
+        try (Statement stmt = con.createStatement();
+             ResultSet rs = stmt.executeQuery("select PRICE from COFFEES where COF_NAME = '" + name + "'")) {
+            return rs.next() ? rs.getDouble(1) : 0;
+        }
+    }
+
+    @Benchmark
+    public double preparedStatement() throws SQLException {
+        lookup.setString(1, "COFFEE_" + ThreadLocalRandom.current().nextInt(rows));
+        try (ResultSet rs = lookup.executeQuery()) {
+            return rs.next() ? rs.getDouble(1) : 0;
+        }
+    }
+}
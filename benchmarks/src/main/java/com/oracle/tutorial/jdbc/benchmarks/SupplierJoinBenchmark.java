@@ -0,0 +1,103 @@
+package com.oracle.tutorial.jdbc.benchmarks;
+
+import com.oracle.tutorial.jdbc.CoffeesTable;
+import com.oracle.tutorial.jdbc.HashJoin;
+import com.oracle.tutorial.jdbc.StreamingQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds the coffees bought from one supplier among 10,000 suppliers and
+ * 1,000,000 coffees with CoffeesTable.getCoffeesBoughtBySupplier, with and
+ * without the SUPPLIERS_SUP_NAME index, and with a HashJoin that streams all
+ * of COFFEES past the matching suppliers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SupplierJoinBenchmark {
+
+    @Param({"10000"})
+    int suppliers;
+
+    @Param({"1000000"})
+    int coffees;
+
+    @Param({"true", "false"})
+    boolean indexed;
+
+    private Connection con;
+    private CoffeesTable coffeesTable;
+    private String supplierName;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        con = BenchmarkDatabase.open("supplier_join");
+        BenchmarkDatabase.createCoffeesAndSuppliers(con);
+        BenchmarkDatabase.populateCoffeesAndSuppliers(con, suppliers, coffees);
+        if (!indexed) {
+            try (Statement stmt = con.createStatement()) {
+                stmt.executeUpdate("drop index SUPPLIERS_SUP_NAME");
+            }
+        }
+        coffeesTable = new CoffeesTable(con, "benchmark", "hsqldb");
+        supplierName = "Supplier " + (suppliers / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        BenchmarkDatabase.shutdown(con);
+    }
+
+    @Benchmark
+    public List<String> sqlJoin() throws SQLException {
+        return coffeesTable.getCoffeesBoughtBySupplier(supplierName);
+    }
+
+    @Benchmark
+    public void hashJoin(Blackhole bh) throws SQLException {
+        hashJoin(con, supplierName, bh);
+    }
+
+    static void hashJoin(Connection con, String supplierName, Blackhole bh) throws SQLException {
+        HashJoin<String> join;
+        try (PreparedStatement ps = con.prepareStatement(
+                "SELECT SUP_ID, SUP_NAME FROM SUPPLIERS WHERE SUP_NAME LIKE ?")) {
+            ps.setString(1, supplierName);
+            try (ResultSet rs = ps.executeQuery()) {
+                join = HashJoin.build(rs, "SUP_ID", r -> r.getString(2));
+            }
+        }
+        try (PreparedStatement ps = StreamingQuery.prepare(con,
+                "SELECT COF_NAME, SUP_ID FROM COFFEES", StreamingQuery.DEFAULT_FETCH_SIZE);
+             ResultSet rs = ps.executeQuery()) {
+            join.probe(rs, "SUP_ID", (coffee, supplier) -> {
+                bh.consume(coffee.getString(1));
+                return true;
+            });
+        }
+    }
+}
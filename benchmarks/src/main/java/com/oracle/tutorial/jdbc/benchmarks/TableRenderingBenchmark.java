@@ -0,0 +1,126 @@
+package com.oracle.tutorial.jdbc.benchmarks;
+
+import com.oracle.tutorial.jdbc.CoffeesTableModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
+import javax.swing.JTable;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableModel;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paints a 40-row window of a JTable over 100,000 coffees into an image,
+ * scrolling to a different window each time. The table model is either
+ * CoffeesTableModel or a model that moves the CachedRowSet cursor and calls
+ * toString for every cell, as CoffeesTableModel used to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TableRenderingBenchmark {
+
+    private static final int VISIBLE_ROWS = 40;
+    private static final int WIDTH = 600;
+
+    @Param({"100000"})
+    int rows;
+
+    @Param({"columnar", "cursor"})
+    String model;
+
+    private Connection con;
+    private CachedRowSet crs;
+    private JTable table;
+    private BufferedImage image;
+    private int firstRow;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        con = BenchmarkDatabase.open("table_rendering");
+        BenchmarkDatabase.createCoffeesAndSuppliers(con);
+        BenchmarkDatabase.populateCoffeesAndSuppliers(con, 100, rows);
+        crs = RowSetProvider.newFactory().createCachedRowSet();
+        crs.setCommand("select COF_NAME, SUP_ID, PRICE, SALES, TOTAL from COFFEES");
+        crs.execute(con);
+
+        TableModel tableModel = model.equals("columnar") ? new CoffeesTableModel(crs) : new CursorTableModel(crs);
+        table = new JTable(tableModel);
+        table.setSize(WIDTH, table.getRowHeight() * rows);
+        table.doLayout();
+        image = new BufferedImage(WIDTH, table.getRowHeight() * VISIBLE_ROWS, BufferedImage.TYPE_INT_RGB);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        crs.close();
+        BenchmarkDatabase.shutdown(con);
+    }
+
+    @Benchmark
+    public void paintWindow() {
+        firstRow = (firstRow + 7919) % (rows - VISIBLE_ROWS);
+        int y = firstRow * table.getRowHeight();
+        Graphics2D g = image.createGraphics();
+        try {
+            g.translate(0, -y);
+            g.setClip(0, y, WIDTH, image.getHeight());
+            table.paint(g);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    /**
+     * Reads each cell by moving the row set's cursor, as CoffeesTableModel
+     * did before it copied the rows into arrays.
+     */
+    @SuppressWarnings("serial") // A benchmark fixture; never serialized
+    static final class CursorTableModel extends AbstractTableModel {
+        private final CachedRowSet crs;
+        private final int columns;
+
+        CursorTableModel(CachedRowSet crs) throws SQLException {
+            this.crs = crs;
+            this.columns = crs.getMetaData().getColumnCount();
+        }
+
+        public int getRowCount() {
+            return crs.size();
+        }
+
+        public int getColumnCount() {
+            return columns;
+        }
+
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            try {
+                crs.absolute(rowIndex + 1);
+                Object o = crs.getObject(columnIndex + 1);
+                return o == null ? null : o.toString();
+            } catch (SQLException e) {
+                return e.toString();
+            }
+        }
+    }
+}
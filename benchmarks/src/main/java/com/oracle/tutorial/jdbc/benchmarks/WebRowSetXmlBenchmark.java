@@ -0,0 +1,110 @@
+package com.oracle.tutorial.jdbc.benchmarks;
+
+import com.oracle.tutorial.jdbc.StreamingWebRowSetReader;
+import com.oracle.tutorial.jdbc.StreamingWebRowSetWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.rowset.RowSetFactory;
+import javax.sql.rowset.RowSetProvider;
+import javax.sql.rowset.WebRowSet;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the COFFEES price list as WebRowSet XML with WebRowSet.writeXml and
+ * with StreamingWebRowSetWriter, and reads it back with readXml and with
+ * StreamingWebRowSetReader. Run it with -prof gc to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebRowSetXmlBenchmark {
+
+    private static final String QUERY = "select COF_NAME, PRICE from COFFEES";
+
+    @Param({"100000"})
+    int rows;
+
+    private Connection con;
+    private RowSetFactory factory;
+    private String priceList;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        con = BenchmarkDatabase.open("web_row_set_xml");
+        BenchmarkDatabase.createCoffeesAndSuppliers(con);
+        BenchmarkDatabase.populateCoffeesAndSuppliers(con, 100, rows);
+        factory = RowSetProvider.newFactory();
+        try (WebRowSet wrs = factory.createWebRowSet()) {
+            wrs.setCommand(QUERY);
+            wrs.execute(con);
+            StringWriter out = new StringWriter();
+            wrs.writeXml(out);
+            priceList = out.toString();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        BenchmarkDatabase.shutdown(con);
+    }
+
+    @Benchmark
+    public void writeXml() throws SQLException {
+        try (WebRowSet wrs = factory.createWebRowSet()) {
+            wrs.setCommand(QUERY);
+            wrs.execute(con);
+            wrs.writeXml(Writer.nullWriter());
+        }
+    }
+
+    @Benchmark
+    public int streamingWrite() throws SQLException {
+        try (WebRowSet properties = factory.createWebRowSet();
+             PreparedStatement ps = con.prepareStatement(QUERY);
+             ResultSet rs = ps.executeQuery()) {
+            properties.setCommand(QUERY);
+            return StreamingWebRowSetWriter.write(rs, properties, Writer.nullWriter());
+        }
+    }
+
+    @Benchmark
+    public int readXml() throws SQLException {
+        try (WebRowSet wrs = factory.createWebRowSet()) {
+            wrs.readXml(new StringReader(priceList));
+            return wrs.size();
+        }
+    }
+
+    @Benchmark
+    public void streamingRead(Blackhole bh) throws SQLException {
+        try (StreamingWebRowSetReader reader = new StreamingWebRowSetReader(new StringReader(priceList))) {
+            while (reader.next()) {
+                bh.consume(reader.getObject(1));
+                bh.consume(reader.getObject(2));
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.oracle.tutorial.jdbc.benchmarks;
+
+import com.oracle.tutorial.jdbc.XmlToolkit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathFactory;
+
+import org.xml.sax.InputSource;
+
+/**
+ * Reads the stored feeds of RSS_FEEDS and, for each row, parses the feed,
+ * finds its title and serializes it again, as RSSFeedsTable does: creating
+ * the factories, parser, XPath and transformer for every row, or with the
+ * ones XmlToolkit keeps. The score is the time for all the rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XmlParseBenchmark {
+
+    private static final String QUERY = "select RSS_NAME, RSS_FEED_XML from RSS_FEEDS";
+
+    @Param({"10000"})
+    int rows;
+
+    private Connection con;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException {
+        con = BenchmarkDatabase.open("xmlparse");
+        try (Statement stmt = con.createStatement()) {
+            stmt.executeUpdate("create table RSS_FEEDS (RSS_NAME varchar(32) NOT NULL," +
+                    " RSS_FEED_XML clob NOT NULL, PRIMARY KEY (RSS_NAME))");
+        }
+        String feed;
+        try (InputStream in = XmlToolkit.class.getResourceAsStream("/xml/rss-the-coffee-break-blog.xml")) {
+            feed = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        con.setAutoCommit(false);
+        try (PreparedStatement insert = con.prepareStatement("insert into RSS_FEEDS values(?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                insert.setString(1, "feed_" + i);
+                insert.setString(2, feed.replace("<title>The Coffee Break Blog</title>",
+                        "<title>Feed " + i + "</title>"));
+                insert.addBatch();
+                if (i % 1000 == 999 || i == rows - 1) insert.executeBatch();
+            }
+        }
+        con.commit();
+        con.setAutoCommit(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        BenchmarkDatabase.shutdown(con);
+    }
+
+    @Benchmark
+    public long factoriesPerRow() throws Exception {
+        long length = 0;
+        try (Statement stmt = con.createStatement();
+             ResultSet rs = stmt.executeQuery(QUERY)) {
+            while (rs.next()) {
+                DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+                factory.setNamespaceAware(true);
+                DocumentBuilder builder = factory.newDocumentBuilder();
+                Document doc = builder.parse(new InputSource(new StringReader(rs.getString(2))));
+                XPath xPath = XPathFactory.newInstance().newXPath();
+                Node title = (Node) xPath.evaluate("/rss/channel/title[1]", doc, XPathConstants.NODE);
+                Transformer t = TransformerFactory.newInstance().newTransformer();
+                StringWriter sw = new StringWriter();
+                t.transform(new DOMSource(doc), new StreamResult(sw));
+                length += title.getTextContent().length() + sw.getBuffer().length();
+            }
+        }
+        return length;
+    }
+
+    @Benchmark
+    public long xmlToolkit() throws Exception {
+        long length = 0;
+        try (Statement stmt = con.createStatement();
+             ResultSet rs = stmt.executeQuery(QUERY)) {
+            while (rs.next()) {
+                Document doc = XmlToolkit.parse(new StringReader(rs.getString(2)));
+                Node title = XmlToolkit.rssTitle(doc);
+                length += title.getTextContent().length() + XmlToolkit.toString(doc).length();
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,722 @@
+package com.oracle.tutorial.jdbc;
+
+import java.math.BigDecimal;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.sql.RowSetInternal;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.spi.SyncProviderException;
+import javax.sql.rowset.spi.TransactionalWriter;
+
+/**
+ * Writes the inserted, updated and deleted rows of a CachedRowSet to one
+ * table, with one JDBC batch per kind of change and batchSize rows, instead
+ * of one statement per row.
+ *
+ * By default the rows to update or delete are checked for conflicts first:
+ * their current values are read with SELECT ... WHERE key IN (...), one
+ * query per batch of keys, and compared with the values originally read
+ * into the row set. The UPDATE and DELETE statements then match the
+ * original values too, WHERE key = ? AND column = ? for each other column
+ * (IS NULL for a null value), so a row changed between the check and the
+ * write matches no row and is a conflict whatever the policy. Large object,
+ * structured and LONG columns cannot be compared in SQL; they are only
+ * compared by the check.
+ *
+ * If the table has a version column (see add-version-columns.sql) and it is
+ * set with setVersionColumn, no values are compared. Instead the UPDATE and
+ * DELETE statements match the key and the version read into the row set,
+ * WHERE key = ? AND version = ?, and a statement that matches no row is a
+ * conflict. Updated and inserted rows get a new version, which is also
+ * stored in the row set. An integer version is incremented; a timestamp
+ * version is set to the current time, in whole seconds so that databases
+ * that do not keep fractions of a second compare it correctly.
+ *
+ * Conflicts are resolved all at once according to the ConflictPolicy: by
+ * default nothing is written and a ConflictException lists the keys of the
+ * conflicting rows.
+ *
+ * The table is the row set's table name, or the table of its first column.
+ * The key is a single column: the row set's first key column if set, or
+ * else the table's primary key.
+ *
+ * CachedRowSet.acceptChanges commits or rolls back through this writer; the
+ * connection's auto-commit mode is restored afterwards.
+ */
+public class BatchingRowSetWriter implements TransactionalWriter {
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    /**
+     * What to do with rows that were changed in the database after they were
+     * read into the row set.
+     */
+    public enum ConflictPolicy {
+        /**
+         * Write nothing and throw a ConflictException.
+         */
+        FAIL,
+        /**
+         * Write the other changes and leave the conflicting rows as they are
+         * in the database. The row set still holds its own values for these
+         * rows, so read them again; getSkippedKeys() returns their keys.
+         */
+        SKIP,
+        /**
+         * Write the row set's values over the database's. Rows updated in the
+         * row set but deleted in the database still fail.
+         */
+        OVERWRITE
+    }
+
+    /**
+     * Receives the number of rows written so far and the number of changed
+     * rows, after each batch. It is called on the thread that calls
+     * acceptChanges.
+     */
+    public interface ProgressListener {
+        void progress(int rowsWritten, int totalRows);
+    }
+
+    /**
+     * Thrown by acceptChanges when rows could not be written because they
+     * were changed by another user.
+     */
+    public static class ConflictException extends SyncProviderException {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Object> conflictKeys;
+
+        public ConflictException(List<Object> conflictKeys) {
+            super(conflictKeys.size() + " rows were changed by another user: " + conflictKeys);
+            this.conflictKeys = Collections.unmodifiableList(new ArrayList<>(conflictKeys));
+        }
+
+        public List<Object> getConflictKeys() {
+            return conflictKeys;
+        }
+    }
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private ProgressListener progressListener;
+    private String versionColumn;
+    private ConflictPolicy conflictPolicy = ConflictPolicy.FAIL;
+    private List<Object> skippedKeys = Collections.emptyList();
+
+    private Connection con;
+    private boolean closeConnection;
+    private boolean autoCommit;
+
+    // The table being written by writeData
+    private String table;
+    private String[] columns;
+    private int key; // Index of the key column in columns
+    private boolean[] compared; // Columns matched in WHERE clauses against expected values
+    private int version; // Index of the version column, or -1
+    private int totalRows;
+    private int rowsWritten;
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Detects conflicts with the given integer or timestamp column instead
+     * of comparing all the values of a row; null turns this off.
+     */
+    public void setVersionColumn(String versionColumn) {
+        if (versionColumn != null && !ColumnPredicate.isIdentifier(versionColumn)) {
+            throw new IllegalArgumentException("Not a column name: " + versionColumn);
+        }
+        this.versionColumn = versionColumn;
+    }
+
+    public String getVersionColumn() {
+        return versionColumn;
+    }
+
+    public void setConflictPolicy(ConflictPolicy conflictPolicy) {
+        this.conflictPolicy = Objects.requireNonNull(conflictPolicy);
+    }
+
+    public ConflictPolicy getConflictPolicy() {
+        return conflictPolicy;
+    }
+
+    /**
+     * Returns the keys of the rows that the last write left unchanged under
+     * ConflictPolicy.SKIP.
+     */
+    public List<Object> getSkippedKeys() {
+        return skippedKeys;
+    }
+
+    private static final class Change {
+        final int row; // Row number in the row set, counting deleted rows
+        final Object[] original; // null for inserted rows
+        final Object[] current; // null for deleted rows
+        Object expectedVersion; // The version the database row must have
+        Object[] expected; // The values the database row must have, or null
+
+        Change(int row, Object[] original, Object[] current) {
+            this.row = row;
+            this.original = original;
+            this.current = current;
+        }
+    }
+
+    public boolean writeData(RowSetInternal caller) throws SQLException {
+        CachedRowSet crs = (CachedRowSet) caller;
+        ResultSetMetaData metadata = crs.getMetaData();
+        int columnCount = metadata.getColumnCount();
+
+        List<Change> inserts = new ArrayList<>();
+        List<Change> updates = new ArrayList<>();
+        List<Change> deletes = new ArrayList<>();
+        collectChanges(crs, caller, columnCount, inserts, updates, deletes);
+        totalRows = inserts.size() + updates.size() + deletes.size();
+        rowsWritten = 0;
+        skippedKeys = Collections.emptyList();
+
+        connect(caller, crs);
+        if (totalRows == 0) {
+            return true;
+        }
+        try {
+            table = tableName(crs, metadata);
+            columns = new String[columnCount];
+            compared = new boolean[columnCount];
+            version = -1;
+            for (int i = 0; i < columnCount; i++) {
+                columns[i] = metadata.getColumnName(i + 1);
+                compared[i] = isComparable(metadata.getColumnType(i + 1));
+                if (columns[i].equalsIgnoreCase(versionColumn)) {
+                    version = i;
+                }
+            }
+            key = keyColumn(crs, metadata) - 1;
+            compared[key] = false;
+            if (versionColumn == null) {
+                writeComparingValues(inserts, updates, deletes);
+            } else if (version < 0) {
+                throw new SQLException("The row set does not include the version column " + versionColumn);
+            } else {
+                writeComparingVersions(crs, metadata, inserts, updates, deletes);
+            }
+        } catch (SQLException e) {
+            // acceptChanges only rolls back when writeData returns false
+            rollback();
+            throw e;
+        }
+        return true;
+    }
+
+    private void writeComparingValues(List<Change> inserts, List<Change> updates, List<Change> deletes)
+            throws SQLException {
+        List<Change> checked = new ArrayList<>(updates);
+        checked.addAll(deletes);
+        Map<Object, Object[]> rows = readRows(checked);
+        List<Change> conflicts = new ArrayList<>();
+        for (Change change : checked) {
+            Object[] row = rows.get(change.original[key]);
+            change.expected = change.original;
+            if (row == null || !sameValues(change.original, row)) {
+                conflicts.add(change);
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            if (conflictPolicy == ConflictPolicy.FAIL) {
+                throw new ConflictException(keys(conflicts));
+            } else if (conflictPolicy == ConflictPolicy.SKIP) {
+                updates.removeAll(conflicts);
+                deletes.removeAll(conflicts);
+                skip(conflicts);
+            } else {
+                for (Change change : conflicts) {
+                    Object[] row = rows.get(change.original[key]);
+                    if (row != null) {
+                        // Write over the values the database has now
+                        change.expected = row;
+                    } else if (change.current == null) {
+                        // A row to delete that is already gone needs no more work
+                        deletes.remove(change);
+                    }
+                }
+            }
+        }
+
+        // The statements match the values just checked, so a row changed
+        // since then is a conflict whatever the policy
+        failOnConflicts(executeDeletes(deletes));
+        failOnConflicts(executeUpdates(updates));
+        executeInserts(inserts);
+    }
+
+    private void writeComparingVersions(CachedRowSet crs, ResultSetMetaData metadata, List<Change> inserts,
+                                        List<Change> updates, List<Change> deletes) throws SQLException {
+        int versionType = metadata.getColumnType(version + 1);
+        for (Change change : deletes) {
+            change.expectedVersion = change.original[version];
+        }
+        for (Change change : updates) {
+            change.expectedVersion = change.original[version];
+            change.current[version] = nextVersion(change.expectedVersion, versionType);
+        }
+        for (Change change : inserts) {
+            if (change.current[version] == null) {
+                change.current[version] = nextVersion(null, versionType);
+            }
+        }
+
+        List<Change> conflicts = executeDeletes(deletes);
+        conflicts.addAll(executeUpdates(updates));
+        executeInserts(inserts);
+        if (!conflicts.isEmpty()) {
+            if (conflictPolicy == ConflictPolicy.FAIL) {
+                throw new ConflictException(keys(conflicts));
+            } else if (conflictPolicy == ConflictPolicy.SKIP) {
+                updates.removeAll(conflicts);
+                skip(conflicts);
+            } else {
+                overwrite(conflicts, versionType);
+            }
+        }
+
+        // Give the row set the versions now in the database; acceptChanges
+        // then makes them the original values
+        boolean showDeleted = crs.getShowDeleted();
+        crs.setShowDeleted(true);
+        try {
+            List<Change> written = new ArrayList<>(updates);
+            written.addAll(inserts);
+            for (Change change : written) {
+                crs.absolute(change.row);
+                crs.updateObject(version + 1, change.current[version]);
+                crs.updateRow();
+            }
+        } finally {
+            crs.setShowDeleted(showDeleted);
+            crs.beforeFirst();
+        }
+    }
+
+    /**
+     * Writes the conflicting rows again, expecting the versions they have in
+     * the database now.
+     */
+    private void overwrite(List<Change> conflicts, int versionType) throws SQLException {
+        Map<Object, Object[]> rows = readRows(conflicts);
+        List<Change> deletes = new ArrayList<>();
+        List<Change> updates = new ArrayList<>();
+        List<Change> missing = new ArrayList<>();
+        for (Change change : conflicts) {
+            Object[] row = rows.get(change.original[key]);
+            if (row == null) {
+                // A row to delete that is already gone needs no more work
+                if (change.current != null) {
+                    missing.add(change);
+                }
+            } else {
+                change.expectedVersion = row[version];
+                if (change.current == null) {
+                    deletes.add(change);
+                } else {
+                    change.current[version] = nextVersion(change.expectedVersion, versionType);
+                    updates.add(change);
+                }
+            }
+        }
+        failOnConflicts(missing);
+        rowsWritten -= deletes.size() + updates.size();
+        failOnConflicts(executeDeletes(deletes));
+        failOnConflicts(executeUpdates(updates));
+    }
+
+    private List<Change> executeDeletes(List<Change> deletes) throws SQLException {
+        return executeMatching("delete from " + table + " where ", deletes, 1, (ps, change) -> {
+        });
+    }
+
+    private List<Change> executeUpdates(List<Change> updates) throws SQLException {
+        StringBuilder setList = new StringBuilder();
+        for (int i = 0; i < columns.length; i++) {
+            setList.append(i == 0 ? "" : ", ").append(columns[i]).append(" = ?");
+        }
+        return executeMatching("update " + table + " set " + setList + " where ", updates, columns.length + 1,
+                (ps, change) -> {
+                    for (int i = 0; i < columns.length; i++) {
+                        ps.setObject(i + 1, change.current[i]);
+                    }
+                });
+    }
+
+    /**
+     * Executes statement followed by the WHERE clause of each change. The
+     * clause depends on which expected values are null, so the changes are
+     * run in one group of batches per clause. binder binds the parameters
+     * before firstWhereParameter.
+     */
+    private List<Change> executeMatching(String statement, List<Change> changes, int firstWhereParameter,
+                                         Binder binder) throws SQLException {
+        Map<String, List<Change>> groups = new LinkedHashMap<>();
+        for (Change change : changes) {
+            groups.computeIfAbsent(where(change), where -> new ArrayList<>()).add(change);
+        }
+        List<Change> unmatched = new ArrayList<>();
+        for (Map.Entry<String, List<Change>> group : groups.entrySet()) {
+            unmatched.addAll(executeBatches(statement + group.getKey(), group.getValue(), (ps, change) -> {
+                binder.bind(ps, change);
+                bindWhere(ps, firstWhereParameter, change);
+            }));
+        }
+        return unmatched;
+    }
+
+    private void executeInserts(List<Change> inserts) throws SQLException {
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < columns.length; i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        executeBatches("insert into " + table + " (" + String.join(", ", columns) + ") values (" +
+                        placeholders + ")", inserts,
+                (ps, change) -> {
+                    for (int i = 0; i < columns.length; i++) {
+                        ps.setObject(i + 1, change.current[i]);
+                    }
+                });
+    }
+
+    private String where(Change change) {
+        StringBuilder where = new StringBuilder(columns[key]).append(" = ?");
+        if (version >= 0) {
+            where.append(" and ").append(columns[version]).append(" = ?");
+        }
+        if (change.expected != null) {
+            for (int i = 0; i < columns.length; i++) {
+                if (compared[i]) {
+                    where.append(" and ").append(columns[i]).append(change.expected[i] == null ? " is null" : " = ?");
+                }
+            }
+        }
+        return where.toString();
+    }
+
+    private void bindWhere(PreparedStatement ps, int parameter, Change change) throws SQLException {
+        ps.setObject(parameter++, change.original[key]);
+        if (version >= 0) {
+            ps.setObject(parameter++, change.expectedVersion);
+        }
+        if (change.expected != null) {
+            for (int i = 0; i < columns.length; i++) {
+                if (compared[i] && change.expected[i] != null) {
+                    ps.setObject(parameter++, change.expected[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns false for the types that cannot be compared with = in SQL.
+     */
+    private static boolean isComparable(int sqlType) {
+        switch (sqlType) {
+            case Types.BLOB:
+            case Types.CLOB:
+            case Types.NCLOB:
+            case Types.LONGVARBINARY:
+            case Types.LONGVARCHAR:
+            case Types.LONGNVARCHAR:
+            case Types.ARRAY:
+            case Types.STRUCT:
+            case Types.SQLXML:
+            case Types.JAVA_OBJECT:
+            case Types.OTHER:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    private interface Binder {
+        void bind(PreparedStatement ps, Change change) throws SQLException;
+    }
+
+    /**
+     * Executes sql for each change, batchSize changes at a time, and returns
+     * the changes whose statement matched no row.
+     */
+    private List<Change> executeBatches(String sql, List<Change> changes, Binder binder) throws SQLException {
+        List<Change> unmatched = new ArrayList<>();
+        if (changes.isEmpty()) {
+            return unmatched;
+        }
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            for (int start = 0; start < changes.size(); start += batchSize) {
+                int end = Math.min(changes.size(), start + batchSize);
+                for (int i = start; i < end; i++) {
+                    binder.bind(ps, changes.get(i));
+                    ps.addBatch();
+                }
+                int[] counts;
+                try {
+                    counts = ps.executeBatch();
+                } catch (BatchUpdateException e) {
+                    SyncProviderException spe =
+                            new SyncProviderException("Writing changes failed: " + e.getMessage());
+                    spe.initCause(e);
+                    throw spe;
+                }
+                // Drivers may return SUCCESS_NO_INFO, which counts as a match
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0) {
+                        unmatched.add(changes.get(start + i));
+                    }
+                }
+                rowsWritten += end - start;
+                if (progressListener != null) {
+                    progressListener.progress(rowsWritten, totalRows);
+                }
+            }
+        }
+        return unmatched;
+    }
+
+    private void collectChanges(CachedRowSet crs, RowSetInternal caller, int columnCount,
+                                List<Change> inserts, List<Change> updates, List<Change> deletes)
+            throws SQLException {
+        boolean showDeleted = crs.getShowDeleted();
+        crs.setShowDeleted(true);
+        try {
+            crs.beforeFirst();
+            while (crs.next()) {
+                boolean inserted = crs.rowInserted();
+                boolean deleted = crs.rowDeleted();
+                if (inserted && deleted) {
+                    continue;
+                }
+                if (inserted) {
+                    inserts.add(new Change(crs.getRow(), null, values(crs, columnCount)));
+                } else if (deleted) {
+                    deletes.add(new Change(crs.getRow(), originalValues(caller, columnCount), null));
+                } else if (crs.rowUpdated()) {
+                    updates.add(new Change(crs.getRow(), originalValues(caller, columnCount),
+                            values(crs, columnCount)));
+                }
+            }
+        } finally {
+            crs.setShowDeleted(showDeleted);
+            crs.beforeFirst();
+        }
+    }
+
+    /**
+     * Reads the database rows with the original keys of the changes, with
+     * one query per batch of keys.
+     */
+    private Map<Object, Object[]> readRows(List<Change> changes) throws SQLException {
+        Map<Object, Object[]> rows = new HashMap<>();
+        for (int start = 0; start < changes.size(); start += batchSize) {
+            int end = Math.min(changes.size(), start + batchSize);
+            StringBuilder sql = new StringBuilder("select ").append(String.join(", ", columns))
+                    .append(" from ").append(table).append(" where ").append(columns[key]).append(" in (");
+            for (int i = start; i < end; i++) {
+                sql.append(i == start ? "?" : ", ?");
+            }
+            sql.append(')');
+
+            try (PreparedStatement ps = con.prepareStatement(sql.toString())) {
+                int parameter = 1;
+                for (int i = start; i < end; i++) {
+                    ps.setObject(parameter++, changes.get(i).original[key]);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Object[] row = values(rs, columns.length);
+                        rows.put(row[key], row);
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static boolean sameValues(Object[] original, Object[] current) {
+        for (int i = 0; i < original.length; i++) {
+            if (original[i] instanceof BigDecimal && current[i] instanceof BigDecimal) {
+                if (((BigDecimal) original[i]).compareTo((BigDecimal) current[i]) != 0) {
+                    return false;
+                }
+            } else if (original[i] instanceof Number && current[i] instanceof Number) {
+                if (((Number) original[i]).longValue() != ((Number) current[i]).longValue()) {
+                    return false;
+                }
+            } else if (!Objects.equals(original[i], current[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Object nextVersion(Object version, int sqlType) throws SQLException {
+        if (version == null) {
+            return sqlType == Types.TIMESTAMP ? nextTimestamp(0) : (Object) 0;
+        } else if (version instanceof Timestamp) {
+            return nextTimestamp(((Timestamp) version).getTime());
+        } else if (version instanceof Integer) {
+            return (Integer) version + 1;
+        } else if (version instanceof Long) {
+            return (Long) version + 1;
+        } else if (version instanceof BigDecimal) {
+            return ((BigDecimal) version).add(BigDecimal.ONE);
+        }
+        throw new SQLException("Unsupported version column value: " + version);
+    }
+
+    private static Timestamp nextTimestamp(long previous) {
+        long seconds = Math.max(System.currentTimeMillis() / 1000, previous / 1000 + 1);
+        return new Timestamp(seconds * 1000);
+    }
+
+    private void failOnConflicts(List<Change> conflicts) throws SyncProviderException {
+        if (!conflicts.isEmpty()) {
+            throw new ConflictException(keys(conflicts));
+        }
+    }
+
+    private void skip(List<Change> conflicts) {
+        skippedKeys = Collections.unmodifiableList(keys(conflicts));
+    }
+
+    private List<Object> keys(List<Change> changes) {
+        List<Object> keys = new ArrayList<>(changes.size());
+        for (Change change : changes) {
+            keys.add(change.original[key]);
+        }
+        return keys;
+    }
+
+    private static Object[] values(ResultSet rs, int columnCount) throws SQLException {
+        Object[] values = new Object[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            values[i] = rs.getObject(i + 1);
+        }
+        return values;
+    }
+
+    private static Object[] originalValues(RowSetInternal caller, int columnCount) throws SQLException {
+        try (ResultSet original = caller.getOriginalRow()) {
+            original.next();
+            return values(original, columnCount);
+        }
+    }
+
+    private void connect(RowSetInternal caller, CachedRowSet crs) throws SQLException {
+        con = caller.getConnection();
+        closeConnection = false;
+        if (con == null) {
+            con = DriverManager.getConnection(crs.getUrl(), crs.getUsername(), crs.getPassword());
+            closeConnection = true;
+        }
+        autoCommit = con.getAutoCommit();
+        con.setAutoCommit(false);
+    }
+
+    private static String tableName(CachedRowSet crs, ResultSetMetaData metadata) throws SQLException {
+        String table = crs.getTableName();
+        if (table == null || table.isEmpty()) {
+            table = metadata.getTableName(1);
+        }
+        if (table == null || !ColumnPredicate.isIdentifier(table)) {
+            throw new SQLException("Cannot tell which table to write to: " + table);
+        }
+        return table;
+    }
+
+    private int keyColumn(CachedRowSet crs, ResultSetMetaData metadata) throws SQLException {
+        int[] keys = crs.getKeyColumns();
+        if (keys != null && keys.length > 0) {
+            return keys[0];
+        }
+        DatabaseMetaData dbmd = con.getMetaData();
+        String keyName = null;
+        for (String name : new String[]{table, table.toUpperCase(), table.toLowerCase()}) {
+            try (ResultSet rs = dbmd.getPrimaryKeys(con.getCatalog(), null, name)) {
+                if (rs.next()) {
+                    keyName = rs.getString("COLUMN_NAME");
+                    if (rs.next()) {
+                        throw new SQLException("Table " + table + " has a key of more than one column");
+                    }
+                    break;
+                }
+            }
+        }
+        for (int i = 1; keyName != null && i <= metadata.getColumnCount(); i++) {
+            if (keyName.equalsIgnoreCase(metadata.getColumnName(i))) {
+                return i;
+            }
+        }
+        throw new SQLException("The row set does not include the primary key of " + table);
+    }
+
+    public void commit() throws SQLException {
+        try {
+            con.commit();
+        } finally {
+            release();
+        }
+    }
+
+    public void rollback() throws SQLException {
+        try {
+            con.rollback();
+        } finally {
+            release();
+        }
+    }
+
+    public void rollback(Savepoint s) throws SQLException {
+        con.rollback(s);
+    }
+
+    private void release() throws SQLException {
+        if (con == null) {
+            return;
+        }
+        try {
+            con.setAutoCommit(autoCommit);
+        } finally {
+            if (closeConnection) {
+                con.close();
+            }
+            con = null;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.oracle.tutorial.jdbc;
+
+import java.sql.SQLException;
+
+import javax.sql.RowSetReader;
+import javax.sql.RowSetWriter;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.spi.SyncFactory;
+import javax.sql.rowset.spi.SyncProvider;
+import javax.sql.rowset.spi.SyncProviderException;
+
+/**
+ * A SyncProvider whose writer sends the changes of a CachedRowSet to the
+ * database in JDBC batches; see BatchingRowSetWriter. Rows are read by the
+ * reference implementation's reader, as with the default provider.
+ *
+ * SyncFactory creates providers by class name, so use install() to register
+ * the provider and set it on a row set, and configure the returned
+ * provider's writer.
+ */
+public class BatchingSyncProvider extends SyncProvider {
+
+    public static final String PROVIDER_ID = BatchingSyncProvider.class.getName();
+
+    private static final String REFERENCE_PROVIDER_ID = "com.sun.rowset.providers.RIOptimisticProvider";
+
+    private final BatchingRowSetWriter writer = new BatchingRowSetWriter();
+    private RowSetReader reader;
+
+    /**
+     * Makes crs use a BatchingSyncProvider and returns it.
+     */
+    public static BatchingSyncProvider install(CachedRowSet crs) throws SQLException {
+        SyncFactory.registerProvider(PROVIDER_ID);
+        crs.setSyncProvider(PROVIDER_ID);
+        return (BatchingSyncProvider) crs.getSyncProvider();
+    }
+
+    public BatchingRowSetWriter getWriter() {
+        return writer;
+    }
+
+    public String getProviderID() {
+        return PROVIDER_ID;
+    }
+
+    public RowSetReader getRowSetReader() {
+        if (reader == null) {
+            try {
+                reader = SyncFactory.getInstance(REFERENCE_PROVIDER_ID).getRowSetReader();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return reader;
+    }
+
+    public RowSetWriter getRowSetWriter() {
+        return writer;
+    }
+
+    public int getProviderGrade() {
+        return SyncProvider.GRADE_CHECK_MODIFIED_AT_COMMIT;
+    }
+
+    public void setDataSourceLock(int dataSourceLock) throws SyncProviderException {
+        if (dataSourceLock != SyncProvider.DATASOURCE_NO_LOCK) {
+            throw new SyncProviderException("Only DATASOURCE_NO_LOCK is supported");
+        }
+    }
+
+    public int getDataSourceLock() {
+        return SyncProvider.DATASOURCE_NO_LOCK;
+    }
+
+    public int supportsUpdatableView() {
+        return SyncProvider.NONUPDATABLE_VIEW_SYNC;
+    }
+
+    public String getVersion() {
+        return "1.0";
+    }
+
+    public String getVendor() {
+        return "JDBC Basics";
+    }
+}
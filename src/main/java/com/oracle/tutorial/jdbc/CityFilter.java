@@ -31,81 +31,97 @@
 
 package com.oracle.tutorial.jdbc;
 
-import java.sql.SQLException;
-
-import javax.sql.RowSet;
-import javax.sql.rowset.CachedRowSet;
-import javax.sql.rowset.Predicate;
-
-public class CityFilter implements Predicate {
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Matches rows whose city is one of the given cities, ignoring case unless
+ * ignoreCase is false. The cities are upper-cased once into a hash set, so
+ * each row costs one lookup however many cities there are.
+ *
+ * The SQL form gives the same rows: UPPER(column) IN (?, ...) with the
+ * cities upper-cased, or, when ignoreCase is false, column IN (?, ...) with
+ * the cities as given. Only the exact form can use an index on the column.
+ */
+public class CityFilter extends ColumnPredicate {
 
-    private String[] cities;
-    private String colName = null;
-    private int colNumber = -1;
+    private final String[] cities;
+    private final boolean ignoreCase;
+    private final Set<String> normalizedCities;
 
     public CityFilter(String[] citiesArg, String colNameArg) {
-        this.cities = citiesArg;
-        this.colNumber = -1;
-        this.colName = colNameArg;
+        this(citiesArg, colNameArg, true);
     }
 
     public CityFilter(String[] citiesArg, int colNumberArg) {
-        this.cities = citiesArg;
-        this.colNumber = colNumberArg;
-        this.colName = null;
+        this(citiesArg, colNumberArg, true);
     }
 
-    public boolean evaluate(Object valueArg, String colNameArg) {
-
-        if (colNameArg.equalsIgnoreCase(this.colName)) {
-            for (int i = 0; i < this.cities.length; i++) {
-                if (this.cities[i].equalsIgnoreCase((String) valueArg)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+    public CityFilter(String[] citiesArg, String colNameArg, boolean ignoreCase) {
+        super(colNameArg);
+        this.cities = citiesArg.clone();
+        this.ignoreCase = ignoreCase;
+        this.normalizedCities = normalize(citiesArg, ignoreCase);
     }
 
-    public boolean evaluate(Object valueArg, int colNumberArg) {
-
-        if (colNumberArg == this.colNumber) {
-            for (int i = 0; i < this.cities.length; i++) {
-                if (this.cities[i].equalsIgnoreCase((String) valueArg)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+    public CityFilter(String[] citiesArg, int colNumberArg, boolean ignoreCase) {
+        super(colNumberArg);
+        this.cities = citiesArg.clone();
+        this.ignoreCase = ignoreCase;
+        this.normalizedCities = normalize(citiesArg, ignoreCase);
     }
 
+    public String[] getCities() {
+        return cities.clone();
+    }
 
-    public boolean evaluate(RowSet rs) {
-
-        if (rs == null)
-            return false;
+    public boolean isIgnoreCase() {
+        return ignoreCase;
+    }
 
-        try {
-            for (int i = 0; i < this.cities.length; i++) {
+    protected boolean matches(Object value) {
+        String city = value.toString();
+        return normalizedCities.contains(ignoreCase ? city.toUpperCase(Locale.ROOT) : city);
+    }
 
-                String cityName = null;
+    /**
+     * Returns UPPER(column) IN (?, ...), or column IN (?, ...) when case is
+     * not ignored, with one placeholder per city.
+     */
+    public String toSql() {
+        String column = sqlColumnName();
+        if (column == null || cities.length == 0) {
+            return null;
+        }
+        StringBuilder sql = ignoreCase ? new StringBuilder("UPPER(").append(column).append(") IN (")
+                : new StringBuilder(column).append(" IN (");
+        for (int i = 0; i < cities.length; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.append(')').toString();
+    }
 
-                if (this.colNumber > 0) {
-                    cityName = (String) rs.getObject(this.colNumber);
-                } else if (this.colName != null) {
-                    cityName = (String) rs.getObject(this.colName);
-                } else {
-                    return false;
-                }
+    public List<Object> getParameters() {
+        List<Object> parameters = new ArrayList<>(cities.length);
+        for (String city : cities) {
+            parameters.add(ignoreCase ? city.toUpperCase(Locale.ROOT) : city);
+        }
+        return parameters;
+    }
 
-                if (cityName.equalsIgnoreCase(cities[i])) {
-                    return true;
-                }
-            }
-        } catch (SQLException e) {
-            return false;
+    private static Set<String> normalize(String[] cities, boolean ignoreCase) {
+        Set<String> normalized = new HashSet<>();
+        for (String city : cities) {
+            normalized.add(ignoreCase ? city.toUpperCase(Locale.ROOT) : city);
         }
-        return false;
+        return normalized;
     }
 
+    public String toString() {
+        return "CityFilter" + Arrays.toString(cities);
+    }
 }
@@ -0,0 +1,45 @@
+package com.oracle.tutorial.jdbc;
+
+import java.math.BigDecimal;
+
+/**
+ * One row of the COFFEES table. CoffeeRowMapper can fill and reuse one
+ * instance for every row, so the numeric columns are held as primitives and
+ * the price as a number of cents rather than as boxed objects.
+ */
+public class CoffeeRow {
+
+    String coffeeName;
+    int supplierID;
+    long priceCents;
+    int sales;
+    int total;
+
+    public String getCoffeeName() {
+        return coffeeName;
+    }
+
+    public int getSupplierID() {
+        return supplierID;
+    }
+
+    public long getPriceCents() {
+        return priceCents;
+    }
+
+    public BigDecimal getPrice() {
+        return BigDecimal.valueOf(priceCents, 2);
+    }
+
+    public int getSales() {
+        return sales;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public String toString() {
+        return coffeeName + ", " + supplierID + ", " + getPrice() + ", " + sales + ", " + total;
+    }
+}
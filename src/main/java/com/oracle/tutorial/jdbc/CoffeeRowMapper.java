@@ -0,0 +1,77 @@
+package com.oracle.tutorial.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps rows of a query over COFFEES to CoffeeRow objects.
+ *
+ * Column positions are looked up in ResultSetMetaData the first time a query
+ * is mapped and remembered by SQL text, so later rows and later executions of
+ * the same query read every column by index. mapRow returns a new CoffeeRow,
+ * so it can be used with StreamingQuery.stream(). Callers of
+ * StreamingQuery.forEach that only look at one row at a time can fill a
+ * single CoffeeRow with mapRow(rs, row) instead.
+ */
+public class CoffeeRowMapper implements StreamingQuery.RowMapper<CoffeeRow> {
+
+    private static final String[] COLUMNS = {"COF_NAME", "SUP_ID", "PRICE", "SALES", "TOTAL"};
+
+    private static final Map<String, int[]> columnIndexes = new ConcurrentHashMap<>();
+
+    private final String query;
+    private int[] indexes;
+
+    /**
+     * Creates a mapper for the given query, which must select the COF_NAME,
+     * SUP_ID, PRICE, SALES and TOTAL columns in any order.
+     */
+    public CoffeeRowMapper(String query) {
+        this.query = query;
+        this.indexes = columnIndexes.get(query);
+    }
+
+    public CoffeeRow mapRow(ResultSet rs) throws SQLException {
+        return mapRow(rs, new CoffeeRow());
+    }
+
+    /**
+     * Fills row with the current row of rs and returns it.
+     */
+    public CoffeeRow mapRow(ResultSet rs, CoffeeRow row) throws SQLException {
+        int[] idx = this.indexes;
+        if (idx == null) {
+            idx = resolveIndexes(rs.getMetaData());
+            columnIndexes.put(query, idx);
+            this.indexes = idx;
+        }
+
+        row.coffeeName = rs.getString(idx[0]);
+        row.supplierID = rs.getInt(idx[1]);
+        row.priceCents = Math.round(rs.getDouble(idx[2]) * 100);
+        row.sales = rs.getInt(idx[3]);
+        row.total = rs.getInt(idx[4]);
+        return row;
+    }
+
+    private static int[] resolveIndexes(ResultSetMetaData metadata) throws SQLException {
+        int[] idx = new int[COLUMNS.length];
+        for (int i = 1; i <= metadata.getColumnCount(); i++) {
+            String label = metadata.getColumnLabel(i);
+            for (int c = 0; c < COLUMNS.length; c++) {
+                if (idx[c] == 0 && COLUMNS[c].equalsIgnoreCase(label)) {
+                    idx[c] = i;
+                }
+            }
+        }
+        for (int c = 0; c < COLUMNS.length; c++) {
+            if (idx[c] == 0) {
+                throw new SQLException("Query does not select column " + COLUMNS[c]);
+            }
+        }
+        return idx;
+    }
+}
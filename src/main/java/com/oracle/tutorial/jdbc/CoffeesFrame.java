@@ -41,6 +41,8 @@ import java.awt.event.*;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import javax.sql.RowSetListener;
 
 
@@ -67,6 +69,7 @@ public class CoffeesFrame extends JFrame implements RowSetListener {
     JButton button_DISCARD_CHANGES;
 
     CoffeesTableModel myCoffeesTableModel;
+    CoffeesTableLoader loader; // Loads the table in the background
 
     public CoffeesFrame(JDBCTutorialUtilities settingsArg) throws SQLException {
 
@@ -82,6 +85,9 @@ public class CoffeesFrame extends JFrame implements RowSetListener {
 
         addWindowListener(new WindowAdapter() {
             public void windowClosing(WindowEvent e) {
+                if (loader != null) {
+                    loader.cancelLoad();
+                }
                 try {
                     connection.close();
                 } catch (SQLException ex) {
@@ -93,12 +99,10 @@ public class CoffeesFrame extends JFrame implements RowSetListener {
 
         // Initialize and lay out window controls
 
-        CachedRowSet myCachedRowSet = getContentsOfCoffeesTable();
-        myCoffeesTableModel = new CoffeesTableModel(myCachedRowSet);
-        myCoffeesTableModel.addEventHandlersToRowSet(this);
-
+        // The rows are loaded in the background and appear as they arrive,
+        // so the window is shown without waiting for the query
         table = new JTable(); // Displays the table
-        table.setModel(myCoffeesTableModel);
+        createNewTableModel();
 
         label_COF_NAME = new JLabel();
         label_SUP_ID = new JLabel();
@@ -279,7 +283,7 @@ public class CoffeesFrame extends JFrame implements RowSetListener {
                                 "Sales: [" + textField_SALES.getText() + "]",
                                 "Total: [" + textField_TOTAL.getText() + "]"});
                 try {
-                    myCoffeesTableModel.insertRow(textField_COF_NAME.getText(),
+                    currentTableModel().insertRow(textField_COF_NAME.getText(),
                             Integer.parseInt(textField_SUP_ID.getText().trim()),
                             Float.parseFloat(textField_PRICE.getText().trim()),
                             Integer.parseInt(textField_SALES.getText().trim()),
@@ -293,15 +297,9 @@ public class CoffeesFrame extends JFrame implements RowSetListener {
         button_UPDATE_DATABASE.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent e) {
                 try {
-                    myCoffeesTableModel.coffeesRowSet.acceptChanges(connection);
+                    saveChanges(currentTableModel());
                 } catch (SQLException sqle) {
                     displaySQLExceptionDialog(sqle);
-                    // Now revert back changes
-                    try {
-                        createNewTableModel();
-                    } catch (SQLException sqle2) {
-                        displaySQLExceptionDialog(sqle2);
-                    }
                 }
             }
         });
@@ -329,10 +327,97 @@ public class CoffeesFrame extends JFrame implements RowSetListener {
         );
     }
 
+    /**
+     * Loads the COFFEES table again in the background, cancelling a load
+     * that is still running. Changes not written to the database are lost.
+     */
     private void createNewTableModel() throws SQLException {
-        myCoffeesTableModel = new CoffeesTableModel(getContentsOfCoffeesTable());
-        myCoffeesTableModel.addEventHandlersToRowSet(this);
-        table.setModel(myCoffeesTableModel);
+        if (loader != null) {
+            loader.cancelLoad();
+        }
+        myCoffeesTableModel = null;
+        loader = new CoffeesTableLoader(settings.getDataSource()) {
+            protected void modelCreated(CoffeesTableModel model) {
+                myCoffeesTableModel = model;
+                table.setModel(model);
+            }
+
+            protected void loadFinished(CoffeesTableModel model) {
+                model.addEventHandlersToRowSet(CoffeesFrame.this);
+                try {
+                    BatchingSyncProvider.install(model.getCoffeesRowSet());
+                } catch (SQLException e) {
+                    displaySQLExceptionDialog(e);
+                }
+            }
+
+            protected void loadFailed(SQLException e) {
+                displaySQLExceptionDialog(e);
+            }
+        };
+        loader.execute();
+    }
+
+    /**
+     * Writes the changes in the background with BatchingRowSetWriter and
+     * shows the progress in the title bar. The buttons and the table are
+     * disabled until the changes are written; if writing fails, the table is
+     * loaded again.
+     */
+    private void saveChanges(CoffeesTableModel model) {
+        String title = getTitle();
+        setEditingEnabled(false);
+        SwingWorker<Void, Void> saver = new SwingWorker<Void, Void>() {
+            protected Void doInBackground() throws SQLException {
+                if (model.getCoffeesRowSet().getSyncProvider() instanceof BatchingSyncProvider) {
+                    ((BatchingSyncProvider) model.getCoffeesRowSet().getSyncProvider()).getWriter()
+                            .setProgressListener((written, total) -> setProgress(100 * written / total));
+                }
+                model.acceptChanges(connection);
+                return null;
+            }
+
+            protected void done() {
+                setTitle(title);
+                setEditingEnabled(true);
+                try {
+                    get();
+                } catch (InterruptedException | CancellationException e) {
+                    // The window is closing
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    displaySQLExceptionDialog(cause instanceof SQLException ?
+                            (SQLException) cause : new SQLException(cause));
+                    // Now revert back changes
+                    try {
+                        createNewTableModel();
+                    } catch (SQLException sqle2) {
+                        displaySQLExceptionDialog(sqle2);
+                    }
+                }
+            }
+        };
+        saver.addPropertyChangeListener(event -> {
+            if ("progress".equals(event.getPropertyName())) {
+                setTitle(title + " - saving " + event.getNewValue() + "%");
+            }
+        });
+        setTitle(title + " - saving");
+        saver.execute();
+    }
+
+    private void setEditingEnabled(boolean enabled) {
+        table.setEnabled(enabled);
+        button_ADD_ROW.setEnabled(enabled);
+        button_UPDATE_DATABASE.setEnabled(enabled);
+        button_DISCARD_CHANGES.setEnabled(enabled);
+    }
+
+    private CoffeesTableModel currentTableModel() throws SQLException {
+        if (myCoffeesTableModel == null) {
+            throw new SQLException("The COFFEES table is still loading");
+        }
+        return myCoffeesTableModel;
     }
 
     public static void main(String[] args) throws Exception {
@@ -350,7 +435,13 @@ public class CoffeesFrame extends JFrame implements RowSetListener {
             }
         }
         try {
-            CoffeesFrame qf = new CoffeesFrame(myJDBCTutorialUtilities);
+            // "browse" opens a read-only view that reads COFFEES page by page
+            JFrame qf;
+            if (args.length > 1 && args[1].equals("browse")) {
+                qf = createBrowseFrame(myJDBCTutorialUtilities);
+            } else {
+                qf = new CoffeesFrame(myJDBCTutorialUtilities);
+            }
             qf.pack();
             qf.setVisible(true);
         } catch (SQLException sqle) {
@@ -361,6 +452,23 @@ public class CoffeesFrame extends JFrame implements RowSetListener {
         }
     }
 
+    /**
+     * Creates a read-only window that shows COFFEES through a
+     * PagedCoffeesTableModel, so that tables too large for a CachedRowSet
+     * can be browsed.
+     */
+    public static JFrame createBrowseFrame(JDBCTutorialUtilities settings) throws SQLException {
+        PagedCoffeesTableModel model = new PagedCoffeesTableModel(settings.getDataSource());
+        JFrame frame = new JFrame("The Coffee Break: COFFEES Table (" + model.getRowCount() + " rows)");
+        frame.getContentPane().add(new JScrollPane(new JTable(model)));
+        frame.addWindowListener(new WindowAdapter() {
+            public void windowClosing(WindowEvent e) {
+                System.exit(0);
+            }
+        });
+        return frame;
+    }
+
     public CachedRowSet getContentsOfCoffeesTable() throws SQLException {
         CachedRowSet crs = null;
 
@@ -384,26 +492,8 @@ public class CoffeesFrame extends JFrame implements RowSetListener {
     }
 
     public void rowChanged(RowSetEvent event) {
-
-        CachedRowSet currentRowSet = this.myCoffeesTableModel.coffeesRowSet;
-
-        try {
-            currentRowSet.moveToCurrentRow();
-            myCoffeesTableModel =
-                    new CoffeesTableModel(myCoffeesTableModel.getCoffeesRowSet());
-            table.setModel(myCoffeesTableModel);
-
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            // Display the error in a dialog box.
-            JOptionPane.showMessageDialog(
-                    CoffeesFrame.this,
-                    new String[]{ // Display a 2-line message
-                            ex.getClass().getName() + ": ",
-                            ex.getMessage()
-                    }
-            );
-        }
+        // CoffeesTableModel tells the table which rows it inserted, updated
+        // or deleted, so the model does not have to be rebuilt here
     }
 
     public void cursorMoved(RowSetEvent event) {
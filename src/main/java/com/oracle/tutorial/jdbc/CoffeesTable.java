@@ -31,6 +31,8 @@
 
 package com.oracle.tutorial.jdbc;
 
+import java.math.BigDecimal;
+
 import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.DriverManager;
@@ -40,8 +42,11 @@ import java.sql.SQLException;
 import java.sql.Savepoint;
 import java.sql.Statement;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -111,6 +116,101 @@ public class CoffeesTable {
         }
     }
 
+    /**
+     * Batched variant of updateCoffeeSales. The SALES and TOTAL updates are
+     * queued with addBatch and sent with executeBatch for batchSize coffees at
+     * a time, and each chunk is committed once. If a chunk fails, the coffees
+     * that the BatchUpdateException reports as failed are left out and the
+     * rest of the chunk is retried. Returns the names of the coffees that
+     * could not be updated, including names that do not exist in COFFEES.
+     */
+    public Set<String> updateCoffeeSales(Map<String, Integer> salesForWeek, int batchSize) throws SQLException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        String updateString = "update COFFEES set SALES = ? where COF_NAME = ?";
+        String updateStatement = "update COFFEES set TOTAL = TOTAL + ? where COF_NAME = ?";
+
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(salesForWeek.entrySet());
+        Set<String> failed = new LinkedHashSet<>();
+        boolean autoCommit = con.getAutoCommit();
+
+        try (PreparedStatement updateSales = con.prepareStatement(updateString);
+             PreparedStatement updateTotal = con.prepareStatement(updateStatement)) {
+            con.setAutoCommit(false);
+            for (int start = 0; start < entries.size(); start += batchSize) {
+                List<Map.Entry<String, Integer>> chunk =
+                        new ArrayList<>(entries.subList(start, Math.min(start + batchSize, entries.size())));
+                while (!chunk.isEmpty()) {
+                    try {
+                        for (Map.Entry<String, Integer> e : chunk) {
+                            updateSales.setInt(1, e.getValue().intValue());
+                            updateSales.setString(2, e.getKey());
+                            updateSales.addBatch();
+
+                            updateTotal.setInt(1, e.getValue().intValue());
+                            updateTotal.setString(2, e.getKey());
+                            updateTotal.addBatch();
+                        }
+                        int[] updateCounts = updateSales.executeBatch();
+                        updateTotal.executeBatch();
+                        con.commit();
+
+                        for (int i = 0; i < updateCounts.length; i++) {
+                            if (updateCounts[i] == 0) {
+                                String coffeeName = chunk.get(i).getKey();
+                                System.err.println("No coffee named " + coffeeName + "; sales not updated");
+                                failed.add(coffeeName);
+                            }
+                        }
+                        break;
+                    } catch (BatchUpdateException b) {
+                        con.rollback();
+                        updateSales.clearBatch();
+                        updateTotal.clearBatch();
+                        List<Integer> failedRows = getFailedRows(b.getUpdateCounts(), chunk.size());
+                        for (int i = failedRows.size() - 1; i >= 0; i--) {
+                            String coffeeName = chunk.remove(failedRows.get(i).intValue()).getKey();
+                            System.err.println("Could not update sales of " + coffeeName +
+                                    " (SQLState " + b.getSQLState() + "): " + b.getMessage());
+                            failed.add(coffeeName);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            // Restoring auto-commit would commit the uncommitted chunk
+            con.rollback();
+            throw e;
+        } finally {
+            con.setAutoCommit(autoCommit);
+        }
+        return failed;
+    }
+
+    // Drivers either stop at the first failing statement, returning fewer
+    // update counts than statements, or run the whole batch and mark the
+    // failing statements with EXECUTE_FAILED.
+    private static List<Integer> getFailedRows(int[] updateCounts, int batchSize) {
+        List<Integer> failedRows = new ArrayList<>();
+        if (updateCounts.length < batchSize) {
+            failedRows.add(updateCounts.length);
+            return failedRows;
+        }
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                failedRows.add(i);
+            }
+        }
+        if (failedRows.isEmpty()) {
+            // The driver did not say which statement failed
+            for (int i = 0; i < batchSize; i++) {
+                failedRows.add(i);
+            }
+        }
+        return failedRows;
+    }
+
     public void modifyPrices(float percentage) throws SQLException {
         try (Statement stmt = con.createStatement(ResultSet.TYPE_SCROLL_SENSITIVE, ResultSet.CONCUR_UPDATABLE)) {
             ResultSet uprs = stmt.executeQuery("SELECT * FROM COFFEES");
@@ -122,6 +222,50 @@ public class CoffeesTable {
         }
     }
 
+    /**
+     * Multiplies the price of every coffee by multiplier. Unlike
+     * modifyPrices(float), which walks an updatable ResultSet and updates one
+     * row per round trip, this sends a single UPDATE statement and keeps the
+     * arithmetic in DECIMAL. Returns the number of rows updated.
+     */
+    public int modifyPrices(BigDecimal multiplier) throws SQLException {
+        return modifyPrices(multiplier, null);
+    }
+
+    /**
+     * Multiplies the price of the coffees bought from the given supplier.
+     */
+    public int modifyPricesForSupplier(BigDecimal multiplier, int supplierID) throws SQLException {
+        return modifyPrices(multiplier, "SUP_ID = ?", supplierID);
+    }
+
+    /**
+     * Multiplies the price of the coffees whose name matches a LIKE pattern,
+     * for example "French%".
+     */
+    public int modifyPricesForCoffees(BigDecimal multiplier, String coffeeNamePattern) throws SQLException {
+        return modifyPrices(multiplier, "COF_NAME LIKE ?", coffeeNamePattern);
+    }
+
+    /**
+     * Runs UPDATE COFFEES SET PRICE = PRICE * multiplier, restricted by
+     * whereClause if it is not null. The clause is SQL text and should use ?
+     * placeholders for the values in parameters.
+     */
+    public int modifyPrices(BigDecimal multiplier, String whereClause, Object... parameters) throws SQLException {
+        String updateString = "UPDATE COFFEES SET PRICE = PRICE * ?";
+        if (whereClause != null) {
+            updateString += " WHERE " + whereClause;
+        }
+        try (PreparedStatement updatePrices = con.prepareStatement(updateString)) {
+            updatePrices.setBigDecimal(1, multiplier);
+            for (int i = 0; i < parameters.length; i++) {
+                updatePrices.setObject(i + 2, parameters[i]);
+            }
+            return updatePrices.executeUpdate();
+        }
+    }
+
     public void modifyPricesByPercentage(
             String coffeeName,
             float priceModifier,
@@ -209,34 +353,50 @@ public class CoffeesTable {
 
     public static void viewTable(Connection con) throws SQLException {
         String query = "select COF_NAME, SUP_ID, PRICE, SALES, TOTAL from COFFEES";
-        try (Statement stmt = con.createStatement()) {
-            ResultSet rs = stmt.executeQuery(query);
-            while (rs.next()) {
-                String coffeeName = rs.getString("COF_NAME");
-                int supplierID = rs.getInt("SUP_ID");
-                float price = rs.getFloat("PRICE");
-                int sales = rs.getInt("SALES");
-                int total = rs.getInt("TOTAL");
-                System.out.println(coffeeName + ", " + supplierID + ", " + price +
-                        ", " + sales + ", " + total);
-            }
-        }
+        // Rows are streamed, so large tables are printed in constant memory,
+        // and the mapper reads the columns by index into a reused CoffeeRow
+        CoffeeRowMapper mapper = new CoffeeRowMapper(query);
+        CoffeeRow row = new CoffeeRow();
+        StreamingQuery.forEach(con, query, StreamingQuery.DEFAULT_FETCH_SIZE, rs -> {
+            mapper.mapRow(rs, row);
+            System.out.println(row.getCoffeeName() + ", " + row.getSupplierID() + ", " + row.getPrice() +
+                    ", " + row.getSales() + ", " + row.getTotal());
+            return true;
+        });
     }
 
     public static void alternateViewTable(Connection con) throws SQLException {
         String query = "select COF_NAME, SUP_ID, PRICE, SALES, TOTAL from COFFEES";
-        try (Statement stmt = con.createStatement()) {
-            ResultSet rs = stmt.executeQuery(query);
-            while (rs.next()) {
-                String coffeeName = rs.getString(1);
-                int supplierID = rs.getInt(2);
-                float price = rs.getFloat(3);
-                int sales = rs.getInt(4);
-                int total = rs.getInt(5);
-                System.out.println(coffeeName + ", " + supplierID + ", " + price +
-                        ", " + sales + ", " + total);
-            }
-        }
+        StreamingQuery.forEach(con, query, StreamingQuery.DEFAULT_FETCH_SIZE, rs -> {
+            String coffeeName = rs.getString(1);
+            int supplierID = rs.getInt(2);
+            float price = rs.getFloat(3);
+            int sales = rs.getInt(4);
+            int total = rs.getInt(5);
+            System.out.println(coffeeName + ", " + supplierID + ", " + price +
+                    ", " + sales + ", " + total);
+            return true;
+        });
+    }
+
+    /**
+     * Returns the names of the coffees bought from the suppliers whose name
+     * matches the LIKE pattern supplierName. The join and the name are
+     * evaluated by the database, which finds the suppliers through the
+     * SUPPLIERS_SUP_NAME index (when the pattern does not start with a
+     * wildcard) and their coffees through the index on the COFFEES.SUP_ID
+     * foreign key, so only matching rows are sent to the client.
+     */
+    public List<String> getCoffeesBoughtBySupplier(String supplierName) throws SQLException {
+        String query = "select COFFEES.COF_NAME from SUPPLIERS " +
+                "join COFFEES on COFFEES.SUP_ID = SUPPLIERS.SUP_ID " +
+                "where SUPPLIERS.SUP_NAME LIKE ?";
+        List<String> coffeeNames = new ArrayList<>();
+        StreamingQuery.forEach(con, query, StreamingQuery.DEFAULT_FETCH_SIZE, rs -> {
+            coffeeNames.add(rs.getString(1));
+            return true;
+        }, supplierName);
+        return coffeeNames;
     }
 
     public Set<String> getKeys() throws SQLException {
@@ -298,7 +458,8 @@ public class CoffeesTable {
             CoffeesTable.viewTable(myConnection);
 
             System.out.println("\nRaising coffee prices by 25%");
-            myCoffeeTable.modifyPrices(1.25f);
+            int updated = myCoffeeTable.modifyPrices(new BigDecimal("1.25"));
+            System.out.println(updated + " prices updated");
 
             System.out.println("\nInserting a new row:");
             myCoffeeTable.insertRow("Kona", 150, 10.99f, 0, 0);
@@ -312,7 +473,10 @@ public class CoffeesTable {
             salesCoffeeWeek.put("Espresso", 60);
             salesCoffeeWeek.put("Colombian_Decaf", 155);
             salesCoffeeWeek.put("French_Roast_Decaf", 90);
-            myCoffeeTable.updateCoffeeSales(salesCoffeeWeek);
+            Set<String> notUpdated = myCoffeeTable.updateCoffeeSales(salesCoffeeWeek, 100);
+            if (!notUpdated.isEmpty()) {
+                System.out.println("Sales not updated for " + notUpdated);
+            }
             CoffeesTable.viewTable(myConnection);
 
             System.out.println("\nModifying prices by percentage");
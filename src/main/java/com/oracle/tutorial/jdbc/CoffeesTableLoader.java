@@ -0,0 +1,220 @@
+package com.oracle.tutorial.jdbc;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+import javax.sql.DataSource;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetFactory;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import javax.swing.SwingWorker;
+
+/**
+ * Loads the COFFEES table into an updatable CachedRowSet on a background
+ * thread and shows the rows in a CoffeesTableModel as they arrive.
+ *
+ * The query is streamed, and while CachedRowSet.populate copies the rows,
+ * the values it reads are also collected and published to the event
+ * dispatch thread every chunkSize rows, where they are appended to the
+ * model. When the row set is complete, it is attached to the model, which
+ * from then on can insert, update and delete rows.
+ *
+ * cancel(true) stops the load: the running query is cancelled with
+ * Statement.cancel and the partly filled row set is discarded.
+ *
+ * Subclasses are told on the event dispatch thread when the model is
+ * created and when loading ends.
+ */
+public class CoffeesTableLoader extends SwingWorker<CachedRowSet, Object[]> {
+
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    private static final String QUERY = "select COF_NAME, SUP_ID, PRICE, SALES, TOTAL from COFFEES";
+
+    private final DataSource dataSource;
+    private final int chunkSize;
+    private volatile CoffeesTableModel model;
+    private volatile PreparedStatement statement;
+    private boolean modelShown;
+
+    public CoffeesTableLoader(DataSource dataSource) {
+        this(dataSource, DEFAULT_CHUNK_SIZE);
+    }
+
+    public CoffeesTableLoader(DataSource dataSource, int chunkSize) {
+        this.dataSource = dataSource;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Called on the event dispatch thread with the still empty model, before
+     * any rows are added to it.
+     */
+    protected void modelCreated(CoffeesTableModel model) {
+    }
+
+    /**
+     * Called on the event dispatch thread after all rows have been loaded
+     * and the row set has been attached to the model.
+     */
+    protected void loadFinished(CoffeesTableModel model) {
+    }
+
+    /**
+     * Called on the event dispatch thread if loading failed. It is not
+     * called if the load was cancelled.
+     */
+    protected void loadFailed(SQLException e) {
+    }
+
+    protected CachedRowSet doInBackground() throws SQLException {
+        RowSetFactory factory = RowSetProvider.newFactory();
+        CachedRowSet crs = factory.createCachedRowSet();
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = StreamingQuery.prepare(con, QUERY, chunkSize)) {
+            statement = ps;
+            if (isCancelled()) {
+                throw new SQLException("Loading COFFEES was cancelled");
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                model = new CoffeesTableModel(copyOf(rs.getMetaData()), chunkSize);
+                crs.setType(ResultSet.TYPE_SCROLL_INSENSITIVE);
+                crs.setConcurrency(ResultSet.CONCUR_UPDATABLE);
+                crs.setCommand(QUERY);
+                crs.setTableName("COFFEES");
+                crs.setKeyColumns(new int[]{1}); // COF_NAME
+                crs.populate(tee(rs, model.getColumnCount()));
+            }
+        } catch (SQLException e) {
+            crs.close();
+            throw e;
+        } finally {
+            statement = null;
+        }
+        return crs;
+    }
+
+    protected void process(List<Object[]> rows) {
+        if (isCancelled()) {
+            return;
+        }
+        showModel();
+        model.appendRows(rows);
+    }
+
+    protected void done() {
+        CachedRowSet crs;
+        try {
+            crs = get();
+        } catch (CancellationException | InterruptedException e) {
+            return;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            loadFailed(cause instanceof SQLException ? (SQLException) cause : new SQLException(cause));
+            return;
+        }
+        try {
+            showModel();
+            model.setCoffeesRowSet(crs);
+            loadFinished(model);
+        } catch (SQLException e) {
+            loadFailed(e);
+        }
+    }
+
+    /**
+     * Cancels the load; if the query is running, it is cancelled too.
+     */
+    public boolean cancelLoad() {
+        boolean cancelled = cancel(true);
+        PreparedStatement ps = statement;
+        if (cancelled && ps != null) {
+            try {
+                ps.cancel();
+            } catch (SQLException e) {
+                // The load stops at the next row anyway
+            }
+        }
+        return cancelled;
+    }
+
+    private void showModel() {
+        if (!modelShown) {
+            modelShown = true;
+            modelCreated(model);
+        }
+    }
+
+    /**
+     * Returns a ResultSet that passes calls to rs, collects the column values
+     * read with getObject(int) and publishes them in chunks. next() fails
+     * once the load is cancelled.
+     */
+    private ResultSet tee(ResultSet rs, int columnCount) {
+        List<Object[]> chunk = new ArrayList<>(chunkSize);
+        Object[][] current = {null};
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.equals("next")) {
+                        if (isCancelled()) {
+                            throw new SQLException("Loading COFFEES was cancelled");
+                        }
+                        if (current[0] != null) {
+                            chunk.add(current[0]);
+                            current[0] = null;
+                        }
+                        boolean hasRow = rs.next();
+                        if (hasRow) {
+                            current[0] = new Object[columnCount];
+                        }
+                        if (chunk.size() >= chunkSize || (!hasRow && !chunk.isEmpty())) {
+                            publish(chunk.toArray(new Object[0][]));
+                            chunk.clear();
+                        }
+                        return hasRow;
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(rs, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (name.equals("getObject") && args.length == 1 && args[0] instanceof Integer
+                            && current[0] != null) {
+                        current[0][(Integer) args[0] - 1] = result;
+                    }
+                    return result;
+                });
+    }
+
+    private static ResultSetMetaData copyOf(ResultSetMetaData metadata) throws SQLException {
+        // The model reads the column descriptions on the event dispatch
+        // thread, while this thread is still reading rows
+        RowSetMetaDataImpl copy = new RowSetMetaDataImpl();
+        int columns = metadata.getColumnCount();
+        copy.setColumnCount(columns);
+        for (int i = 1; i <= columns; i++) {
+            copy.setColumnLabel(i, metadata.getColumnLabel(i));
+            copy.setColumnName(i, metadata.getColumnName(i));
+            copy.setColumnType(i, metadata.getColumnType(i));
+            copy.setColumnTypeName(i, metadata.getColumnTypeName(i));
+            copy.setPrecision(i, metadata.getPrecision(i));
+            copy.setScale(i, metadata.getScale(i));
+            copy.setNullable(i, metadata.isNullable(i));
+        }
+        return copy;
+    }
+}
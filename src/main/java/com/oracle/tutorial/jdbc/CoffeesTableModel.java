@@ -31,22 +31,52 @@
 
 package com.oracle.tutorial.jdbc;
 
+import java.math.BigDecimal;
+
 import java.sql.Connection;
-import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Types;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
 
 import javax.sql.RowSetListener;
 import javax.sql.rowset.CachedRowSet;
 
-import javax.swing.event.TableModelListener;
-import javax.swing.table.TableModel;
+import javax.swing.table.AbstractTableModel;
 
-public class CoffeesTableModel implements TableModel {
+/**
+ * A TableModel that copies the rows of a CachedRowSet into one array per
+ * column when it is created. Character columns are kept in a String[],
+ * integer columns in an int[] and DECIMAL or NUMERIC columns with at most
+ * two decimal places, such as PRICE, as cents in a long[]. Reading a cell is
+ * an array access; the row set's cursor is not moved.
+ *
+ * getColumnClass reports String, Integer or BigDecimal, so JTable renders
+ * numbers right-aligned and a TableRowSorter compares them as numbers.
+ * Numbers are boxed when getValueAt returns them; use getInt and
+ * getPriceCents to read them without allocating.
+ *
+ * Rows inserted, updated or deleted through insertRow, updateValue and
+ * deleteRow are applied to both the row set and the arrays, and listeners
+ * are told which rows changed, so JTable repaints only those rows.
+ *
+ * A deleted row stays in the row set, marked as deleted, until the changes
+ * are written with acceptChanges, and CachedRowSet does not number rows
+ * reliably while deleted rows are hidden. The model therefore turns on
+ * showDeleted for its row set and remembers the row set position of each
+ * table row.
+ */
+@SuppressWarnings("serial") // The Column arrays are not serializable
+public class CoffeesTableModel extends AbstractTableModel {
 
     CachedRowSet coffeesRowSet; // The ResultSet to interpret
     ResultSetMetaData metadata; // Additional information about the results
     int numcols, numrows; // How many rows and columns in the table
+    private Column[] columns; // The values of the rows, column by column
+    private int[] positions; // The row set row of each table row
 
     public CachedRowSet getCoffeesRowSet() {
         return coffeesRowSet;
@@ -54,26 +84,113 @@ public class CoffeesTableModel implements TableModel {
 
 
     public CoffeesTableModel(CachedRowSet rowSetArg) throws SQLException {
+        this(rowSetArg.getMetaData(), rowSetArg.size());
+        copyRows(rowSetArg);
+    }
 
-        this.coffeesRowSet = rowSetArg;
-        this.metadata = this.coffeesRowSet.getMetaData();
+    /**
+     * Creates an empty model with the given columns. Rows are added with
+     * appendRows while they are loaded, and the row set that holds them is
+     * attached with setCoffeesRowSet when loading is complete; see
+     * CoffeesTableLoader.
+     */
+    public CoffeesTableModel(ResultSetMetaData metadataArg, int expectedRows) throws SQLException {
+        this.metadata = metadataArg;
         numcols = metadata.getColumnCount();
+        numrows = 0;
+
+        columns = new Column[numcols];
+        for (int i = 0; i < numcols; i++) {
+            columns[i] = Column.create(metadata, i + 1, expectedRows);
+        }
+        positions = new int[expectedRows];
+    }
+
+    /**
+     * Appends rows of column values, in column order, and tells the
+     * listeners about them. Row i of the model must be row i + 1 of the row
+     * set attached later.
+     */
+    public void appendRows(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        int first = numrows;
+        ensureCapacity(first + rows.size());
+        for (Object[] values : rows) {
+            for (int i = 0; i < numcols; i++) {
+                columns[i].set(numrows, values[i]);
+            }
+            positions[numrows] = numrows + 1;
+            numrows++;
+        }
+        fireTableRowsInserted(first, numrows - 1);
+    }
 
-        // Retrieve the number of rows.
+    /**
+     * Attaches the row set whose rows the model shows. If the row set does
+     * not hold the rows already appended, the model is refilled from it.
+     */
+    public void setCoffeesRowSet(CachedRowSet rowSetArg) throws SQLException {
+        if (rowSetArg.size() == numrows) {
+            this.coffeesRowSet = rowSetArg;
+            this.coffeesRowSet.setShowDeleted(true);
+        } else {
+            copyRows(rowSetArg);
+            fireTableDataChanged();
+        }
+    }
+
+    private void copyRows(CachedRowSet rowSetArg) throws SQLException {
+        this.coffeesRowSet = rowSetArg;
+        this.coffeesRowSet.setShowDeleted(true);
+        numrows = 0;
+        ensureCapacity(this.coffeesRowSet.size());
+
+        // Copy the rows into the columns in one pass
         this.coffeesRowSet.beforeFirst();
-        this.numrows = 0;
-        while (this.coffeesRowSet.next()) {
-            this.numrows++;
+        int row = 0;
+        while (row < positions.length && this.coffeesRowSet.next()) {
+            if (this.coffeesRowSet.rowDeleted()) {
+                continue;
+            }
+            positions[row] = this.coffeesRowSet.getRow();
+            readRow(row++);
         }
+        numrows = row;
         this.coffeesRowSet.beforeFirst();
     }
 
+    private void ensureCapacity(int rows) {
+        if (rows > positions.length) {
+            int capacity = Math.max(Math.max(16, rows), positions.length + (positions.length >> 1));
+            for (Column column : columns) {
+                column.resize(capacity);
+            }
+            positions = Arrays.copyOf(positions, capacity);
+        }
+    }
+
+    private CachedRowSet rowSet() throws SQLException {
+        if (coffeesRowSet == null) {
+            throw new SQLException("The COFFEES table is still loading");
+        }
+        return coffeesRowSet;
+    }
+
     public void addEventHandlersToRowSet(RowSetListener listener) {
         this.coffeesRowSet.addRowSetListener(listener);
     }
 
 
+    /**
+     * Adds a row at the end of the row set and of the table.
+     */
     public void insertRow(String coffeeName, int supplierID, float price, int sales, int total) throws SQLException {
+        rowSet();
+        // CachedRowSet inserts after the current row; from after the last
+        // row it appends, which keeps the table rows in row set order
+        this.coffeesRowSet.afterLast();
         this.coffeesRowSet.moveToInsertRow();
         this.coffeesRowSet.updateString("COF_NAME", coffeeName);
         this.coffeesRowSet.updateInt("SUP_ID", supplierID);
@@ -82,6 +199,59 @@ public class CoffeesTableModel implements TableModel {
         this.coffeesRowSet.updateInt("TOTAL", total);
         this.coffeesRowSet.insertRow();
         this.coffeesRowSet.moveToCurrentRow();
+
+        int row = numrows;
+        ensureCapacity(row + 1);
+        positions[row] = this.coffeesRowSet.size();
+        this.coffeesRowSet.absolute(positions[row]);
+        readRow(row);
+        numrows++;
+        fireTableRowsInserted(row, row);
+    }
+
+    /**
+     * Sets the value of one cell in the row set and in the table.
+     */
+    public void updateValue(int rowIndex, int columnIndex, Object value) throws SQLException {
+        rowSet();
+        this.coffeesRowSet.absolute(positions[rowIndex]);
+        this.coffeesRowSet.updateObject(columnIndex + 1, value);
+        this.coffeesRowSet.updateRow();
+        readRow(rowIndex);
+        fireTableRowsUpdated(rowIndex, rowIndex);
+    }
+
+    /**
+     * Deletes a row from the row set and from the table.
+     */
+    public void deleteRow(int rowIndex) throws SQLException {
+        rowSet();
+        this.coffeesRowSet.absolute(positions[rowIndex]);
+        this.coffeesRowSet.deleteRow();
+        for (Column column : columns) {
+            column.remove(rowIndex, numrows);
+        }
+        System.arraycopy(positions, rowIndex + 1, positions, rowIndex, numrows - rowIndex - 1);
+        numrows--;
+        fireTableRowsDeleted(rowIndex, rowIndex);
+    }
+
+    /**
+     * Writes the inserted, updated and deleted rows to the database. The
+     * table does not change, but the row set drops its deleted rows, so
+     * the table rows are numbered again.
+     */
+    public void acceptChanges(Connection con) throws SQLException {
+        rowSet().acceptChanges(con);
+        for (int row = 0; row < numrows; row++) {
+            positions[row] = row + 1;
+        }
+    }
+
+    private void readRow(int row) throws SQLException {
+        for (int i = 0; i < numcols; i++) {
+            columns[i].read(this.coffeesRowSet, i + 1, row);
+        }
     }
 
     public void close() throws SQLException {
@@ -119,34 +289,39 @@ public class CoffeesTableModel implements TableModel {
 
     /**
      * Method from interface TableModel; returns the most specific superclass for
-     * all cell values in the specified column. To keep things simple, all data
-     * in the table are converted to String objects; hence, this method returns
-     * the String class.
+     * all cell values in the specified column: String for character columns,
+     * Integer for integer columns and BigDecimal for PRICE.
      */
 
-    public Class getColumnClass(int column) {
-        return String.class;
+    public Class<?> getColumnClass(int column) {
+        return columns[column].type();
     }
 
     /**
      * Method from interface TableModel; returns the value for the cell specified
-     * by columnIndex and rowIndex. TableModel uses this method to populate
-     * itself with data from the row set. SQL starts numbering its rows and
-     * columns at 1, but TableModel starts at 0.
+     * by columnIndex and rowIndex. The values were copied from the row set
+     * when the model was created. SQL starts numbering its rows and columns
+     * at 1, but TableModel starts at 0.
      */
 
     public Object getValueAt(int rowIndex, int columnIndex) {
+        return columns[columnIndex].get(rowIndex);
+    }
 
-        try {
-            this.coffeesRowSet.absolute(rowIndex + 1);
-            Object o = this.coffeesRowSet.getObject(columnIndex + 1);
-            if (o == null)
-                return null;
-            else
-                return o.toString();
-        } catch (SQLException e) {
-            return e.toString();
-        }
+    /**
+     * Returns the value of an integer column without boxing it, or 0 if it
+     * is NULL.
+     */
+    public int getInt(int rowIndex, int columnIndex) {
+        return ((IntColumn) columns[columnIndex]).values[rowIndex];
+    }
+
+    /**
+     * Returns the value of a DECIMAL or NUMERIC column, such as PRICE, in
+     * hundredths, or 0 if it is NULL.
+     */
+    public long getPriceCents(int rowIndex, int columnIndex) {
+        return ((CentsColumn) columns[columnIndex]).cents[rowIndex];
     }
 
     /**
@@ -161,17 +336,230 @@ public class CoffeesTableModel implements TableModel {
     }
 
     // Because the sample does not allow users to edit any cells from the
-    // TableModel, the following methods, setValueAt, addTableModelListener,
-    // and removeTableModelListener, do not need to be implemented.
+    // TableModel, setValueAt does not need to be implemented; use
+    // updateValue to change a cell.
 
     public void setValueAt(Object value, int row, int column) {
         System.out.println("Calling setValueAt row " + row + ", column " + column);
     }
 
-    public void addTableModelListener(TableModelListener l) {
+    private abstract static class Column {
+        final BitSet nulls = new BitSet();
+
+        static Column create(ResultSetMetaData metadata, int column, int rows) throws SQLException {
+            switch (metadata.getColumnType(column)) {
+                case Types.CHAR:
+                case Types.VARCHAR:
+                case Types.LONGVARCHAR:
+                case Types.NCHAR:
+                case Types.NVARCHAR:
+                    return new StringColumn(rows);
+                case Types.TINYINT:
+                case Types.SMALLINT:
+                case Types.INTEGER:
+                    return new IntColumn(rows);
+                case Types.DECIMAL:
+                case Types.NUMERIC:
+                    if (metadata.getScale(column) <= 2 && metadata.getPrecision(column) <= 18) {
+                        return new CentsColumn(rows);
+                    }
+                    return new ObjectColumn(rows);
+                default:
+                    return new ObjectColumn(rows);
+            }
+        }
+
+        abstract Class<?> type();
+
+        abstract int capacity();
+
+        abstract void resize(int capacity);
+
+        abstract void read(CachedRowSet rs, int column, int row) throws SQLException;
+
+        abstract void set(int row, Object value);
+
+        /**
+         * Copies length values starting at from to the positions starting
+         * at to.
+         */
+        abstract void move(int from, int to, int length);
+
+        void remove(int row, int size) {
+            move(row + 1, row, size - row - 1);
+            for (int i = row; i < size - 1; i++) {
+                nulls.set(i, nulls.get(i + 1));
+            }
+            nulls.clear(size - 1);
+        }
+
+        abstract Object value(int row);
+
+        Object get(int row) {
+            return nulls.get(row) ? null : value(row);
+        }
+    }
+
+    private static final class StringColumn extends Column {
+        String[] values;
+
+        StringColumn(int rows) {
+            values = new String[rows];
+        }
+
+        Class<?> type() {
+            return String.class;
+        }
+
+        int capacity() {
+            return values.length;
+        }
+
+        void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        void move(int from, int to, int length) {
+            System.arraycopy(values, from, values, to, length);
+        }
+
+        void read(CachedRowSet rs, int column, int row) throws SQLException {
+            values[row] = rs.getString(column);
+        }
+
+        void set(int row, Object value) {
+            values[row] = value == null ? null : value.toString();
+        }
+
+        Object value(int row) {
+            return values[row];
+        }
+
+        Object get(int row) {
+            return values[row];
+        }
+    }
+
+    private static final class IntColumn extends Column {
+        int[] values;
+
+        IntColumn(int rows) {
+            values = new int[rows];
+        }
+
+        Class<?> type() {
+            return Integer.class;
+        }
+
+        int capacity() {
+            return values.length;
+        }
+
+        void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        void move(int from, int to, int length) {
+            System.arraycopy(values, from, values, to, length);
+        }
+
+        void read(CachedRowSet rs, int column, int row) throws SQLException {
+            values[row] = rs.getInt(column);
+            nulls.set(row, rs.wasNull());
+        }
+
+        void set(int row, Object value) {
+            nulls.set(row, value == null);
+            values[row] = value == null ? 0 : ((Number) value).intValue();
+        }
+
+        Object value(int row) {
+            return values[row];
+        }
     }
 
-    public void removeTableModelListener(TableModelListener l) {
+    private static final class CentsColumn extends Column {
+        long[] cents;
+
+        CentsColumn(int rows) {
+            cents = new long[rows];
+        }
+
+        Class<?> type() {
+            return BigDecimal.class;
+        }
+
+        int capacity() {
+            return cents.length;
+        }
+
+        void resize(int capacity) {
+            cents = Arrays.copyOf(cents, capacity);
+        }
+
+        void move(int from, int to, int length) {
+            System.arraycopy(cents, from, cents, to, length);
+        }
+
+        void read(CachedRowSet rs, int column, int row) throws SQLException {
+            BigDecimal value = rs.getBigDecimal(column);
+            nulls.set(row, value == null);
+            if (value != null) {
+                cents[row] = value.movePointRight(2).longValue();
+            }
+        }
+
+        void set(int row, Object value) {
+            nulls.set(row, value == null);
+            if (value != null) {
+                BigDecimal decimal = value instanceof BigDecimal ?
+                        (BigDecimal) value : new BigDecimal(value.toString());
+                cents[row] = decimal.movePointRight(2).longValue();
+            }
+        }
+
+        Object value(int row) {
+            return BigDecimal.valueOf(cents[row], 2);
+        }
     }
 
+    private static final class ObjectColumn extends Column {
+        Object[] values;
+
+        ObjectColumn(int rows) {
+            values = new Object[rows];
+        }
+
+        Class<?> type() {
+            return Object.class;
+        }
+
+        int capacity() {
+            return values.length;
+        }
+
+        void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        void move(int from, int to, int length) {
+            System.arraycopy(values, from, values, to, length);
+        }
+
+        void read(CachedRowSet rs, int column, int row) throws SQLException {
+            values[row] = rs.getObject(column);
+        }
+
+        void set(int row, Object value) {
+            values[row] = value;
+        }
+
+        Object value(int row) {
+            return values[row];
+        }
+
+        Object get(int row) {
+            return values[row];
+        }
+    }
 }
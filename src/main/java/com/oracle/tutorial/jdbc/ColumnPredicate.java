@@ -0,0 +1,92 @@
+package com.oracle.tutorial.jdbc;
+
+import java.sql.SQLException;
+import java.util.regex.Pattern;
+
+import javax.sql.RowSet;
+
+/**
+ * A predicate on one column, given by name or by number. When the column is
+ * given by name, its number is looked up once per rowset rather than on
+ * every row.
+ *
+ * The evaluate methods that FilteredRowSet calls for values being updated or
+ * inserted return true for columns other than the filtered one.
+ *
+ * Only predicates on a column given by name can be written as SQL, and only
+ * if the name is a plain identifier, since it is copied into the statement.
+ */
+public abstract class ColumnPredicate extends CompiledPredicate {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    protected final String colName;
+    protected final int colNumber;
+
+    private RowSet resolvedFor;
+    private int resolvedNumber = -1;
+
+    protected ColumnPredicate(String colName) {
+        this.colName = colName;
+        this.colNumber = -1;
+    }
+
+    protected ColumnPredicate(int colNumber) {
+        this.colName = null;
+        this.colNumber = colNumber;
+    }
+
+    /**
+     * Returns true if the non-null column value satisfies this predicate.
+     */
+    protected abstract boolean matches(Object value);
+
+    /**
+     * Evaluates the value in the given column of the current row of rs.
+     * Subclasses can override this to read the value without boxing it.
+     */
+    protected boolean matches(RowSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        return value != null && matches(value);
+    }
+
+    protected boolean evaluateRow(RowSet rs) throws SQLException {
+        return matches(rs, columnNumber(rs));
+    }
+
+    public boolean evaluate(Object value, String columnName) {
+        if (columnName.equalsIgnoreCase(this.colName)) {
+            return value != null && matches(value);
+        }
+        return true;
+    }
+
+    public boolean evaluate(Object value, int columnNumber) {
+        if (columnNumber == this.colNumber || columnNumber == this.resolvedNumber) {
+            return value != null && matches(value);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the column name if it can be copied into SQL, otherwise null.
+     */
+    protected String sqlColumnName() {
+        return colName != null && isIdentifier(colName) ? colName : null;
+    }
+
+    static boolean isIdentifier(String name) {
+        return IDENTIFIER.matcher(name).matches();
+    }
+
+    private int columnNumber(RowSet rs) throws SQLException {
+        if (colNumber > 0) {
+            return colNumber;
+        }
+        if (rs != resolvedFor) {
+            resolvedNumber = rs.findColumn(colName);
+            resolvedFor = rs;
+        }
+        return resolvedNumber;
+    }
+}
@@ -0,0 +1,119 @@
+package com.oracle.tutorial.jdbc;
+
+import java.sql.SQLException;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import javax.sql.RowSet;
+import javax.sql.RowSetEvent;
+import javax.sql.RowSetListener;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.FilteredRowSet;
+import javax.sql.rowset.Predicate;
+
+/**
+ * A FilteredRowSet predicate that can evaluate itself once for every row and
+ * remember the result in a bitmap.
+ *
+ * FilteredRowSet calls evaluate(RowSet) each time its cursor lands on a row,
+ * so a filter set with setFilter is evaluated again on every pass over the
+ * rows. After applyTo(frs), evaluate(RowSet) only looks up the current row
+ * number in the bitmap. The predicate listens to the rowset and drops the
+ * bitmap when rows are inserted, updated or deleted, or when the rowset is
+ * populated again; until applyTo is called again it evaluates the rows
+ * directly.
+ *
+ * A predicate that can be written as SQL returns a condition from toSql(),
+ * so that FilteredRowSets.create can add it to the rowset's command and the
+ * database sends only the matching rows.
+ */
+public abstract class CompiledPredicate implements Predicate, RowSetListener {
+
+    private BitSet matchingRows;
+    private RowSet compiledFor;
+    private int compiledSize;
+
+    /**
+     * Evaluates this predicate against the current row of rs.
+     */
+    protected abstract boolean evaluateRow(RowSet rs) throws SQLException;
+
+    /**
+     * Returns this predicate as a SQL condition with ? placeholders for the
+     * values returned by getParameters(), or null if it cannot be expressed
+     * in SQL.
+     */
+    public String toSql() {
+        return null;
+    }
+
+    /**
+     * Returns the values for the placeholders in toSql(), in order.
+     */
+    public List<Object> getParameters() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Evaluates this predicate for every row of frs, then sets it as the
+     * filter of frs and moves the cursor before the first row.
+     */
+    public void applyTo(FilteredRowSet frs) throws SQLException {
+        frs.setFilter(null);
+        frs.removeRowSetListener(this);
+        matchingRows = null;
+
+        BitSet bits = new BitSet(frs.size() + 1);
+        frs.beforeFirst();
+        while (frs.next()) {
+            if (evaluateRow(frs)) {
+                bits.set(frs.getRow());
+            }
+        }
+
+        matchingRows = bits;
+        compiledFor = frs;
+        compiledSize = frs.size();
+        frs.addRowSetListener(this);
+        frs.setFilter(this);
+        frs.beforeFirst();
+    }
+
+    /**
+     * Returns the rows, numbered from 1, that matched when applyTo was last
+     * called, or null if there are none recorded.
+     */
+    public BitSet getMatchingRows() {
+        return matchingRows == null ? null : (BitSet) matchingRows.clone();
+    }
+
+    public boolean evaluate(RowSet rs) {
+        if (rs == null) {
+            return false;
+        }
+        try {
+            BitSet bits = matchingRows;
+            if (bits != null && rs == compiledFor && ((CachedRowSet) rs).size() == compiledSize) {
+                int row = rs.getRow();
+                if (row > 0) {
+                    return bits.get(row);
+                }
+            }
+            return evaluateRow(rs);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    public void rowSetChanged(RowSetEvent event) {
+        matchingRows = null;
+    }
+
+    public void rowChanged(RowSetEvent event) {
+        matchingRows = null;
+    }
+
+    public void cursorMoved(RowSetEvent event) {
+    }
+}
@@ -0,0 +1,87 @@
+package com.oracle.tutorial.jdbc;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sql.RowSet;
+
+/**
+ * Combines predicates with AND or OR. When applied to a FilteredRowSet, the
+ * whole combination is evaluated in one pass over the rows and kept in one
+ * bitmap. The combination can be written as SQL only if every predicate
+ * in it can.
+ */
+public class CompositePredicate extends CompiledPredicate {
+
+    private final boolean and;
+    private final CompiledPredicate[] predicates;
+
+    private CompositePredicate(boolean and, CompiledPredicate[] predicates) {
+        this.and = and;
+        this.predicates = predicates.clone();
+    }
+
+    public static CompositePredicate and(CompiledPredicate... predicates) {
+        return new CompositePredicate(true, predicates);
+    }
+
+    public static CompositePredicate or(CompiledPredicate... predicates) {
+        return new CompositePredicate(false, predicates);
+    }
+
+    protected boolean evaluateRow(RowSet rs) throws SQLException {
+        for (CompiledPredicate predicate : predicates) {
+            if (predicate.evaluateRow(rs) != and) {
+                return !and;
+            }
+        }
+        return and;
+    }
+
+    public String toSql() {
+        StringBuilder sql = new StringBuilder("(");
+        for (CompiledPredicate predicate : predicates) {
+            String condition = predicate.toSql();
+            if (condition == null) {
+                return null;
+            }
+            if (sql.length() > 1) {
+                sql.append(and ? " AND " : " OR ");
+            }
+            sql.append(condition);
+        }
+        return predicates.length == 0 ? null : sql.append(')').toString();
+    }
+
+    public List<Object> getParameters() {
+        List<Object> parameters = new ArrayList<>();
+        for (CompiledPredicate predicate : predicates) {
+            parameters.addAll(predicate.getParameters());
+        }
+        return parameters;
+    }
+
+    public boolean evaluate(Object value, String columnName) throws SQLException {
+        for (CompiledPredicate predicate : predicates) {
+            if (predicate.evaluate(value, columnName) != and) {
+                return !and;
+            }
+        }
+        return and;
+    }
+
+    public boolean evaluate(Object value, int columnNumber) throws SQLException {
+        for (CompiledPredicate predicate : predicates) {
+            if (predicate.evaluate(value, columnNumber) != and) {
+                return !and;
+            }
+        }
+        return and;
+    }
+
+    public String toString() {
+        return (and ? "And" : "Or") + Arrays.toString(predicates);
+    }
+}
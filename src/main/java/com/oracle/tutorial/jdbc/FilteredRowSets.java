@@ -0,0 +1,57 @@
+package com.oracle.tutorial.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.rowset.FilteredRowSet;
+import javax.sql.rowset.RowSetFactory;
+
+/**
+ * Creates FilteredRowSet objects whose filtering is done by the database
+ * where possible.
+ *
+ * If the predicate can be written as SQL, it becomes the WHERE clause of the
+ * rowset's command and its values are bound as command parameters, so only
+ * matching rows are read. The rowset then has no filter, so rows inserted or
+ * updated through it are not checked against the predicate. Otherwise the
+ * whole table is read and the predicate is applied in Java with
+ * CompiledPredicate.applyTo.
+ */
+public final class FilteredRowSets {
+
+    private FilteredRowSets() {
+    }
+
+    /**
+     * Populates a new FilteredRowSet with the rows of table that satisfy
+     * predicate. The table name must be a plain identifier.
+     */
+    public static FilteredRowSet create(RowSetFactory factory, Connection con, String table,
+                                        CompiledPredicate predicate) throws SQLException {
+        if (!ColumnPredicate.isIdentifier(table)) {
+            throw new SQLException("Not a valid table name: " + table);
+        }
+        String condition = predicate.toSql();
+
+        FilteredRowSet frs = factory.createFilteredRowSet();
+        try {
+            if (condition != null) {
+                frs.setCommand("SELECT * FROM " + table + " WHERE " + condition);
+                List<Object> parameters = predicate.getParameters();
+                for (int i = 0; i < parameters.size(); i++) {
+                    frs.setObject(i + 1, parameters.get(i));
+                }
+                frs.execute(con);
+            } else {
+                frs.setCommand("SELECT * FROM " + table);
+                frs.execute(con);
+                predicate.applyTo(frs);
+            }
+        } catch (SQLException e) {
+            frs.close();
+            throw e;
+        }
+        return frs;
+    }
+}
@@ -0,0 +1,88 @@
+package com.oracle.tutorial.jdbc;
+
+import com.oracle.tutorial.jdbc.StreamingQuery.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Joins two result sets in the client on an int key, for cases where the
+ * join cannot be done by one SQL query, such as tables in two different
+ * databases. Prefer a SQL join when both tables are reachable from one
+ * connection; see CoffeesTable.getCoffeesBoughtBySupplier.
+ *
+ * The smaller side (for example SUPPLIERS) is read once into an IntHashMap
+ * keyed by the join column; the larger side (for example COFFEES) is then
+ * read row by row and each row is matched with one lookup. This takes time
+ * proportional to the sum of the two row counts and keeps only the smaller
+ * side in memory, where JoinRowSet copies both sides into CachedRowSets and
+ * compares every pair of rows.
+ */
+public final class HashJoin<V> {
+
+    /**
+     * Receives each row of the probe side that has a match on the build side.
+     * Returning false stops the join.
+     */
+    public interface JoinHandler<V> {
+        boolean handleRow(ResultSet probeRow, V buildRow) throws SQLException;
+    }
+
+    private final IntHashMap<V> index;
+
+    private HashJoin(IntHashMap<V> index) {
+        this.index = index;
+    }
+
+    /**
+     * Reads every row of rs and indexes the value returned by mapper under
+     * the int in column keyColumn. The keys must be unique, as they are when
+     * keyColumn is a primary key, and mapper must not return null. Rows whose
+     * key is NULL are skipped.
+     */
+    public static <V> HashJoin<V> build(ResultSet rs, String keyColumn, RowMapper<V> mapper) throws SQLException {
+        int column = rs.findColumn(keyColumn);
+        IntHashMap<V> index = new IntHashMap<>();
+        while (rs.next()) {
+            int key = rs.getInt(column);
+            if (rs.wasNull()) {
+                continue;
+            }
+            if (index.put(key, mapper.mapRow(rs)) != null) {
+                throw new SQLException("Duplicate join key " + key + " in column " + keyColumn);
+            }
+        }
+        return new HashJoin<>(index);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public V get(int key) {
+        return index.get(key);
+    }
+
+    /**
+     * Reads the rows of rs and calls handler for each row whose int in column
+     * keyColumn was indexed by build(). Returns the number of matched rows.
+     */
+    public int probe(ResultSet rs, String keyColumn, JoinHandler<V> handler) throws SQLException {
+        int column = rs.findColumn(keyColumn);
+        int matches = 0;
+        while (rs.next()) {
+            int key = rs.getInt(column);
+            if (rs.wasNull()) {
+                continue;
+            }
+            V buildRow = index.get(key);
+            if (buildRow != null) {
+                matches++;
+                if (!handler.handleRow(rs, buildRow)) {
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+}
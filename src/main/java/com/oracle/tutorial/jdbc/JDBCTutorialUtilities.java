@@ -43,12 +43,10 @@ import java.sql.BatchUpdateException;
 import java.sql.DatabaseMetaData;
 import java.sql.RowIdLifetime;
 import java.sql.SQLWarning;
-import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+
+import javax.sql.DataSource;
 
 import org.w3c.dom.Document;
 
@@ -65,6 +63,7 @@ public class JDBCTutorialUtilities {
     private String serverName;
     private int portNumber;
     private Properties prop;
+    private PooledDataSource dataSource;
 
     public static void initializeTables(Connection con, String dbNameArg, String dbmsArg) throws SQLException {
         SuppliersTable mySuppliersTable = new SuppliersTable(con, dbNameArg, dbmsArg);
@@ -243,7 +242,50 @@ public class JDBCTutorialUtilities {
         }
     }
 
+    /**
+     * Returns the connection pool configured by the pool_* and
+     * statement_cache_size entries of the properties file, creating it on
+     * first use.
+     */
+    public synchronized DataSource getDataSource() {
+        if (this.dataSource == null) {
+            this.dataSource = new PooledDataSource(
+                    this::openConnection,
+                    intProperty("pool_min_size", 1),
+                    intProperty("pool_max_size", 10),
+                    intProperty("pool_connection_timeout_seconds", 30) * 1000L,
+                    intProperty("pool_idle_timeout_seconds", 600) * 1000L,
+                    intProperty("pool_leak_detection_seconds", 0) * 1000L,
+                    intProperty("pool_validation_timeout_seconds", 5),
+                    intProperty("statement_cache_size", 32));
+        }
+        return this.dataSource;
+    }
+
+    /**
+     * Closes the connection pool, if one has been created.
+     */
+    public synchronized void closeDataSource() {
+        if (this.dataSource != null) {
+            this.dataSource.close();
+            this.dataSource = null;
+        }
+    }
+
+    private int intProperty(String key, int defaultValue) {
+        String value = this.prop.getProperty(key);
+        return (value == null || value.isBlank()) ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * Borrows a connection from the pool returned by getDataSource(). Closing
+     * the connection returns it to the pool.
+     */
     public Connection getConnection() throws SQLException {
+        return getDataSource().getConnection();
+    }
+
+    private Connection openConnection() throws SQLException {
         Connection conn = null;
         Properties connectionProps = new Properties();
         connectionProps.put("user", this.userName);
@@ -253,6 +295,9 @@ public class JDBCTutorialUtilities {
 
         switch (this.dbms){
             case "mysql" : {
+                // Let Connector/J rewrite batches into multi-row statements
+                connectionProps.put("rewriteBatchedStatements",
+                        this.prop.getProperty("rewrite_batched_statements", "true"));
                 currentUrlString = "jdbc:" + this.dbms + "://" + this.serverName + ":" + this.portNumber + "/";
                 conn = DriverManager.getConnection(currentUrlString, connectionProps);
 
@@ -298,11 +343,7 @@ public class JDBCTutorialUtilities {
     }
 
     public static String convertDocumentToString(Document doc) throws TransformerConfigurationException, TransformerException {
-        Transformer t = TransformerFactory.newInstance().newTransformer();
-//    t.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-        StringWriter sw = new StringWriter();
-        t.transform(new DOMSource(doc), new StreamResult(sw));
-        return sw.toString();
+        return XmlToolkit.toString(doc);
     }
 
     public void executeSql(String sqlFile) throws SQLException, IOException {
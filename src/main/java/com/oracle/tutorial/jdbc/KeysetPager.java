@@ -0,0 +1,292 @@
+package com.oracle.tutorial.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetFactory;
+import javax.sql.rowset.RowSetProvider;
+
+/**
+ * Pages through a table in the order of a unique key column, such as
+ * ITEM_ID of MERCH_INVENTORY, by seeking instead of skipping: the page after
+ * the current one is read with WHERE key > (last key of the page) ORDER BY
+ * key. With an index on the key, every page costs the same however deep it
+ * is, whereas CachedRowSet.setPageSize and OFFSET both read and discard all
+ * the rows before the page. No cursor stays open between pages.
+ *
+ * The previous page is found the same way, by reading pageSize keys in
+ * descending order from the first key of the current page. Rows inserted or
+ * deleted by others show up or disappear on the pages read after the change,
+ * without shifting the other rows.
+ *
+ * Each page is a disconnected CachedRowSet whose table name and key column
+ * are set, so it can be changed and written back with acceptChanges. With
+ * prefetch on, the page after each page returned is read on a background
+ * thread while the caller works on the current one. Each read borrows a
+ * connection from the DataSource.
+ *
+ * A KeysetPager is used by one thread at a time; close it to stop the
+ * prefetch thread.
+ */
+public class KeysetPager implements AutoCloseable {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    private final DataSource dataSource;
+    private final String table;
+    private final String keyColumn;
+    private final int pageSize;
+    private final String firstPageQuery;
+    private final String pageAfterQuery;
+    private final String pageFromQuery;
+    private final String previousKeysQuery;
+    private final RowSetFactory factory;
+    private final ExecutorService prefetcher;
+    private final AtomicLong pageReads = new AtomicLong();
+
+    private boolean started;
+    private Object firstKey; // Keys of the current page, null if it is empty
+    private Object lastKey;
+    private Object prefetchedAfter;
+    private Future<CachedRowSet> prefetched;
+
+    /**
+     * Creates a pager over all columns of table with the default page size
+     * and without prefetch.
+     */
+    public KeysetPager(DataSource dataSource, String table, String keyColumn) throws SQLException {
+        this(dataSource, table, "*", keyColumn, DEFAULT_PAGE_SIZE, false);
+    }
+
+    /**
+     * Creates a pager over the given columns of table ("*" for all of them),
+     * in the order of keyColumn, which must be unique and should be indexed.
+     */
+    public KeysetPager(DataSource dataSource, String table, String columns, String keyColumn, int pageSize,
+                       boolean prefetch) throws SQLException {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive");
+        }
+        if (!ColumnPredicate.isIdentifier(table) || !ColumnPredicate.isIdentifier(keyColumn)) {
+            throw new IllegalArgumentException("Not a table and column name: " + table + ", " + keyColumn);
+        }
+        if (!columns.equals("*")) {
+            for (String column : columns.split(",")) {
+                if (!ColumnPredicate.isIdentifier(column.trim())) {
+                    throw new IllegalArgumentException("Not a column name: " + column);
+                }
+            }
+        }
+        this.dataSource = dataSource;
+        this.table = table;
+        this.keyColumn = keyColumn;
+        this.pageSize = pageSize;
+        String select = "select " + columns + " from " + table;
+        this.firstPageQuery = select + " order by " + keyColumn;
+        this.pageAfterQuery = select + " where " + keyColumn + " > ? order by " + keyColumn;
+        this.pageFromQuery = select + " where " + keyColumn + " >= ? order by " + keyColumn;
+        this.previousKeysQuery = "select " + keyColumn + " from " + table + " where " + keyColumn +
+                " < ? order by " + keyColumn + " desc";
+        this.factory = RowSetProvider.newFactory();
+        this.prefetcher = prefetch ? Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "KeysetPager prefetch " + table);
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Returns how many pages have been read from the database, including
+     * pages read ahead.
+     */
+    public long getPageReads() {
+        return pageReads.get();
+    }
+
+    /**
+     * Returns the first page, which is empty if the table is.
+     */
+    public CachedRowSet firstPage() throws SQLException {
+        return show(readPage(null, false));
+    }
+
+    /**
+     * Returns the page after the current one, or the first page if no page
+     * has been read yet. Returns null, and stays on the current page, if
+     * there are no more rows.
+     */
+    public CachedRowSet nextPage() throws SQLException {
+        if (!started) {
+            return firstPage();
+        }
+        if (lastKey == null) {
+            return null;
+        }
+        CachedRowSet page = takePrefetched(lastKey);
+        if (page == null) {
+            page = readPage(lastKey, false);
+        }
+        if (page.size() == 0) {
+            page.close();
+            return null;
+        }
+        return show(page);
+    }
+
+    /**
+     * Returns the page before the current one, or null, staying on the
+     * current page, if it is the first one.
+     */
+    public CachedRowSet previousPage() throws SQLException {
+        if (firstKey == null) {
+            return null;
+        }
+        Object startKey = null;
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(previousKeysQuery)) {
+            ps.setObject(1, firstKey);
+            ps.setMaxRows(pageSize);
+            ps.setFetchSize(pageSize);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    startKey = rs.getObject(1);
+                }
+            }
+        }
+        if (startKey == null) {
+            return null;
+        }
+        return show(readPage(startKey, true));
+    }
+
+    /**
+     * Returns the page that starts after the given key, so that a position
+     * saved from getLastKey() can be resumed without paging to it; null
+     * starts from the beginning.
+     */
+    public CachedRowSet pageAfter(Object key) throws SQLException {
+        return show(readPage(key, false));
+    }
+
+    /**
+     * Returns the key of the first row of the current page, or null.
+     */
+    public Object getFirstKey() {
+        return firstKey;
+    }
+
+    /**
+     * Returns the key of the last row of the current page, or null.
+     */
+    public Object getLastKey() {
+        return lastKey;
+    }
+
+    public void close() {
+        cancelPrefetch();
+        if (prefetcher != null) {
+            prefetcher.shutdownNow();
+        }
+    }
+
+    private CachedRowSet show(CachedRowSet page) throws SQLException {
+        started = true;
+        if (page.size() == 0) {
+            firstKey = null;
+            lastKey = null;
+        } else {
+            page.first();
+            firstKey = page.getObject(keyColumn);
+            page.last();
+            lastKey = page.getObject(keyColumn);
+            page.beforeFirst();
+        }
+        prefetch(page.size() < pageSize ? null : lastKey);
+        return page;
+    }
+
+    /**
+     * Reads pageSize rows starting after key, or at key if inclusive is
+     * true, or from the start if key is null.
+     */
+    private CachedRowSet readPage(Object key, boolean inclusive) throws SQLException {
+        String sql = key == null ? firstPageQuery : inclusive ? pageFromQuery : pageAfterQuery;
+        CachedRowSet page = factory.createCachedRowSet();
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            if (key != null) {
+                ps.setObject(1, key);
+            }
+            // Limits the rows without LIMIT or FETCH FIRST, whose syntax
+            // differs between databases
+            ps.setMaxRows(pageSize);
+            ps.setFetchSize(pageSize);
+            try (ResultSet rs = ps.executeQuery()) {
+                page.setTableName(table);
+                page.setKeyColumns(new int[]{rs.findColumn(keyColumn)});
+                page.populate(rs);
+            }
+        } catch (SQLException e) {
+            page.close();
+            throw e;
+        }
+        pageReads.incrementAndGet();
+        return page;
+    }
+
+    private void prefetch(Object afterKey) {
+        cancelPrefetch();
+        if (prefetcher != null && afterKey != null) {
+            prefetchedAfter = afterKey;
+            prefetched = prefetcher.submit(() -> readPage(afterKey, false));
+        }
+    }
+
+    private CachedRowSet takePrefetched(Object afterKey) throws SQLException {
+        if (prefetched == null || !Objects.equals(prefetchedAfter, afterKey)) {
+            return null;
+        }
+        Future<CachedRowSet> future = prefetched;
+        prefetched = null;
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while reading the next page", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof SQLException ? (SQLException) cause : new SQLException(cause);
+        }
+    }
+
+    private void cancelPrefetch() {
+        if (prefetched != null) {
+            Future<CachedRowSet> future = prefetched;
+            prefetched = null;
+            if (!future.cancel(true) && future.isDone()) {
+                // The page was already read; nobody else will close it
+                try {
+                    future.get().close();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException | SQLException e) {
+                    // Nothing to close, or the page is discarded anyway
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,557 @@
+package com.oracle.tutorial.jdbc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A read-only CachedRowSet that stores its rows outside the Java heap, so
+ * that a large result adds almost nothing for the garbage collector to
+ * trace. See ReadOnlyRowSet for what read-only means here.
+ *
+ * Each row is encoded into a direct ByteBuffer segment: a null bitmap, the
+ * fixed-width columns (INTEGER in 4 bytes, DECIMAL of up to 18 digits as an
+ * 8-byte unscaled long, TIMESTAMP in 12 bytes, and so on), a table of end
+ * offsets for the variable-width columns and then their bytes (UTF-8 for
+ * character columns). Any column of a row can be read without decoding the
+ * others, and getInt, getLong and getDouble do not box.
+ *
+ * Segments start at 4 KB and double up to 1 MB. Direct segments are
+ * allocated until memoryBudget bytes are in use; later segments are mapped
+ * from a temporary file in the spill directory, so the operating system
+ * pages them to disk as needed. The file is deleted when
+ * the row set is released or closed. The memory itself is returned when the
+ * segments are garbage collected, and direct memory also counts against
+ * -XX:MaxDirectMemorySize. The only heap used per row is one long.
+ *
+ * Character large objects are stored as strings and binary large objects as
+ * byte arrays; getObject returns them as such, and getClob and getBlob wrap
+ * them. Other types the encoding does not know are stored serialized.
+ */
+public class OffHeapCachedRowSet extends ReadOnlyRowSet {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+    // Segments start small and double up to SEGMENT_SIZE, so that a row set
+    // of a few rows does not hold a megabyte of direct memory
+    static final int FIRST_SEGMENT_SIZE = 4 * 1024;
+    static final int SEGMENT_SIZE = 1024 * 1024;
+
+    private static final byte BOOLEAN = 0;
+    private static final byte INT = 1;
+    private static final byte LONG = 2;
+    private static final byte FLOAT = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte FIXED_DECIMAL = 5;
+    private static final byte DATE = 6;
+    private static final byte TIME = 7;
+    private static final byte TIMESTAMP = 8;
+    // Variable width
+    private static final byte STRING = 9;
+    private static final byte BYTES = 10;
+    private static final byte DECIMAL = 11;
+    private static final byte OBJECT = 12;
+
+    private static final int[] WIDTHS = {1, 4, 8, 4, 8, 8, 8, 8, 12};
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final long memoryBudget;
+    private final Path spillDirectory;
+
+    // Row layout
+    private byte[] kinds;
+    private int[] scales;
+    private int[] offsets; // Offset in the fixed part, or index in the offset table
+    private int nullBytes;
+    private int fixedSize;
+    private int varCount;
+
+    // Storage
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private ByteBuffer current;
+    private long[] addresses = new long[0]; // Segment index << 32 | position
+    private int rowCount;
+    private long directBytes;
+    private long spilledBytes;
+    private FileChannel spillChannel;
+    private ByteBuffer scratch = ByteBuffer.allocate(256);
+
+    public OffHeapCachedRowSet() {
+        this(DEFAULT_MEMORY_BUDGET);
+    }
+
+    public OffHeapCachedRowSet(long memoryBudget) {
+        this(memoryBudget, Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Creates a row set that keeps up to memoryBudget bytes of rows in
+     * direct memory and spills the rest to a file in spillDirectory.
+     */
+    public OffHeapCachedRowSet(long memoryBudget, Path spillDirectory) {
+        if (memoryBudget < 0) {
+            throw new IllegalArgumentException("memoryBudget must not be negative");
+        }
+        this.memoryBudget = memoryBudget;
+        this.spillDirectory = spillDirectory;
+    }
+
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Returns the bytes of direct memory allocated for rows.
+     */
+    public long getDirectBytes() {
+        return directBytes;
+    }
+
+    /**
+     * Returns the bytes of rows stored in the spill file.
+     */
+    public long getSpilledBytes() {
+        return spilledBytes;
+    }
+
+    public int size() {
+        return rowCount;
+    }
+
+    protected ReadOnlyRowSet newRowSet() {
+        return new OffHeapCachedRowSet(memoryBudget, spillDirectory);
+    }
+
+    // Writing
+
+    protected void storeRows(ResultSet data, int startRow) throws SQLException {
+        ResultSetMetaData md = data.getMetaData();
+        metadata = copyMetaData(md);
+        layOut(md);
+        for (int i = 1; i < startRow; i++) {
+            if (!data.next()) {
+                return;
+            }
+        }
+        int maxRows = getMaxRows();
+        while ((maxRows == 0 || rowCount < maxRows) && data.next()) {
+            appendRow(data);
+        }
+    }
+
+    private void layOut(ResultSetMetaData md) throws SQLException {
+        int columns = md.getColumnCount();
+        kinds = new byte[columns];
+        scales = new int[columns];
+        offsets = new int[columns];
+        nullBytes = (columns + 7) / 8;
+        fixedSize = 0;
+        varCount = 0;
+        for (int i = 0; i < columns; i++) {
+            kinds[i] = kindOf(md.getColumnType(i + 1), md.getPrecision(i + 1), md.getScale(i + 1));
+            scales[i] = md.getScale(i + 1);
+            if (kinds[i] < STRING) {
+                offsets[i] = fixedSize;
+                fixedSize += WIDTHS[kinds[i]];
+            } else {
+                offsets[i] = varCount++;
+            }
+        }
+    }
+
+    private static byte kindOf(int type, int precision, int scale) {
+        switch (type) {
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return BOOLEAN;
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                return INT;
+            case Types.BIGINT:
+                return LONG;
+            case Types.REAL:
+                return FLOAT;
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return DOUBLE;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return precision > 0 && precision <= 18 && scale >= 0 && scale <= precision ? FIXED_DECIMAL : DECIMAL;
+            case Types.DATE:
+                return DATE;
+            case Types.TIME:
+                return TIME;
+            case Types.TIMESTAMP:
+                return TIMESTAMP;
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+            case Types.CLOB:
+            case Types.NCLOB:
+                return STRING;
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+            case Types.BLOB:
+                return BYTES;
+            default:
+                return OBJECT;
+        }
+    }
+
+    private void appendRow(ResultSet rs) throws SQLException {
+        int varStart = nullBytes + fixedSize + 4 * varCount;
+        scratch.clear();
+        ensureScratch(varStart);
+        for (int i = 0; i < nullBytes; i++) {
+            scratch.put(i, (byte) 0);
+        }
+        scratch.position(varStart);
+        for (int i = 0; i < kinds.length; i++) {
+            int column = i + 1;
+            int at = kinds[i] < STRING ? nullBytes + offsets[i] : nullBytes + fixedSize + 4 * offsets[i];
+            boolean isNull;
+            switch (kinds[i]) {
+                case BOOLEAN:
+                    scratch.put(at, (byte) (rs.getBoolean(column) ? 1 : 0));
+                    isNull = rs.wasNull();
+                    break;
+                case INT:
+                    scratch.putInt(at, rs.getInt(column));
+                    isNull = rs.wasNull();
+                    break;
+                case LONG:
+                    scratch.putLong(at, rs.getLong(column));
+                    isNull = rs.wasNull();
+                    break;
+                case FLOAT:
+                    scratch.putFloat(at, rs.getFloat(column));
+                    isNull = rs.wasNull();
+                    break;
+                case DOUBLE:
+                    scratch.putDouble(at, rs.getDouble(column));
+                    isNull = rs.wasNull();
+                    break;
+                case FIXED_DECIMAL: {
+                    BigDecimal value = rs.getBigDecimal(column);
+                    isNull = value == null;
+                    if (!isNull) {
+                        try {
+                            scratch.putLong(at, value.setScale(scales[i], RoundingMode.UNNECESSARY)
+                                    .unscaledValue().longValueExact());
+                        } catch (ArithmeticException e) {
+                            throw new SQLException("Value " + value + " does not fit column " + column, e);
+                        }
+                    }
+                    break;
+                }
+                case DATE: {
+                    Date value = rs.getDate(column);
+                    isNull = value == null;
+                    if (!isNull) {
+                        scratch.putLong(at, value.getTime());
+                    }
+                    break;
+                }
+                case TIME: {
+                    Time value = rs.getTime(column);
+                    isNull = value == null;
+                    if (!isNull) {
+                        scratch.putLong(at, value.getTime());
+                    }
+                    break;
+                }
+                case TIMESTAMP: {
+                    Timestamp value = rs.getTimestamp(column);
+                    isNull = value == null;
+                    if (!isNull) {
+                        scratch.putLong(at, value.getTime());
+                        scratch.putInt(at + 8, value.getNanos());
+                    }
+                    break;
+                }
+                case STRING: {
+                    String value = rs.getString(column);
+                    isNull = value == null;
+                    if (!isNull) {
+                        putBytes(value.getBytes(StandardCharsets.UTF_8));
+                    }
+                    break;
+                }
+                case BYTES: {
+                    byte[] value = rs.getBytes(column);
+                    isNull = value == null;
+                    if (!isNull) {
+                        putBytes(value);
+                    }
+                    break;
+                }
+                case DECIMAL: {
+                    BigDecimal value = rs.getBigDecimal(column);
+                    isNull = value == null;
+                    if (!isNull) {
+                        byte[] unscaled = value.unscaledValue().toByteArray();
+                        ensureScratch(scratch.position() + 4 + unscaled.length);
+                        scratch.putInt(value.scale());
+                        scratch.put(unscaled);
+                    }
+                    break;
+                }
+                default: {
+                    Object value = rs.getObject(column);
+                    isNull = value == null;
+                    if (!isNull) {
+                        putBytes(serialize(value, column));
+                    }
+                    break;
+                }
+            }
+            if (isNull) {
+                scratch.put(i / 8, (byte) (scratch.get(i / 8) | 1 << (i % 8)));
+            }
+            if (kinds[i] >= STRING) {
+                scratch.putInt(at, scratch.position() - varStart);
+            }
+        }
+        store(scratch.position());
+    }
+
+    private void putBytes(byte[] bytes) {
+        ensureScratch(scratch.position() + bytes.length);
+        scratch.put(bytes);
+    }
+
+    private void ensureScratch(int capacity) {
+        if (capacity > scratch.capacity()) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(capacity, scratch.capacity() * 2));
+            System.arraycopy(scratch.array(), 0, larger.array(), 0, scratch.position());
+            larger.position(scratch.position());
+            scratch = larger;
+        }
+    }
+
+    private static byte[] serialize(Object value, int column) throws SQLException {
+        if (!(value instanceof Serializable)) {
+            throw new SQLFeatureNotSupportedException("Cannot store " + value.getClass().getName() +
+                    " values of column " + column);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        } catch (IOException e) {
+            throw new SQLException("Cannot store the value of column " + column, e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Copies the first length bytes of scratch into a segment and records
+     * the address of the row.
+     */
+    private void store(int length) throws SQLException {
+        if (current == null || current.remaining() < length) {
+            int size = current == null ? FIRST_SEGMENT_SIZE : Math.min(SEGMENT_SIZE, 2 * current.capacity());
+            current = newSegment(Math.max(size, length));
+            segments.add(current);
+        }
+        if (rowCount == addresses.length) {
+            addresses = Arrays.copyOf(addresses, Math.max(1024, rowCount * 2));
+        }
+        addresses[rowCount++] = (long) (segments.size() - 1) << 32 | current.position();
+        current.put(scratch.array(), 0, length);
+    }
+
+    private ByteBuffer newSegment(int size) throws SQLException {
+        if (directBytes + size <= memoryBudget) {
+            directBytes += size;
+            return ByteBuffer.allocateDirect(size);
+        }
+        try {
+            if (spillChannel == null) {
+                Path file = Files.createTempFile(spillDirectory, "rowset", ".spill");
+                spillChannel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                        StandardOpenOption.DELETE_ON_CLOSE);
+            }
+            ByteBuffer segment = spillChannel.map(FileChannel.MapMode.READ_WRITE, spilledBytes, size);
+            spilledBytes += size;
+            return segment;
+        } catch (IOException e) {
+            throw new SQLException("Cannot spill rows to " + spillDirectory, e);
+        }
+    }
+
+    protected void freeRows() throws SQLException {
+        segments.clear();
+        current = null;
+        addresses = new long[0];
+        rowCount = 0;
+        directBytes = 0;
+        spilledBytes = 0;
+        if (spillChannel != null) {
+            try {
+                spillChannel.close();
+            } catch (IOException e) {
+                throw new SQLException("Cannot delete the spill file", e);
+            } finally {
+                spillChannel = null;
+            }
+        }
+    }
+
+    // Reading
+
+    private ByteBuffer segment(int row) {
+        return segments.get((int) (addresses[row - 1] >>> 32));
+    }
+
+    private int position(int row) {
+        return (int) addresses[row - 1];
+    }
+
+    protected boolean isNull(int row, int column) {
+        int i = column - 1;
+        return (segment(row).get(position(row) + i / 8) & 1 << (i % 8)) != 0;
+    }
+
+    protected Object getValue(int row, int column) throws SQLException {
+        if (isNull(row, column)) {
+            return null;
+        }
+        ByteBuffer segment = segment(row);
+        int i = column - 1;
+        int at = position(row) + nullBytes + offsets[i];
+        switch (kinds[i]) {
+            case BOOLEAN:
+                return segment.get(at) != 0;
+            case INT:
+                return segment.getInt(at);
+            case LONG:
+                return segment.getLong(at);
+            case FLOAT:
+                return segment.getFloat(at);
+            case DOUBLE:
+                return segment.getDouble(at);
+            case FIXED_DECIMAL:
+                return BigDecimal.valueOf(segment.getLong(at), scales[i]);
+            case DATE:
+                return new Date(segment.getLong(at));
+            case TIME:
+                return new Time(segment.getLong(at));
+            case TIMESTAMP: {
+                Timestamp value = new Timestamp(segment.getLong(at));
+                value.setNanos(segment.getInt(at + 8));
+                return value;
+            }
+            case STRING:
+                return new String(varBytes(row, i), StandardCharsets.UTF_8);
+            case BYTES:
+                return varBytes(row, i);
+            case DECIMAL: {
+                ByteBuffer bytes = ByteBuffer.wrap(varBytes(row, i));
+                int scale = bytes.getInt();
+                byte[] unscaled = new byte[bytes.remaining()];
+                bytes.get(unscaled);
+                return new BigDecimal(new BigInteger(unscaled), scale);
+            }
+            default:
+                try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(varBytes(row, i)))) {
+                    return in.readObject();
+                } catch (IOException | ClassNotFoundException e) {
+                    throw new SQLException("Cannot read the value of column " + column, e);
+                }
+        }
+    }
+
+    private byte[] varBytes(int row, int i) {
+        ByteBuffer segment = segment(row);
+        int table = position(row) + nullBytes + fixedSize;
+        int data = table + 4 * varCount;
+        int index = offsets[i];
+        int start = index == 0 ? 0 : segment.getInt(table + 4 * (index - 1));
+        int end = segment.getInt(table + 4 * index);
+        byte[] bytes = new byte[end - start];
+        ByteBuffer view = segment.duplicate();
+        view.position(data + start);
+        view.get(bytes);
+        return bytes;
+    }
+
+    protected long getLongValue(int row, int column) throws SQLException {
+        int i = column - 1;
+        int at = position(row) + nullBytes + offsets[i];
+        switch (kinds[i]) {
+            case INT:
+                return segment(row).getInt(at);
+            case LONG:
+                return segment(row).getLong(at);
+            case FIXED_DECIMAL:
+                // Truncates toward zero, as BigDecimal.longValue does
+                return segment(row).getLong(at) / POWERS_OF_TEN[scales[i]];
+            default:
+                return super.getLongValue(row, column);
+        }
+    }
+
+    protected double getDoubleValue(int row, int column) throws SQLException {
+        int i = column - 1;
+        int at = position(row) + nullBytes + offsets[i];
+        switch (kinds[i]) {
+            case INT:
+                return segment(row).getInt(at);
+            case LONG:
+                return segment(row).getLong(at);
+            case FLOAT:
+                return segment(row).getFloat(at);
+            case DOUBLE:
+                return segment(row).getDouble(at);
+            case FIXED_DECIMAL: {
+                long unscaled = segment(row).getLong(at);
+                // Both operands are exact doubles here, so the quotient is
+                // rounded once, as BigDecimal.doubleValue rounds
+                if (scales[i] <= 15 && Math.abs(unscaled) < 1L << 53) {
+                    return unscaled / (double) POWERS_OF_TEN[scales[i]];
+                }
+                return BigDecimal.valueOf(unscaled, scales[i]).doubleValue();
+            }
+            default:
+                return super.getDoubleValue(row, column);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.oracle.tutorial.jdbc;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.FilteredRowSet;
+import javax.sql.rowset.JdbcRowSet;
+import javax.sql.rowset.JoinRowSet;
+import javax.sql.rowset.RowSetFactory;
+import javax.sql.rowset.RowSetProvider;
+import javax.sql.rowset.WebRowSet;
+
+/**
+ * A RowSetFactory whose cached row sets are OffHeapCachedRowSets; the other
+ * kinds of row set come from the reference implementation. It can replace
+ * the default factory without changing code that calls
+ * RowSetProvider.newFactory():
+ *
+ *   java -Djavax.sql.rowset.RowSetFactory=com.oracle.tutorial.jdbc.OffHeapRowSetFactory ...
+ *
+ * as long as that code only reads its cached row sets. The memory budget and
+ * spill directory are then read from the offheap.rowset.budget (in bytes)
+ * and offheap.rowset.spillDir system properties. The row sets serialize as
+ * reference CachedRowSets, which hold their rows on the heap.
+ */
+public class OffHeapRowSetFactory implements RowSetFactory {
+
+    private final long memoryBudget;
+    private final Path spillDirectory;
+    private final RowSetFactory reference;
+
+    public OffHeapRowSetFactory() throws SQLException {
+        this(Long.getLong("offheap.rowset.budget", OffHeapCachedRowSet.DEFAULT_MEMORY_BUDGET),
+                Paths.get(System.getProperty("offheap.rowset.spillDir", System.getProperty("java.io.tmpdir"))));
+    }
+
+    public OffHeapRowSetFactory(long memoryBudget, Path spillDirectory) throws SQLException {
+        this.memoryBudget = memoryBudget;
+        this.spillDirectory = spillDirectory;
+        // Named explicitly: RowSetProvider.newFactory() would return this
+        // class again when it is set as the default
+        this.reference = RowSetProvider.newFactory(ReadOnlyRowSet.REFERENCE_FACTORY, null);
+    }
+
+    public CachedRowSet createCachedRowSet() {
+        return new OffHeapCachedRowSet(memoryBudget, spillDirectory);
+    }
+
+    public FilteredRowSet createFilteredRowSet() throws SQLException {
+        return reference.createFilteredRowSet();
+    }
+
+    public JdbcRowSet createJdbcRowSet() throws SQLException {
+        return reference.createJdbcRowSet();
+    }
+
+    public JoinRowSet createJoinRowSet() throws SQLException {
+        return reference.createJoinRowSet();
+    }
+
+    public WebRowSet createWebRowSet() throws SQLException {
+        return reference.createWebRowSet();
+    }
+}
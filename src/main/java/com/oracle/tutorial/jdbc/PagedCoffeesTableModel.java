@@ -0,0 +1,251 @@
+package com.oracle.tutorial.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+import javax.sql.DataSource;
+import javax.swing.SwingWorker;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * A read-only TableModel over COFFEES that reads rows from the database only
+ * when the table asks for them.
+ *
+ * The row count comes from SELECT COUNT(*). Rows are read in pages of
+ * pageSize rows ordered by COF_NAME, and at most maxPages pages are kept;
+ * the least recently used page is dropped when another one is read. Memory
+ * use therefore depends on the page size and count, not on the size of the
+ * table, and scrolling a JTable touches only the pages that are shown.
+ *
+ * Pages are read in the background with a SwingWorker, each with a
+ * connection borrowed from the DataSource, so painting never waits for the
+ * database: the cells of a page that is not read yet are empty, and the
+ * table is told to repaint the page's rows when it arrives. Rows inserted
+ * or deleted by others are not seen until refresh() is called. A page that
+ * cannot be read is reported once on System.err and its cells stay empty
+ * until refresh() is called. Like other Swing models, it must be used from
+ * the event dispatch thread.
+ */
+@SuppressWarnings("serial") // Holds a DataSource; not meant to be serialized
+public class PagedCoffeesTableModel extends AbstractTableModel {
+
+    public static final int DEFAULT_PAGE_SIZE = 200;
+    public static final int DEFAULT_MAX_PAGES = 10;
+
+    private static final String COLUMNS = "COF_NAME, SUP_ID, PRICE, SALES, TOTAL";
+
+    private final DataSource dataSource;
+    private final int pageSize;
+    private final Map<Integer, Object[][]> pages;
+    private final Set<Integer> failedPages = new HashSet<>();
+    private final Set<Integer> loadingPages = new HashSet<>();
+    private int generation; // Incremented by refresh() to drop pages being read
+
+    private String pageQuery;
+    private boolean limitFirst;
+    private String[] columnNames;
+    private Class<?>[] columnClasses;
+    private int rowCount;
+    private long pageReads;
+
+    public PagedCoffeesTableModel(DataSource dataSource) throws SQLException {
+        this(dataSource, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+    }
+
+    public PagedCoffeesTableModel(DataSource dataSource, int pageSize, final int maxPages) throws SQLException {
+        if (pageSize <= 0 || maxPages <= 0) {
+            throw new IllegalArgumentException("pageSize and maxPages must be positive");
+        }
+        this.dataSource = dataSource;
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<Integer, Object[][]>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<Integer, Object[][]> eldest) {
+                return size() > maxPages;
+            }
+        };
+        try (Connection con = dataSource.getConnection()) {
+            // LIMIT is not understood by Java DB; the standard OFFSET and
+            // FETCH clauses are not understood by MySQL
+            limitFirst = StreamingQuery.isMySQL(con);
+            if (limitFirst) {
+                pageQuery = "select " + COLUMNS + " from COFFEES order by COF_NAME limit ? offset ?";
+            } else {
+                pageQuery = "select " + COLUMNS + " from COFFEES order by COF_NAME " +
+                        "offset ? rows fetch next ? rows only";
+            }
+            try (PreparedStatement ps = con.prepareStatement("select " + COLUMNS + " from COFFEES where 1 = 0");
+                 ResultSet rs = ps.executeQuery()) {
+                ResultSetMetaData metadata = rs.getMetaData();
+                columnNames = new String[metadata.getColumnCount()];
+                columnClasses = new Class<?>[columnNames.length];
+                for (int i = 0; i < columnNames.length; i++) {
+                    columnNames[i] = metadata.getColumnLabel(i + 1);
+                    columnClasses[i] = columnClass(metadata.getColumnClassName(i + 1));
+                }
+            }
+            rowCount = countRows(con);
+        }
+    }
+
+    /**
+     * Counts the rows again and drops all cached pages.
+     */
+    public void refresh() throws SQLException {
+        try (Connection con = dataSource.getConnection()) {
+            rowCount = countRows(con);
+        }
+        pages.clear();
+        failedPages.clear();
+        loadingPages.clear();
+        generation++;
+        fireTableDataChanged();
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Returns the number of pages currently cached.
+     */
+    public int getResidentPageCount() {
+        return pages.size();
+    }
+
+    /**
+     * Returns how many pages have been read from the database.
+     */
+    public long getPageReads() {
+        return pageReads;
+    }
+
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    public Class<?> getColumnClass(int column) {
+        return columnClasses[column];
+    }
+
+    /**
+     * Returns the value of the cell, or null while its page is being read.
+     */
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        int pageIndex = rowIndex / pageSize;
+        Object[][] page = pages.get(pageIndex);
+        if (page == null) {
+            if (!failedPages.contains(pageIndex) && loadingPages.add(pageIndex)) {
+                load(pageIndex);
+            }
+            return null;
+        }
+        int offset = rowIndex % pageSize;
+        // The table may have shrunk since it was counted
+        return offset < page.length ? page[offset][columnIndex] : null;
+    }
+
+    private void load(int pageIndex) {
+        int offset = pageIndex * pageSize;
+        int rows = Math.max(0, Math.min(pageSize, rowCount - offset));
+        int loadGeneration = generation;
+        new SwingWorker<Object[][], Void>() {
+            protected Object[][] doInBackground() throws SQLException {
+                return readPage(offset, rows);
+            }
+
+            protected void done() {
+                if (loadGeneration != generation) {
+                    return;
+                }
+                loadingPages.remove(pageIndex);
+                try {
+                    pages.put(pageIndex, get());
+                    pageReads++;
+                } catch (InterruptedException | CancellationException e) {
+                    return;
+                } catch (ExecutionException e) {
+                    // Every cell of the page would fail the same way; don't
+                    // read it again on each repaint
+                    failedPages.add(pageIndex);
+                    System.err.println("Could not read rows " + offset + " to " +
+                            (offset + pageSize - 1) + " of COFFEES");
+                    Throwable cause = e.getCause();
+                    JDBCTutorialUtilities.alternatePrintSQLException(cause instanceof SQLException ?
+                            (SQLException) cause : new SQLException(cause));
+                    return;
+                }
+                if (rows > 0) {
+                    fireTableRowsUpdated(offset, offset + rows - 1);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Reads up to rows rows starting at offset; called on a worker thread.
+     */
+    private Object[][] readPage(int offset, int rows) throws SQLException {
+        Object[][] page = new Object[rows][];
+        int n = 0;
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(pageQuery)) {
+            if (limitFirst) {
+                ps.setInt(1, pageSize);
+                ps.setInt(2, offset);
+            } else {
+                ps.setInt(1, offset);
+                ps.setInt(2, pageSize);
+            }
+            ps.setFetchSize(pageSize);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (n < rows && rs.next()) {
+                    Object[] row = new Object[columnNames.length];
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] = rs.getObject(i + 1);
+                    }
+                    page[n++] = row;
+                }
+            }
+        }
+        if (n < rows) {
+            Object[][] shorter = new Object[n][];
+            System.arraycopy(page, 0, shorter, 0, n);
+            page = shorter;
+        }
+        return page;
+    }
+
+    private static int countRows(Connection con) throws SQLException {
+        try (Statement stmt = con.createStatement();
+             ResultSet rs = stmt.executeQuery("select count(*) from COFFEES")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static Class<?> columnClass(String className) {
+        try {
+            return Class.forName(className);
+        } catch (ClassNotFoundException e) {
+            return Object.class;
+        }
+    }
+}
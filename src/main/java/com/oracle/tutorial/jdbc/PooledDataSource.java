@@ -0,0 +1,496 @@
+package com.oracle.tutorial.jdbc;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+/**
+ * A small connection pool exposed as a {@link DataSource}. Physical
+ * connections are opened through a {@link ConnectionFactory} and handed out
+ * wrapped in a proxy whose {@code close()} returns the connection to the pool
+ * instead of closing it.
+ *
+ * The pool keeps between {@code minSize} and {@code maxSize} physical
+ * connections, validates every connection before lending it, evicts
+ * connections that stayed idle longer than the idle timeout and reports
+ * connections that were borrowed for longer than the leak detection
+ * threshold together with the stack trace of the code that borrowed them.
+ * Each physical connection also keeps a {@link StatementCache}, so
+ * PreparedStatement objects prepared through a borrowed connection are reused
+ * across borrows.
+ */
+public class PooledDataSource implements DataSource, AutoCloseable {
+
+    /**
+     * Opens a new physical connection to the database.
+     */
+    public interface ConnectionFactory {
+        Connection newConnection() throws SQLException;
+    }
+
+    private final ConnectionFactory factory;
+    private final int minSize;
+    private final int maxSize;
+    private final long connectionTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakDetectionThresholdMillis;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    private final Object lock = new Object();
+    private final Deque<PoolEntry> idle = new ArrayDeque<>();
+    private final Set<PoolEntry> borrowed = new HashSet<>();
+    private int totalCount; // idle + borrowed + connections being opened
+    private boolean closed;
+
+    private final ScheduledExecutorService housekeeper;
+
+    private PrintWriter logWriter;
+    private int loginTimeout;
+
+    public PooledDataSource(ConnectionFactory factory, int minSize, int maxSize,
+                            long connectionTimeoutMillis, long idleTimeoutMillis,
+                            long leakDetectionThresholdMillis, int validationTimeoutSeconds,
+                            int statementCacheSize) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min " + minSize + ", max " + maxSize);
+        }
+        this.factory = factory;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.connectionTimeoutMillis = connectionTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = statementCacheSize;
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "PooledDataSource housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = housekeepingPeriodMillis();
+        this.housekeeper.scheduleWithFixedDelay(this::housekeep, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    private long housekeepingPeriodMillis() {
+        long period = 30_000;
+        if (idleTimeoutMillis > 0) period = Math.min(period, idleTimeoutMillis / 2);
+        if (leakDetectionThresholdMillis > 0) period = Math.min(period, leakDetectionThresholdMillis / 2);
+        return Math.max(period, 100);
+    }
+
+    public Connection getConnection() throws SQLException {
+        long deadline = System.currentTimeMillis() + connectionTimeoutMillis;
+        while (true) {
+            PoolEntry entry;
+            boolean create = false;
+            synchronized (lock) {
+                while (true) {
+                    if (closed) {
+                        throw new SQLException("Connection pool has been closed");
+                    }
+                    entry = idle.pollFirst();
+                    if (entry != null) {
+                        break;
+                    }
+                    if (totalCount < maxSize) {
+                        totalCount++;
+                        create = true;
+                        break;
+                    }
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        throw new SQLTimeoutException("Timed out after " + connectionTimeoutMillis +
+                                " ms waiting for a connection; all " + maxSize + " connections are in use");
+                    }
+                    try {
+                        lock.wait(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a connection", e);
+                    }
+                }
+            }
+
+            if (create) {
+                entry = openEntry();
+            } else if (!isValid(entry)) {
+                discard(entry);
+                continue;
+            }
+
+            synchronized (lock) {
+                borrowed.add(entry);
+            }
+            entry.borrowedAt = System.currentTimeMillis();
+            entry.leakReported = false;
+            entry.borrowSite = leakDetectionThresholdMillis > 0
+                    ? new Throwable("Connection borrowed here") : null;
+            return entry.newProxy();
+        }
+    }
+
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("PooledDataSource does not support per-call credentials");
+    }
+
+    public int getActiveCount() {
+        synchronized (lock) {
+            return borrowed.size();
+        }
+    }
+
+    public int getIdleCount() {
+        synchronized (lock) {
+            return idle.size();
+        }
+    }
+
+    public int getTotalCount() {
+        synchronized (lock) {
+            return totalCount;
+        }
+    }
+
+    /**
+     * Closes all idle connections and stops the pool. Connections that are
+     * still borrowed are closed as soon as they are returned.
+     */
+    public void close() {
+        List<PoolEntry> toClose;
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            lock.notifyAll();
+        }
+        housekeeper.shutdownNow();
+        for (PoolEntry entry : toClose) {
+            discard(entry);
+        }
+    }
+
+    private PoolEntry openEntry() throws SQLException {
+        try {
+            return new PoolEntry(factory.newConnection());
+        } catch (SQLException | RuntimeException e) {
+            synchronized (lock) {
+                totalCount--;
+                lock.notifyAll();
+            }
+            throw e;
+        }
+    }
+
+    private boolean isValid(PoolEntry entry) {
+        try {
+            return entry.connection.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PoolEntry entry) {
+        entry.statementCache.releaseAll();
+        boolean reusable = !entry.broken && entry.resetState();
+        entry.borrowSite = null;
+        synchronized (lock) {
+            borrowed.remove(entry);
+            if (reusable && !closed) {
+                entry.lastUsed = System.currentTimeMillis();
+                idle.addFirst(entry);
+                lock.notify();
+                return;
+            }
+        }
+        discard(entry);
+    }
+
+    private void discard(PoolEntry entry) {
+        entry.statementCache.invalidate();
+        try {
+            entry.connection.close();
+        } catch (SQLException e) {
+            log("Failed to close pooled connection: " + e.getMessage());
+        } finally {
+            synchronized (lock) {
+                totalCount--;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        List<PoolEntry> evicted = new ArrayList<>();
+        int missing;
+        synchronized (lock) {
+            if (closed) return;
+
+            if (idleTimeoutMillis > 0) {
+                // Oldest idle connections are at the tail of the deque
+                Iterator<PoolEntry> it = idle.descendingIterator();
+                while (it.hasNext() && totalCount - evicted.size() > minSize) {
+                    PoolEntry entry = it.next();
+                    if (now - entry.lastUsed > idleTimeoutMillis) {
+                        it.remove();
+                        evicted.add(entry);
+                    }
+                }
+            }
+
+            if (leakDetectionThresholdMillis > 0) {
+                for (PoolEntry entry : borrowed) {
+                    if (!entry.leakReported && entry.borrowSite != null &&
+                            now - entry.borrowedAt > leakDetectionThresholdMillis) {
+                        entry.leakReported = true;
+                        log("Possible connection leak: connection borrowed " +
+                                (now - entry.borrowedAt) + " ms ago has not been returned");
+                        entry.borrowSite.printStackTrace(logWriter != null ? logWriter : new PrintWriter(System.err, true));
+                    }
+                }
+            }
+
+            missing = minSize - (totalCount - evicted.size());
+            if (missing > 0) {
+                totalCount += missing;
+            }
+        }
+
+        for (PoolEntry entry : evicted) {
+            discard(entry);
+        }
+
+        for (int i = 0; i < missing; i++) {
+            try {
+                PoolEntry entry = openEntry();
+                boolean keep;
+                synchronized (lock) {
+                    keep = !closed;
+                    if (keep) {
+                        entry.lastUsed = System.currentTimeMillis();
+                        idle.addLast(entry);
+                        lock.notify();
+                    }
+                }
+                if (!keep) {
+                    discard(entry);
+                }
+            } catch (SQLException e) {
+                log("Failed to open pooled connection: " + e.getMessage());
+                synchronized (lock) {
+                    totalCount -= missing - i - 1;
+                }
+                break;
+            }
+        }
+    }
+
+    private void log(String message) {
+        if (logWriter != null) {
+            logWriter.println(message);
+            logWriter.flush();
+        } else {
+            System.err.println(message);
+        }
+    }
+
+    public PrintWriter getLogWriter() {
+        return logWriter;
+    }
+
+    public void setLogWriter(PrintWriter out) {
+        this.logWriter = out;
+    }
+
+    public void setLoginTimeout(int seconds) {
+        this.loginTimeout = seconds;
+    }
+
+    public int getLoginTimeout() {
+        return loginTimeout;
+    }
+
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException("PooledDataSource does not use java.util.logging");
+    }
+
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("PooledDataSource is not a wrapper for " + iface.getName());
+    }
+
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * A physical connection owned by the pool, together with the state it had
+     * when it was opened so that it can be restored before the connection is
+     * lent again.
+     */
+    private final class PoolEntry {
+
+        final Connection connection;
+        final boolean initialAutoCommit;
+        final boolean initialReadOnly;
+        final int initialIsolation;
+        final String initialCatalog;
+        final StatementCache statementCache;
+
+        long lastUsed;
+        long borrowedAt;
+        boolean leakReported;
+        Throwable borrowSite;
+        volatile boolean broken;
+
+        PoolEntry(Connection connection) throws SQLException {
+            this.connection = connection;
+            this.initialAutoCommit = connection.getAutoCommit();
+            this.initialReadOnly = connection.isReadOnly();
+            this.initialIsolation = connection.getTransactionIsolation();
+            this.initialCatalog = connection.getCatalog();
+            this.statementCache = new StatementCache(statementCacheSize);
+        }
+
+        Connection newProxy() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new ConnectionHandler(this));
+        }
+
+        /**
+         * Rolls back any pending work and restores the connection state that
+         * callers commonly change. Returns false if the connection can not be
+         * reused.
+         */
+        boolean resetState() {
+            try {
+                if (connection.isClosed()) {
+                    return false;
+                }
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                }
+                if (connection.getAutoCommit() != initialAutoCommit) {
+                    connection.setAutoCommit(initialAutoCommit);
+                }
+                if (connection.isReadOnly() != initialReadOnly) {
+                    connection.setReadOnly(initialReadOnly);
+                }
+                if (connection.getTransactionIsolation() != initialIsolation) {
+                    connection.setTransactionIsolation(initialIsolation);
+                }
+                if (initialCatalog != null && !initialCatalog.equals(connection.getCatalog())) {
+                    connection.setCatalog(initialCatalog);
+                }
+                connection.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                log("Discarding pooled connection that could not be reset: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Handler behind the logical connections handed out by the pool.
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final PoolEntry entry;
+        private boolean logicallyClosed;
+
+        ConnectionHandler(PoolEntry entry) {
+            this.entry = entry;
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + entry.connection + "]";
+                case "close":
+                    if (!logicallyClosed) {
+                        logicallyClosed = true;
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return logicallyClosed || entry.connection.isClosed();
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || args[0] == StatementCache.class ||
+                            entry.connection.isWrapperFor((Class<?>) args[0]);
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    if (args[0] == StatementCache.class) {
+                        return entry.statementCache;
+                    }
+                    break;
+                case "abort":
+                    entry.broken = true;
+                    break;
+                default:
+                    break;
+            }
+
+            if (logicallyClosed) {
+                throw new SQLException("Connection is closed");
+            }
+            if (name.equals("prepareStatement")) {
+                // prepareStatement(String) and prepareStatement(String, int, int)
+                if (args.length == 1) {
+                    return entry.statementCache.prepare(entry.connection, (Connection) proxy, (String) args[0],
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                } else if (args.length == 3) {
+                    return entry.statementCache.prepare(entry.connection, (Connection) proxy, (String) args[0],
+                            (Integer) args[1], (Integer) args[2]);
+                }
+            }
+            try {
+                return method.invoke(entry.connection, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException) {
+                    String state = ((SQLException) cause).getSQLState();
+                    // SQLState class 08 is "connection exception"
+                    if (state != null && state.startsWith("08")) {
+                        entry.broken = true;
+                    }
+                }
+                throw cause;
+            }
+        }
+    }
+}
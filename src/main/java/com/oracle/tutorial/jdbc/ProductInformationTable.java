@@ -47,10 +47,7 @@ import java.util.Map;
 
 import java.util.Set;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.xpath.*;
+import javax.xml.xpath.XPathExpressionException;
 
 import org.w3c.dom.Document;
 
@@ -73,21 +70,10 @@ public class ProductInformationTable {
     }
 
     public void populateTable(String fileName) throws SQLException,
-            ParserConfigurationException,
             SAXException, IOException,
             XPathExpressionException {
-        javax.xml.parsers.DocumentBuilderFactory factory =
-                javax.xml.parsers.DocumentBuilderFactory.newInstance();
-        // factory.setNamespaceAware(true);
-        factory.setNamespaceAware(true);
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        Document doc = builder.parse(fileName);
-        XPathFactory xPathfactory = XPathFactory.newInstance();
-        XPath xPath = xPathfactory.newXPath();
-        NodeList nodes = (NodeList) xPath.evaluate(
-                "/coffee-product-information/item[coffee = 'Columbian']",
-                doc,
-                XPathConstants.NODESET);
+        Document doc = XmlToolkit.parse(fileName);
+        NodeList nodes = XmlToolkit.coffeeItems(doc, "Columbian");
 
         for (int i = 0; i < nodes.getLength(); i++) {
             Node currentNode = nodes.item(i);
@@ -97,10 +83,7 @@ public class ProductInformationTable {
                 System.out.println("Current node is null");
             }
 //      System.out.println(currentNode.getTextContent());
-            Node descriptionNode = (Node) xPath.evaluate(
-                    "description",
-                    currentNode,
-                    XPathConstants.NODE);
+            Node descriptionNode = XmlToolkit.description(currentNode);
 
             if (descriptionNode == null) {
                 System.out.println("DescriptionNode is null");
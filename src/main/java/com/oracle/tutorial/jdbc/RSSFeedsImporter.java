@@ -0,0 +1,420 @@
+package com.oracle.tutorial.jdbc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Loads every *.xml feed file of a directory into RSS_FEEDS, the way
+ * RSSFeedsTable.addRSSFeed loads one: a file whose digest is already in
+ * RSS_DIGEST is skipped before it is parsed, and any other file replaces
+ * the stored feed of the same name, if there is one.
+ *
+ * The files are read and their titles parsed on a fixed pool of threads,
+ * while the connection writes the feeds parsed before them: the directory
+ * is taken in chunks, the next chunk is parsed while the current one is
+ * written as one batch and committed, so at most two chunks are held in
+ * memory. A file that cannot be read, has no title or cannot be written is
+ * recorded as a failure and the run goes on; when a batch fails, its chunk
+ * is rolled back and written again one feed at a time to find the failing
+ * files.
+ */
+public class RSSFeedsImporter {
+
+    public static final int DEFAULT_CHUNK_SIZE = 100;
+
+    private final Connection con;
+    private final String dbms;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    private int loaded;
+    private int unchanged;
+    private long bytes;
+    private long elapsedMillis;
+    private Map<Path, String> failures = Collections.emptyMap();
+
+    // The stored feeds, read when a run starts; the digests are read by the
+    // threads that parse the files
+    private final Set<String> storedNames = new HashSet<>();
+    private final Set<String> knownDigests = ConcurrentHashMap.newKeySet();
+
+    public RSSFeedsImporter(Connection con, String dbms) {
+        this.con = con;
+        this.dbms = dbms;
+    }
+
+    /**
+     * Sets the number of threads that read and parse the files.
+     */
+    public void setThreads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        this.threads = threads;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the number of feeds inserted and committed together.
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getLoadedFeeds() {
+        return loaded;
+    }
+
+    /**
+     * Returns the number of files of the last run skipped because a stored
+     * feed has the same content.
+     */
+    public int getUnchangedFeeds() {
+        return unchanged;
+    }
+
+    public long getLoadedBytes() {
+        return bytes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Returns the files of the last run that were not loaded, with the
+     * reason, in the order of the directory listing.
+     */
+    public Map<Path, String> getFailures() {
+        return failures;
+    }
+
+    private static final class Feed {
+        final Path file;
+        final String title;
+        final String xml;
+        final String digest;
+        final int size;
+        final String failure;
+        final boolean unchanged;
+
+        Feed(Path file, String title, String xml, String digest, int size, String failure, boolean unchanged) {
+            this.file = file;
+            this.title = title;
+            this.xml = xml;
+            this.digest = digest;
+            this.size = size;
+            this.failure = failure;
+            this.unchanged = unchanged;
+        }
+    }
+
+    /**
+     * Loads the feeds of the directory and returns the number loaded.
+     */
+    public int importDirectory(Path directory) throws IOException, SQLException, InterruptedException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.xml")) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        Collections.sort(files);
+
+        loaded = 0;
+        unchanged = 0;
+        bytes = 0;
+        Map<Path, String> failed = new LinkedHashMap<>();
+        long start = System.nanoTime();
+        loadStoredFeeds();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        boolean autoCommit = con.getAutoCommit();
+        con.setAutoCommit(false);
+        try (PreparedStatement insertRow = con.prepareStatement(insertRowQuery());
+             PreparedStatement updateRow = dbms.equals("mysql") ? null : con.prepareStatement(updateRowQuery())) {
+            List<Future<Feed>> chunk = parse(pool, files, 0);
+            for (int from = chunkSize; !chunk.isEmpty(); from += chunkSize) {
+                List<Future<Feed>> next = parse(pool, files, from);
+                List<Feed> feeds = new ArrayList<>(chunk.size());
+                for (Future<Feed> future : chunk) {
+                    Feed feed = get(future);
+                    if (feed.failure != null) {
+                        failed.put(feed.file, feed.failure);
+                    } else if (feed.unchanged) {
+                        unchanged++;
+                    } else {
+                        feeds.add(feed);
+                    }
+                }
+                write(insertRow, updateRow, feeds, failed);
+                chunk = next;
+            }
+        } catch (SQLException | InterruptedException | RuntimeException e) {
+            // Restoring auto-commit would commit the chunk being written
+            con.rollback();
+            throw e;
+        } finally {
+            pool.shutdownNow();
+            con.setAutoCommit(autoCommit);
+            elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            failures = Collections.unmodifiableMap(failed);
+        }
+        return loaded;
+    }
+
+    private void loadStoredFeeds() throws SQLException {
+        storedNames.clear();
+        knownDigests.clear();
+        try (Statement stmt = con.createStatement();
+             ResultSet rs = stmt.executeQuery("select RSS_NAME, RSS_DIGEST from RSS_FEEDS")) {
+            while (rs.next()) {
+                storedNames.add(rs.getString(1));
+                knownDigests.add(rs.getString(2));
+            }
+        }
+    }
+
+    /**
+     * Returns the statement that inserts a feed or, on MySQL, inserts or
+     * replaces it. Its parameters are RSS_NAME, RSS_FEED_XML and RSS_DIGEST.
+     */
+    private String insertRowQuery() {
+        if (dbms.equals("derby")) {
+            return "insert into RSS_FEEDS (RSS_NAME, RSS_FEED_XML, RSS_DIGEST) values" +
+                    " (?, xmlparse(document cast (? as clob) preserve whitespace), ?)";
+        } else if (dbms.equals("mysql")) {
+            return "insert into RSS_FEEDS (RSS_NAME, RSS_FEED_XML, RSS_DIGEST) values (?, ?, ?)" +
+                    " on duplicate key update RSS_FEED_XML = values(RSS_FEED_XML)," +
+                    " RSS_DIGEST = values(RSS_DIGEST)";
+        }
+        return "insert into RSS_FEEDS (RSS_NAME, RSS_FEED_XML, RSS_DIGEST) values (?, ?, ?)";
+    }
+
+    /**
+     * Returns the statement that replaces a stored feed, for the databases
+     * without an upsert. Its parameters are the same as the insert's.
+     */
+    private String updateRowQuery() {
+        if (dbms.equals("derby")) {
+            return "update RSS_FEEDS set RSS_FEED_XML =" +
+                    " xmlparse(document cast (? as clob) preserve whitespace)," +
+                    " RSS_DIGEST = ? where RSS_NAME = ?";
+        }
+        return "update RSS_FEEDS set RSS_FEED_XML = ?, RSS_DIGEST = ? where RSS_NAME = ?";
+    }
+
+    private List<Future<Feed>> parse(ExecutorService pool, List<Path> files, int from) {
+        List<Future<Feed>> chunk = new ArrayList<>();
+        for (int i = from; i < Math.min(from + chunkSize, files.size()); i++) {
+            Path file = files.get(i);
+            chunk.add(pool.submit(() -> read(file)));
+        }
+        return chunk;
+    }
+
+    private static Feed get(Future<Feed> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            // read reports its own failures; this is an unexpected one
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Reads a file and, unless a stored feed has the same digest, parses
+     * its title, returning the failure instead of throwing it.
+     */
+    private Feed read(Path file) {
+        try {
+            byte[] content = Files.readAllBytes(file);
+            String digest = RSSFeedsTable.digest(content);
+            if (knownDigests.contains(digest)) {
+                return new Feed(file, null, null, digest, content.length, null, true);
+            }
+            String title;
+            Charset encoding;
+            XMLStreamReader xml = XmlToolkit.createXMLStreamReader(new ByteArrayInputStream(content));
+            try {
+                title = RSSFeedsTable.readTitle(xml);
+                encoding = xml.getEncoding() == null ?
+                        StandardCharsets.UTF_8 : Charset.forName(xml.getEncoding());
+            } finally {
+                xml.close();
+            }
+            if (title == null) {
+                return new Feed(file, null, null, null, 0, "Unable to retrieve title element", false);
+            }
+            return new Feed(file, title, new String(content, encoding), digest, content.length, null, false);
+        } catch (IOException | XMLStreamException | RuntimeException e) {
+            return new Feed(file, null, null, null, 0, e.toString(), false);
+        }
+    }
+
+    /**
+     * Writes and commits the feeds as one batch or, if the batch fails, one
+     * feed at a time. Without an upsert, the feeds whose name is stored, or
+     * comes earlier in the chunk, are updated and the others inserted.
+     */
+    private void write(PreparedStatement insertRow, PreparedStatement updateRow, List<Feed> feeds,
+                       Map<Path, String> failed) throws SQLException {
+        if (feeds.isEmpty()) {
+            return;
+        }
+        try {
+            List<Feed> inserts = new ArrayList<>();
+            List<Feed> updates = new ArrayList<>();
+            Set<String> chunkNames = new HashSet<>();
+            for (Feed feed : feeds) {
+                boolean stored = storedNames.contains(feed.title) || !chunkNames.add(feed.title);
+                (updateRow != null && stored ? updates : inserts).add(feed);
+            }
+            executeBatch(insertRow, inserts, false);
+            int[] counts = executeBatch(updateRow, updates, true);
+            // A feed deleted since the run started is inserted again
+            List<Feed> missing = new ArrayList<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    missing.add(updates.get(i));
+                }
+            }
+            executeBatch(insertRow, missing, false);
+            con.commit();
+            for (Feed feed : feeds) {
+                written(feed);
+            }
+            return;
+        } catch (BatchUpdateException e) {
+            insertRow.clearBatch();
+            if (updateRow != null) {
+                updateRow.clearBatch();
+            }
+            con.rollback();
+        }
+        for (Feed feed : feeds) {
+            try {
+                if (updateRow == null || !storedNames.contains(feed.title) ||
+                        bind(updateRow, feed, true).executeUpdate() == 0) {
+                    bind(insertRow, feed, false).executeUpdate();
+                }
+                con.commit();
+                written(feed);
+            } catch (SQLException e) {
+                con.rollback();
+                failed.put(feed.file, e.getMessage());
+            }
+        }
+    }
+
+    private int[] executeBatch(PreparedStatement ps, List<Feed> feeds, boolean update) throws SQLException {
+        if (feeds.isEmpty()) {
+            return new int[0];
+        }
+        for (Feed feed : feeds) {
+            bind(ps, feed, update).addBatch();
+        }
+        return ps.executeBatch();
+    }
+
+    private static PreparedStatement bind(PreparedStatement ps, Feed feed, boolean update) throws SQLException {
+        if (update) {
+            ps.setString(1, feed.xml);
+            ps.setString(2, feed.digest);
+            ps.setString(3, feed.title);
+        } else {
+            ps.setString(1, feed.title);
+            ps.setString(2, feed.xml);
+            ps.setString(3, feed.digest);
+        }
+        return ps;
+    }
+
+    private void written(Feed feed) {
+        loaded++;
+        bytes += feed.size;
+        storedNames.add(feed.title);
+        knownDigests.add(feed.digest);
+    }
+
+    public static void main(String[] args) throws SQLException {
+        JDBCTutorialUtilities myJDBCTutorialUtilities;
+        Connection myConnection = null;
+        if (args.length < 2) {
+            System.err.println("Usage: RSSFeedsImporter <properties file> <feed directory> [threads] [chunk size]");
+            return;
+        } else {
+            try {
+                myJDBCTutorialUtilities = new JDBCTutorialUtilities(args[0]);
+            } catch (Exception e) {
+                System.err.println("Problem reading properties file " + args[0]);
+                e.printStackTrace();
+                return;
+            }
+        }
+        try {
+            myConnection = myJDBCTutorialUtilities.getConnection();
+            RSSFeedsImporter importer = new RSSFeedsImporter(myConnection, myJDBCTutorialUtilities.dbms);
+            if (args.length > 2) {
+                importer.setThreads(Integer.parseInt(args[2]));
+            }
+            if (args.length > 3) {
+                importer.setChunkSize(Integer.parseInt(args[3]));
+            }
+            importer.importDirectory(Paths.get(args[1]));
+
+            long millis = Math.max(importer.getElapsedMillis(), 1);
+            System.out.println("Loaded " + importer.getLoadedFeeds() + " feeds (" +
+                    importer.getLoadedBytes() + " bytes) in " + millis + " ms: " +
+                    importer.getLoadedFeeds() * 1000L / millis + " feeds/s, " +
+                    importer.getLoadedBytes() * 1000L / 1024 / millis + " KB/s");
+            System.out.println(importer.getUnchangedFeeds() + " unchanged feeds skipped");
+            System.out.println(importer.getFailures().size() + " files failed");
+            for (Map.Entry<Path, String> failure : importer.getFailures().entrySet()) {
+                System.out.println(failure.getKey() + ": " + failure.getValue());
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            if (myConnection != null) {
+                myConnection.close();
+            }
+        }
+    }
+}
@@ -31,10 +31,19 @@
 
 package com.oracle.tutorial.jdbc;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
-
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.io.StringReader;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -42,20 +51,19 @@ import java.sql.SQLException;
 import java.sql.SQLXML;
 import java.sql.Statement;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.TransformerConfigurationException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.dom.DOMResult;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 
 import org.w3c.dom.Document;
-import org.w3c.dom.Node;
 
-import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 public class RSSFeedsTable {
@@ -64,6 +72,10 @@ public class RSSFeedsTable {
     private Connection con;
     private String dbms;
 
+    // The digests of the stored feeds, read from RSS_FEEDS on first use and
+    // kept up to date by addRSSFeed: RSS_NAME to RSS_DIGEST, and back
+    private Map<String, String> digestsByName;
+    private final Map<String, String> namesByDigest = new HashMap<>();
 
     public RSSFeedsTable(Connection connArg, String dbNameArg, String dbmsArg) {
         super();
@@ -77,12 +89,14 @@ public class RSSFeedsTable {
             if (this.dbms.equals("derby")) {
                 String createString =
                         "create table RSS_FEEDS (RSS_NAME varchar(32) NOT NULL," +
-                                "  RSS_FEED_XML xml NOT NULL, PRIMARY KEY (RSS_NAME))";
+                                "  RSS_FEED_XML xml NOT NULL, RSS_DIGEST char(64) NOT NULL," +
+                                "  PRIMARY KEY (RSS_NAME))";
                 stmt.executeUpdate(createString);
             } else if (this.dbms.equals("mysql")) {
                 String createString =
                         "create table RSS_FEEDS (RSS_NAME varchar(32) NOT NULL," +
-                                "  RSS_FEED_XML longtext NOT NULL, PRIMARY KEY (RSS_NAME))";
+                                "  RSS_FEED_XML longtext NOT NULL, RSS_DIGEST char(64) NOT NULL," +
+                                "  PRIMARY KEY (RSS_NAME))";
                 stmt.executeUpdate(createString);
             }
         }
@@ -98,97 +112,297 @@ public class RSSFeedsTable {
         }
     }
 
-    public void addRSSFeed(String fileName) throws ParserConfigurationException,
-            SAXException, IOException,
-            XPathExpressionException,
-            TransformerConfigurationException,
-            TransformerException,
-            SQLException {
-        // Parse the document and retrieve the name of the RSS feed
-
-        String titleString = null;
-
-        javax.xml.parsers.DocumentBuilderFactory factory =
-                javax.xml.parsers.DocumentBuilderFactory.newInstance();
-        factory.setNamespaceAware(true);
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        Document doc = builder.parse(fileName);
-
-        XPathFactory xPathfactory = XPathFactory.newInstance();
-
-        XPath xPath = xPathfactory.newXPath();
-
-        Node titleElement =
-                (Node) xPath.evaluate("/rss/channel/title[1]", doc, XPathConstants.NODE);
-
-        if (titleElement == null) {
-            System.out.println("Unable to retrieve title element");
-            return;
-        } else {
-            titleString =
-                    titleElement.getTextContent().trim().toLowerCase().replaceAll("\\s+",
-                            "_");
-            System.out.println("title element: [" + titleString + "]");
-        }
-
-        System.out.println(JDBCTutorialUtilities.convertDocumentToString(doc));
+    public void addRSSFeed(String fileName) throws IOException, XMLStreamException, SQLException {
+        // Skip the file if a stored feed has the same content; otherwise read
+        // the name of the RSS feed and store the file as it is, replacing the
+        // feed of that name. The file is read as a stream and is never held
+        // in memory.
 
+        Path file = Paths.get(fileName);
         PreparedStatement insertRow = null;
         SQLXML rssData = null;
 
         System.out.println("Current DBMS: " + this.dbms);
 
         try {
+            String digest = digest(file);
+            String knownName = knownDigests().get(digest);
+            if (knownName != null) {
+                System.out.println("Skipping XML file " + fileName + ", unchanged since it was stored as [" +
+                        knownName + "]");
+                return;
+            }
+
             if (this.dbms.equals("mysql")) {
-                // For databases that support the SQLXML data type, this creates a
-                // SQLXML object from org.w3c.dom.Document.
+                // For databases that support the SQLXML data type, this copies
+                // the file into a SQLXML object while its title is parsed.
 
+                System.out.println("Creating SQLXML object with MySQL");
+                rssData = con.createSQLXML();
+                String titleString;
+                try (InputStream in = Files.newInputStream(file);
+                     OutputStream out = rssData.setBinaryStream()) {
+                    // The parser reads the file through a stream that copies
+                    // every byte it reads; the rest is copied without parsing
+                    titleString = readTitle(new CopyingInputStream(in, out));
+                    in.transferTo(out);
+                }
+                if (titleString == null) {
+                    System.out.println("Unable to retrieve title element");
+                    return;
+                }
+                System.out.println("title element: [" + titleString + "]");
 
                 System.out.println("Adding XML file " + fileName);
                 String insertRowQuery =
-                        "insert into RSS_FEEDS (RSS_NAME, RSS_FEED_XML) values" + " (?, ?)";
+                        "insert into RSS_FEEDS (RSS_NAME, RSS_FEED_XML, RSS_DIGEST) values (?, ?, ?)" +
+                                " on duplicate key update RSS_FEED_XML = values(RSS_FEED_XML)," +
+                                " RSS_DIGEST = values(RSS_DIGEST)";
                 insertRow = con.prepareStatement(insertRowQuery);
                 insertRow.setString(1, titleString);
-
-                System.out.println("Creating SQLXML object with MySQL");
-                rssData = con.createSQLXML();
-                System.out.println("Creating DOMResult object");
-                DOMResult dom = (DOMResult) rssData.setResult(DOMResult.class);
-                dom.setNode(doc);
-
                 insertRow.setSQLXML(2, rssData);
+                insertRow.setString(3, digest);
                 System.out.println("Running executeUpdate()");
                 insertRow.executeUpdate();
+                rememberDigest(titleString, digest);
 
             } else if (this.dbms.equals("derby")) {
+                // Derby reads the parameter when the statement runs, so the
+                // title is parsed from the start of the file first, and the
+                // file is then passed to Derby as a character stream.
+
+                String titleString;
+                Charset encoding;
+                try (InputStream in = Files.newInputStream(file)) {
+                    XMLStreamReader xml = XmlToolkit.createXMLStreamReader(in);
+                    try {
+                        titleString = readTitle(xml);
+                        encoding = xml.getEncoding() == null ?
+                                StandardCharsets.UTF_8 : Charset.forName(xml.getEncoding());
+                    } finally {
+                        xml.close();
+                    }
+                }
+                if (titleString == null) {
+                    System.out.println("Unable to retrieve title element");
+                    return;
+                }
+                System.out.println("title element: [" + titleString + "]");
 
+                // Derby has no upsert: update the feed of that name if it is
+                // stored, and insert it if the update changed no row
                 System.out.println("Adding XML file " + fileName);
-                String insertRowQuery =
-                        "insert into RSS_FEEDS (RSS_NAME, RSS_FEED_XML) values" +
-                                " (?, xmlparse(document cast (? as clob) preserve whitespace))";
-                insertRow = con.prepareStatement(insertRowQuery);
-                insertRow.setString(1, titleString);
-                String convertedDoc =
-                        JDBCTutorialUtilities.convertDocumentToString(doc);
-                insertRow.setClob(2, new StringReader(convertedDoc));
-
-                System.out.println("Running executeUpdate()");
-                insertRow.executeUpdate();
+                int count = 0;
+                if (digestsByName.containsKey(titleString)) {
+                    String updateRowQuery =
+                            "update RSS_FEEDS set RSS_FEED_XML =" +
+                                    " xmlparse(document cast (? as clob) preserve whitespace)," +
+                                    " RSS_DIGEST = ? where RSS_NAME = ?";
+                    try (PreparedStatement updateRow = con.prepareStatement(updateRowQuery);
+                         Reader feed = Files.newBufferedReader(file, encoding)) {
+                        updateRow.setCharacterStream(1, feed);
+                        updateRow.setString(2, digest);
+                        updateRow.setString(3, titleString);
+                        System.out.println("Running executeUpdate()");
+                        count = updateRow.executeUpdate();
+                    }
+                }
+                if (count == 0) {
+                    String insertRowQuery =
+                            "insert into RSS_FEEDS (RSS_NAME, RSS_FEED_XML, RSS_DIGEST) values" +
+                                    " (?, xmlparse(document cast (? as clob) preserve whitespace), ?)";
+                    insertRow = con.prepareStatement(insertRowQuery);
+                    insertRow.setString(1, titleString);
+                    insertRow.setString(3, digest);
+                    try (Reader feed = Files.newBufferedReader(file, encoding)) {
+                        insertRow.setCharacterStream(2, feed);
+                        System.out.println("Running executeUpdate()");
+                        insertRow.executeUpdate();
+                    }
+                }
+                rememberDigest(titleString, digest);
             }
         } catch (Exception ex) {
             System.out.println("Another exception caught:");
             ex.printStackTrace();
         } finally {
+            if (rssData != null) {
+                rssData.free();
+            }
             if (insertRow != null) {
                 insertRow.close();
             }
         }
     }
 
+    /**
+     * Returns the stored feeds by digest, reading them from RSS_FEEDS the
+     * first time. Feeds changed through another object or connection are
+     * not seen until a new RSSFeedsTable is created. Feeds stored before
+     * add-digest-column.sql added RSS_DIGEST have a blank digest, which
+     * matches no file, so they are replaced the next time they are added.
+     */
+    private Map<String, String> knownDigests() throws SQLException {
+        if (digestsByName == null) {
+            digestsByName = new HashMap<>();
+            try (Statement stmt = con.createStatement();
+                 ResultSet rs = stmt.executeQuery("select RSS_NAME, RSS_DIGEST from RSS_FEEDS")) {
+                while (rs.next()) {
+                    rememberDigest(rs.getString(1), rs.getString(2));
+                }
+            }
+        }
+        return namesByDigest;
+    }
+
+    private void rememberDigest(String name, String digest) {
+        String previous = digestsByName.put(name, digest);
+        if (previous != null) {
+            namesByDigest.remove(previous);
+        }
+        namesByDigest.put(digest, name);
+    }
+
+    /**
+     * Returns the SHA-256 digest of the file's bytes, in lower-case hex, as
+     * stored in RSS_DIGEST.
+     */
+    static String digest(Path file) throws IOException {
+        MessageDigest sha256 = sha256();
+        byte[] buffer = new byte[8192];
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                sha256.update(buffer, 0, n);
+            }
+        }
+        return toHex(sha256.digest());
+    }
+
+    /**
+     * Returns the SHA-256 digest of the bytes, as digest of a file does.
+     */
+    static String digest(byte[] content) {
+        return toHex(sha256().digest(content));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] hex = new char[2 * bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[2 * i] = Character.forDigit((bytes[i] >> 4) & 0xf, 16);
+            hex[2 * i + 1] = Character.forDigit(bytes[i] & 0xf, 16);
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Returns the name of the feed, the text of its first /rss/channel/title
+     * element in lower case with runs of white space replaced by
+     * underscores, or null if it has none. Parsing stops at the title.
+     */
+    static String readTitle(InputStream in) throws XMLStreamException {
+        XMLStreamReader xml = XmlToolkit.createXMLStreamReader(in);
+        try {
+            return readTitle(xml);
+        } finally {
+            xml.close();
+        }
+    }
+
+    /**
+     * Returns the name of the feed read by the StAX reader, as readTitle
+     * of a stream does, leaving the reader after the title.
+     */
+    static String readTitle(XMLStreamReader xml) throws XMLStreamException {
+        // The names of the open elements, up to /rss/channel/title
+        String[] path = {"rss", "channel", "title"};
+        int depth = 0;
+        int matched = 0;
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (matched == depth && matched < path.length &&
+                        path[matched].equals(xml.getLocalName())) {
+                    matched++;
+                    if (matched == path.length) {
+                        return xml.getElementText().trim().toLowerCase().replaceAll("\\s+", "_");
+                    }
+                }
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+                if (matched > depth) {
+                    if (depth == 0) {
+                        // The document element has ended
+                        return null;
+                    }
+                    matched = depth;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * An input stream that copies the bytes read from it to an output
+     * stream.
+     */
+    private static class CopyingInputStream extends FilterInputStream {
+        private final OutputStream copy;
+
+        CopyingInputStream(InputStream in, OutputStream copy) {
+            super(in);
+            this.copy = copy;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                copy.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n > 0) {
+                copy.write(b, off, n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // Skipped bytes must be copied too
+            byte[] buffer = new byte[(int) Math.min(n, 8192)];
+            int read = read(buffer, 0, buffer.length);
+            return Math.max(read, 0);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+            // The caller closes both streams
+        }
+    }
+
     public void viewTable(Connection con) throws SQLException,
-            ParserConfigurationException,
             SAXException, IOException,
-            TransformerConfigurationException,
             TransformerException {
 
         try (Statement stmt = con.createStatement()) {
@@ -199,14 +413,9 @@ public class RSSFeedsTable {
                 while (rs.next()) {
                     String rssName = rs.getString(1);
                     String rssFeedXML = rs.getString(2);
-                    javax.xml.parsers.DocumentBuilderFactory factory =
-                            javax.xml.parsers.DocumentBuilderFactory.newInstance();
-                    factory.setNamespaceAware(true);
-                    DocumentBuilder builder = factory.newDocumentBuilder();
-                    Document doc =
-                            builder.parse(new InputSource(new StringReader(rssFeedXML)));
+                    Document doc = XmlToolkit.parse(new StringReader(rssFeedXML));
                     System.out.println("RSS identifier: " + rssName);
-                    System.out.println(JDBCTutorialUtilities.convertDocumentToString(doc));
+                    System.out.println(XmlToolkit.toString(doc));
                 }
             } else if (this.dbms.equals("mysql")) {
                 String query = "select RSS_NAME, RSS_FEED_XML from RSS_FEEDS";
@@ -214,13 +423,10 @@ public class RSSFeedsTable {
                 while (rs.next()) {
                     String rssName = rs.getString(1);
                     SQLXML rssFeedXML = rs.getSQLXML(2);
-                    javax.xml.parsers.DocumentBuilderFactory factory =
-                            javax.xml.parsers.DocumentBuilderFactory.newInstance();
-                    factory.setNamespaceAware(true);
-                    DocumentBuilder builder = factory.newDocumentBuilder();
-                    Document doc = builder.parse(rssFeedXML.getBinaryStream());
+                    Document doc = XmlToolkit.parse(rssFeedXML.getBinaryStream());
+                    rssFeedXML.free();
                     System.out.println("RSS identifier: " + rssName);
-                    System.out.println(JDBCTutorialUtilities.convertDocumentToString(doc));
+                    System.out.println(XmlToolkit.toString(doc));
                 }
             }
         }
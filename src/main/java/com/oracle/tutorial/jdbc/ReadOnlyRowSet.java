@@ -0,0 +1,1653 @@
+package com.oracle.tutorial.jdbc;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectStreamException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.sql.DataSource;
+import javax.sql.RowSetEvent;
+import javax.sql.RowSetMetaData;
+import javax.sql.rowset.BaseRowSet;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import javax.sql.rowset.RowSetWarning;
+import javax.sql.rowset.serial.SerialBlob;
+import javax.sql.rowset.serial.SerialClob;
+import javax.sql.rowset.spi.SyncFactory;
+import javax.sql.rowset.spi.SyncProvider;
+import javax.sql.rowset.spi.SyncProviderException;
+
+/**
+ * The common part of CachedRowSet implementations whose rows are stored
+ * outside the Java heap and cannot be changed: the scrollable cursor, the
+ * conversions done by the ResultSet getters, execute() and the
+ * CachedRowSet bookkeeping. Subclasses store the rows and return their
+ * values.
+ *
+ * Every method that changes a row throws SQLFeatureNotSupportedException,
+ * and so do setConcurrency(CONCUR_UPDATABLE) and setPageSize with a page
+ * size other than 0: all the rows of a result are stored. acceptChanges has
+ * nothing to write and returns. JoinRowSet implementations that only accept
+ * their own CachedRowSet class cannot join these row sets; populate one of
+ * those from createShared() instead.
+ *
+ * The rows are not serializable where they are stored, so a row set is
+ * serialized as a copy in a reference CachedRowSet, with the same rows,
+ * properties and key columns: the receiver deserializes a reference row
+ * set, which holds its rows on the heap.
+ */
+public abstract class ReadOnlyRowSet extends BaseRowSet implements CachedRowSet {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String DEFAULT_PROVIDER = "com.sun.rowset.providers.RIOptimisticProvider";
+    static final String REFERENCE_FACTORY = "com.sun.rowset.RowSetFactoryImpl";
+
+    protected RowSetMetaData metadata;
+
+    private int cursor; // 0 is before the first row, size() + 1 after the last
+    private boolean wasNull;
+    private boolean closed;
+    private String tableName;
+    private int[] keyColumns;
+    private int[] matchColumnIndexes;
+    private String[] matchColumnNames;
+
+    protected ReadOnlyRowSet() {
+        initParams();
+        try {
+            super.setType(ResultSet.TYPE_SCROLL_INSENSITIVE);
+            super.setConcurrency(ResultSet.CONCUR_READ_ONLY);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the value in the given row and column, both counted from 1, as
+     * ResultSet.getObject would, or null for SQL NULL.
+     */
+    protected abstract Object getValue(int row, int column) throws SQLException;
+
+    /**
+     * Stores the rows of data starting at row startRow (counted from 1),
+     * replacing the rows already stored, and sets metadata.
+     */
+    protected abstract void storeRows(ResultSet data, int startRow) throws SQLException;
+
+    /**
+     * Frees the stored rows; size() is then 0.
+     */
+    protected abstract void freeRows() throws SQLException;
+
+    /**
+     * Returns an empty row set of the same kind and configuration, used by
+     * createCopy.
+     */
+    protected abstract ReadOnlyRowSet newRowSet() throws SQLException;
+
+    /**
+     * Returns true if the value in the given row and column is SQL NULL.
+     * Subclasses that can tell without reading the value override this and
+     * the other typed accessors, so that getInt and the like do not box.
+     */
+    protected boolean isNull(int row, int column) throws SQLException {
+        return getValue(row, column) == null;
+    }
+
+    /**
+     * Returns a value that is not NULL as a long.
+     */
+    protected long getLongValue(int row, int column) throws SQLException {
+        Object value = getValue(row, column);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        } else if (value instanceof String) {
+            try {
+                return new BigDecimal(((String) value).trim()).longValue();
+            } catch (NumberFormatException e) {
+                throw new SQLException("Not a number: " + value, e);
+            }
+        }
+        throw conversionError(value, "long");
+    }
+
+    /**
+     * Returns a value that is not NULL as a double.
+     */
+    protected double getDoubleValue(int row, int column) throws SQLException {
+        Object value = getValue(row, column);
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        } else if (value instanceof String) {
+            try {
+                return Double.parseDouble(((String) value).trim());
+            } catch (NumberFormatException e) {
+                throw new SQLException("Not a number: " + value, e);
+            }
+        }
+        throw conversionError(value, "double");
+    }
+
+    // Cursor
+
+    public boolean next() throws SQLException {
+        checkOpen();
+        if (cursor <= size()) {
+            cursor++;
+        }
+        notifyCursorMoved();
+        return cursor <= size();
+    }
+
+    public boolean previous() throws SQLException {
+        checkOpen();
+        if (cursor > 0) {
+            cursor--;
+        }
+        notifyCursorMoved();
+        return cursor >= 1;
+    }
+
+    public boolean absolute(int row) throws SQLException {
+        checkOpen();
+        int size = size();
+        if (row >= 0) {
+            cursor = Math.min(row, size + 1);
+        } else {
+            cursor = Math.max(size + 1 + row, 0);
+        }
+        notifyCursorMoved();
+        return isOnRow();
+    }
+
+    public boolean relative(int rows) throws SQLException {
+        checkOpen();
+        long target = (long) cursor + rows;
+        cursor = (int) Math.max(0, Math.min(target, size() + 1));
+        notifyCursorMoved();
+        return isOnRow();
+    }
+
+    public boolean first() throws SQLException {
+        return absolute(1);
+    }
+
+    public boolean last() throws SQLException {
+        return absolute(-1);
+    }
+
+    public void beforeFirst() throws SQLException {
+        absolute(0);
+    }
+
+    public void afterLast() throws SQLException {
+        checkOpen();
+        cursor = size() + 1;
+        notifyCursorMoved();
+    }
+
+    public boolean isBeforeFirst() throws SQLException {
+        return size() > 0 && cursor == 0;
+    }
+
+    public boolean isAfterLast() throws SQLException {
+        return size() > 0 && cursor == size() + 1;
+    }
+
+    public boolean isFirst() throws SQLException {
+        return size() > 0 && cursor == 1;
+    }
+
+    public boolean isLast() throws SQLException {
+        return size() > 0 && cursor == size();
+    }
+
+    public int getRow() throws SQLException {
+        return isOnRow() ? cursor : 0;
+    }
+
+    private boolean isOnRow() {
+        return cursor >= 1 && cursor <= size();
+    }
+
+    /**
+     * Checks that the cursor is on a row and the column exists, and returns
+     * the row.
+     */
+    protected int currentRow(int column) throws SQLException {
+        checkOpen();
+        if (!isOnRow()) {
+            throw new SQLException("The cursor is not on a row");
+        }
+        if (metadata == null || column < 1 || column > metadata.getColumnCount()) {
+            throw new SQLException("Invalid column index: " + column);
+        }
+        return cursor;
+    }
+
+    private void checkOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("The row set is closed");
+        }
+    }
+
+    // Getters
+
+    public boolean wasNull() throws SQLException {
+        return wasNull;
+    }
+
+    public Object getObject(int columnIndex) throws SQLException {
+        Object value = getValue(currentRow(columnIndex), columnIndex);
+        wasNull = value == null;
+        return value;
+    }
+
+    public String getString(int columnIndex) throws SQLException {
+        Object value = getObject(columnIndex);
+        if (value instanceof byte[]) {
+            return new String((byte[]) value, StandardCharsets.UTF_8);
+        }
+        return value == null ? null : value.toString();
+    }
+
+    public boolean getBoolean(int columnIndex) throws SQLException {
+        Object value = getObject(columnIndex);
+        if (value == null) {
+            return false;
+        } else if (value instanceof Boolean) {
+            return (Boolean) value;
+        } else if (value instanceof Number) {
+            return ((Number) value).doubleValue() != 0;
+        } else if (value instanceof String) {
+            String s = ((String) value).trim();
+            return s.equalsIgnoreCase("true") || s.equals("1");
+        }
+        throw conversionError(value, "boolean");
+    }
+
+    public byte getByte(int columnIndex) throws SQLException {
+        return (byte) getLong(columnIndex);
+    }
+
+    public short getShort(int columnIndex) throws SQLException {
+        return (short) getLong(columnIndex);
+    }
+
+    public int getInt(int columnIndex) throws SQLException {
+        return (int) getLong(columnIndex);
+    }
+
+    public long getLong(int columnIndex) throws SQLException {
+        int row = currentRow(columnIndex);
+        wasNull = isNull(row, columnIndex);
+        return wasNull ? 0 : getLongValue(row, columnIndex);
+    }
+
+    public float getFloat(int columnIndex) throws SQLException {
+        return (float) getDouble(columnIndex);
+    }
+
+    public double getDouble(int columnIndex) throws SQLException {
+        int row = currentRow(columnIndex);
+        wasNull = isNull(row, columnIndex);
+        return wasNull ? 0 : getDoubleValue(row, columnIndex);
+    }
+
+    public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
+        Object value = getObject(columnIndex);
+        if (value == null || value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        } else if (value instanceof Number || value instanceof String) {
+            try {
+                return new BigDecimal(value.toString().trim());
+            } catch (NumberFormatException e) {
+                throw new SQLException("Not a number: " + value, e);
+            }
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? BigDecimal.ONE : BigDecimal.ZERO;
+        }
+        throw conversionError(value, "BigDecimal");
+    }
+
+    /**
+     * @deprecated use getBigDecimal(int)
+     */
+    @Deprecated
+    public BigDecimal getBigDecimal(int columnIndex, int scale) throws SQLException {
+        BigDecimal value = getBigDecimal(columnIndex);
+        return value == null ? null : value.setScale(scale, RoundingMode.HALF_UP);
+    }
+
+    public byte[] getBytes(int columnIndex) throws SQLException {
+        Object value = getObject(columnIndex);
+        if (value == null || value instanceof byte[]) {
+            return (byte[]) value;
+        }
+        throw conversionError(value, "byte[]");
+    }
+
+    public Date getDate(int columnIndex) throws SQLException {
+        Object value = getObject(columnIndex);
+        if (value == null || value instanceof Date) {
+            return (Date) value;
+        } else if (value instanceof java.util.Date) {
+            return new Date(((java.util.Date) value).getTime());
+        } else if (value instanceof String) {
+            try {
+                return Date.valueOf(((String) value).trim());
+            } catch (IllegalArgumentException e) {
+                throw new SQLException("Not a date: " + value, e);
+            }
+        }
+        throw conversionError(value, "Date");
+    }
+
+    public Time getTime(int columnIndex) throws SQLException {
+        Object value = getObject(columnIndex);
+        if (value == null || value instanceof Time) {
+            return (Time) value;
+        } else if (value instanceof Timestamp) {
+            return Time.valueOf(((Timestamp) value).toLocalDateTime().toLocalTime());
+        } else if (value instanceof String) {
+            try {
+                return Time.valueOf(((String) value).trim());
+            } catch (IllegalArgumentException e) {
+                throw new SQLException("Not a time: " + value, e);
+            }
+        }
+        throw conversionError(value, "Time");
+    }
+
+    public Timestamp getTimestamp(int columnIndex) throws SQLException {
+        Object value = getObject(columnIndex);
+        if (value == null || value instanceof Timestamp) {
+            return (Timestamp) value;
+        } else if (value instanceof java.util.Date) {
+            return new Timestamp(((java.util.Date) value).getTime());
+        } else if (value instanceof String) {
+            try {
+                return Timestamp.valueOf(((String) value).trim());
+            } catch (IllegalArgumentException e) {
+                throw new SQLException("Not a timestamp: " + value, e);
+            }
+        }
+        throw conversionError(value, "Timestamp");
+    }
+
+    public Date getDate(int columnIndex, Calendar cal) throws SQLException {
+        Date value = getDate(columnIndex);
+        return value == null ? null : new Date(inCalendar(value, cal));
+    }
+
+    public Time getTime(int columnIndex, Calendar cal) throws SQLException {
+        Time value = getTime(columnIndex);
+        return value == null ? null : new Time(inCalendar(value, cal));
+    }
+
+    public Timestamp getTimestamp(int columnIndex, Calendar cal) throws SQLException {
+        Timestamp value = getTimestamp(columnIndex);
+        if (value == null) {
+            return null;
+        }
+        Timestamp result = new Timestamp(inCalendar(value, cal));
+        result.setNanos(value.getNanos());
+        return result;
+    }
+
+    /**
+     * Returns the time at which the fields of value, read in the default
+     * time zone, occur in the time zone of cal.
+     */
+    private static long inCalendar(java.util.Date value, Calendar cal) {
+        Calendar local = Calendar.getInstance();
+        local.setTime(value);
+        Calendar target = (Calendar) cal.clone();
+        target.clear();
+        target.set(local.get(Calendar.YEAR), local.get(Calendar.MONTH), local.get(Calendar.DAY_OF_MONTH),
+                local.get(Calendar.HOUR_OF_DAY), local.get(Calendar.MINUTE), local.get(Calendar.SECOND));
+        target.set(Calendar.MILLISECOND, local.get(Calendar.MILLISECOND));
+        return target.getTimeInMillis();
+    }
+
+    public InputStream getAsciiStream(int columnIndex) throws SQLException {
+        String value = getString(columnIndex);
+        return value == null ? null : new ByteArrayInputStream(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @deprecated use getCharacterStream(int)
+     */
+    @Deprecated
+    public InputStream getUnicodeStream(int columnIndex) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getUnicodeStream is not supported");
+    }
+
+    public InputStream getBinaryStream(int columnIndex) throws SQLException {
+        byte[] value = getBytes(columnIndex);
+        return value == null ? null : new ByteArrayInputStream(value);
+    }
+
+    public Reader getCharacterStream(int columnIndex) throws SQLException {
+        String value = getString(columnIndex);
+        return value == null ? null : new StringReader(value);
+    }
+
+    public Reader getNCharacterStream(int columnIndex) throws SQLException {
+        return getCharacterStream(columnIndex);
+    }
+
+    public String getNString(int columnIndex) throws SQLException {
+        return getString(columnIndex);
+    }
+
+    public Clob getClob(int columnIndex) throws SQLException {
+        Object value = getObject(columnIndex);
+        if (value == null || value instanceof Clob) {
+            return (Clob) value;
+        }
+        return new SerialClob(value.toString().toCharArray());
+    }
+
+    public Blob getBlob(int columnIndex) throws SQLException {
+        Object value = getObject(columnIndex);
+        if (value == null || value instanceof Blob) {
+            return (Blob) value;
+        }
+        return new SerialBlob(getBytes(columnIndex));
+    }
+
+    public NClob getNClob(int columnIndex) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getNClob is not supported");
+    }
+
+    public Ref getRef(int columnIndex) throws SQLException {
+        Object value = getObject(columnIndex);
+        if (value == null || value instanceof Ref) {
+            return (Ref) value;
+        }
+        throw conversionError(value, "Ref");
+    }
+
+    public Array getArray(int columnIndex) throws SQLException {
+        Object value = getObject(columnIndex);
+        if (value == null || value instanceof Array) {
+            return (Array) value;
+        }
+        throw conversionError(value, "Array");
+    }
+
+    public URL getURL(int columnIndex) throws SQLException {
+        Object value = getObject(columnIndex);
+        if (value == null || value instanceof URL) {
+            return (URL) value;
+        }
+        try {
+            return new URL(value.toString());
+        } catch (MalformedURLException e) {
+            throw new SQLException("Not a URL: " + value, e);
+        }
+    }
+
+    public RowId getRowId(int columnIndex) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getRowId is not supported");
+    }
+
+    public SQLXML getSQLXML(int columnIndex) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getSQLXML is not supported");
+    }
+
+    public Object getObject(int columnIndex, Map<String, Class<?>> map) throws SQLException {
+        return getObject(columnIndex);
+    }
+
+    public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
+        Object value;
+        if (type == String.class) {
+            value = getString(columnIndex);
+        } else if (type == Integer.class) {
+            value = getInt(columnIndex);
+        } else if (type == Long.class) {
+            value = getLong(columnIndex);
+        } else if (type == Short.class) {
+            value = getShort(columnIndex);
+        } else if (type == Byte.class) {
+            value = getByte(columnIndex);
+        } else if (type == Double.class) {
+            value = getDouble(columnIndex);
+        } else if (type == Float.class) {
+            value = getFloat(columnIndex);
+        } else if (type == Boolean.class) {
+            value = getBoolean(columnIndex);
+        } else if (type == BigDecimal.class) {
+            value = getBigDecimal(columnIndex);
+        } else if (type == byte[].class) {
+            value = getBytes(columnIndex);
+        } else if (type == Date.class) {
+            value = getDate(columnIndex);
+        } else if (type == Time.class) {
+            value = getTime(columnIndex);
+        } else if (type == Timestamp.class) {
+            value = getTimestamp(columnIndex);
+        } else if (type == LocalDate.class) {
+            Date date = getDate(columnIndex);
+            value = date == null ? null : date.toLocalDate();
+        } else if (type == LocalTime.class) {
+            Time time = getTime(columnIndex);
+            value = time == null ? null : time.toLocalTime();
+        } else if (type == LocalDateTime.class) {
+            Timestamp timestamp = getTimestamp(columnIndex);
+            value = timestamp == null ? null : timestamp.toLocalDateTime();
+        } else {
+            value = getObject(columnIndex);
+            if (value != null && !type.isInstance(value)) {
+                throw conversionError(value, type.getName());
+            }
+        }
+        return wasNull ? null : type.cast(value);
+    }
+
+    private static SQLException conversionError(Object value, String type) {
+        return new SQLException("Cannot convert " + value.getClass().getName() + " to " + type);
+    }
+
+    // Getters by column label
+
+    public int findColumn(String columnLabel) throws SQLException {
+        if (metadata != null) {
+            int columns = metadata.getColumnCount();
+            for (int i = 1; i <= columns; i++) {
+                if (columnLabel.equalsIgnoreCase(metadata.getColumnLabel(i))) {
+                    return i;
+                }
+            }
+            for (int i = 1; i <= columns; i++) {
+                if (columnLabel.equalsIgnoreCase(metadata.getColumnName(i))) {
+                    return i;
+                }
+            }
+        }
+        throw new SQLException("No column named " + columnLabel);
+    }
+
+    public Object getObject(String columnLabel) throws SQLException {
+        return getObject(findColumn(columnLabel));
+    }
+
+    public String getString(String columnLabel) throws SQLException {
+        return getString(findColumn(columnLabel));
+    }
+
+    public boolean getBoolean(String columnLabel) throws SQLException {
+        return getBoolean(findColumn(columnLabel));
+    }
+
+    public byte getByte(String columnLabel) throws SQLException {
+        return getByte(findColumn(columnLabel));
+    }
+
+    public short getShort(String columnLabel) throws SQLException {
+        return getShort(findColumn(columnLabel));
+    }
+
+    public int getInt(String columnLabel) throws SQLException {
+        return getInt(findColumn(columnLabel));
+    }
+
+    public long getLong(String columnLabel) throws SQLException {
+        return getLong(findColumn(columnLabel));
+    }
+
+    public float getFloat(String columnLabel) throws SQLException {
+        return getFloat(findColumn(columnLabel));
+    }
+
+    public double getDouble(String columnLabel) throws SQLException {
+        return getDouble(findColumn(columnLabel));
+    }
+
+    public BigDecimal getBigDecimal(String columnLabel) throws SQLException {
+        return getBigDecimal(findColumn(columnLabel));
+    }
+
+    /**
+     * @deprecated use getBigDecimal(String)
+     */
+    @Deprecated
+    public BigDecimal getBigDecimal(String columnLabel, int scale) throws SQLException {
+        return getBigDecimal(findColumn(columnLabel), scale);
+    }
+
+    public byte[] getBytes(String columnLabel) throws SQLException {
+        return getBytes(findColumn(columnLabel));
+    }
+
+    public Date getDate(String columnLabel) throws SQLException {
+        return getDate(findColumn(columnLabel));
+    }
+
+    public Time getTime(String columnLabel) throws SQLException {
+        return getTime(findColumn(columnLabel));
+    }
+
+    public Timestamp getTimestamp(String columnLabel) throws SQLException {
+        return getTimestamp(findColumn(columnLabel));
+    }
+
+    public Date getDate(String columnLabel, Calendar cal) throws SQLException {
+        return getDate(findColumn(columnLabel), cal);
+    }
+
+    public Time getTime(String columnLabel, Calendar cal) throws SQLException {
+        return getTime(findColumn(columnLabel), cal);
+    }
+
+    public Timestamp getTimestamp(String columnLabel, Calendar cal) throws SQLException {
+        return getTimestamp(findColumn(columnLabel), cal);
+    }
+
+    public InputStream getAsciiStream(String columnLabel) throws SQLException {
+        return getAsciiStream(findColumn(columnLabel));
+    }
+
+    /**
+     * @deprecated use getCharacterStream(String)
+     */
+    @Deprecated
+    public InputStream getUnicodeStream(String columnLabel) throws SQLException {
+        return getUnicodeStream(findColumn(columnLabel));
+    }
+
+    public InputStream getBinaryStream(String columnLabel) throws SQLException {
+        return getBinaryStream(findColumn(columnLabel));
+    }
+
+    public Reader getCharacterStream(String columnLabel) throws SQLException {
+        return getCharacterStream(findColumn(columnLabel));
+    }
+
+    public Reader getNCharacterStream(String columnLabel) throws SQLException {
+        return getNCharacterStream(findColumn(columnLabel));
+    }
+
+    public String getNString(String columnLabel) throws SQLException {
+        return getNString(findColumn(columnLabel));
+    }
+
+    public Clob getClob(String columnLabel) throws SQLException {
+        return getClob(findColumn(columnLabel));
+    }
+
+    public Blob getBlob(String columnLabel) throws SQLException {
+        return getBlob(findColumn(columnLabel));
+    }
+
+    public NClob getNClob(String columnLabel) throws SQLException {
+        return getNClob(findColumn(columnLabel));
+    }
+
+    public Ref getRef(String columnLabel) throws SQLException {
+        return getRef(findColumn(columnLabel));
+    }
+
+    public Array getArray(String columnLabel) throws SQLException {
+        return getArray(findColumn(columnLabel));
+    }
+
+    public URL getURL(String columnLabel) throws SQLException {
+        return getURL(findColumn(columnLabel));
+    }
+
+    public RowId getRowId(String columnLabel) throws SQLException {
+        return getRowId(findColumn(columnLabel));
+    }
+
+    public SQLXML getSQLXML(String columnLabel) throws SQLException {
+        return getSQLXML(findColumn(columnLabel));
+    }
+
+    public Object getObject(String columnLabel, Map<String, Class<?>> map) throws SQLException {
+        return getObject(findColumn(columnLabel), map);
+    }
+
+    public <T> T getObject(String columnLabel, Class<T> type) throws SQLException {
+        return getObject(findColumn(columnLabel), type);
+    }
+
+    // Populating
+
+    public void populate(ResultSet data) throws SQLException {
+        populate(data, 1);
+    }
+
+    public void populate(ResultSet data, int startRow) throws SQLException {
+        checkOpen();
+        if (startRow < 1) {
+            throw new SQLException("startRow must be at least 1");
+        }
+        freeRows();
+        storeRows(data, startRow);
+        cursor = 0;
+        notifyRowSetChanged();
+    }
+
+    /**
+     * Runs the command with the parameters set on this row set and stores
+     * the rows of the result.
+     */
+    public void execute(Connection conn) throws SQLException {
+        String command = getCommand();
+        if (command == null) {
+            throw new SQLException("Set a command before calling execute");
+        }
+        try (PreparedStatement ps = conn.prepareStatement(command)) {
+            setParameters(ps, getParams());
+            ps.setMaxRows(getMaxRows());
+            ps.setQueryTimeout(getQueryTimeout());
+            ps.setEscapeProcessing(getEscapeProcessing());
+            if (getFetchSize() > 0) {
+                ps.setFetchSize(getFetchSize());
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                populate(rs);
+            }
+        }
+    }
+
+    public void execute() throws SQLException {
+        try (Connection conn = connect()) {
+            execute(conn);
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        if (getDataSourceName() != null) {
+            DataSource dataSource;
+            try {
+                dataSource = (DataSource) new InitialContext().lookup(getDataSourceName());
+            } catch (NamingException e) {
+                throw new SQLException("Cannot find data source " + getDataSourceName(), e);
+            }
+            return getUsername() == null ? dataSource.getConnection()
+                    : dataSource.getConnection(getUsername(), getPassword());
+        } else if (getUrl() != null) {
+            return DriverManager.getConnection(getUrl(), getUsername(), getPassword());
+        }
+        throw new SQLException("Set a URL or a data source name before calling execute");
+    }
+
+    /**
+     * Sets the parameters as stored by BaseRowSet, where a parameter set
+     * with a type, calendar or stream length is stored as an array.
+     */
+    private static void setParameters(PreparedStatement ps, Object[] params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            int index = i + 1;
+            Object param = params[i];
+            if (!(param instanceof Object[])) {
+                ps.setObject(index, param);
+                continue;
+            }
+            Object[] array = (Object[]) param;
+            Object value = array[0];
+            if (value == null) {
+                ps.setNull(index, (Integer) array[1]);
+            } else if (array.length == 2 && array[1] instanceof Calendar) {
+                Calendar cal = (Calendar) array[1];
+                if (value instanceof Date) {
+                    ps.setDate(index, (Date) value, cal);
+                } else if (value instanceof Time) {
+                    ps.setTime(index, (Time) value, cal);
+                } else {
+                    ps.setTimestamp(index, (Timestamp) value, cal);
+                }
+            } else if (value instanceof InputStream) {
+                int length = (Integer) array[1];
+                if ((Integer) array[2] == ASCII_STREAM_PARAM) {
+                    ps.setAsciiStream(index, (InputStream) value, length);
+                } else {
+                    ps.setBinaryStream(index, (InputStream) value, length);
+                }
+            } else if (value instanceof Reader) {
+                ps.setCharacterStream(index, (Reader) value, (Integer) array[1]);
+            } else if (array.length == 3) {
+                ps.setObject(index, value, (Integer) array[1], (Integer) array[2]);
+            } else {
+                ps.setObject(index, value, (Integer) array[1]);
+            }
+        }
+    }
+
+    protected static RowSetMetaDataImpl copyMetaData(ResultSetMetaData source) throws SQLException {
+        RowSetMetaDataImpl copy = new RowSetMetaDataImpl();
+        int columns = source.getColumnCount();
+        copy.setColumnCount(columns);
+        for (int i = 1; i <= columns; i++) {
+            copy.setAutoIncrement(i, source.isAutoIncrement(i));
+            copy.setCaseSensitive(i, source.isCaseSensitive(i));
+            copy.setCurrency(i, source.isCurrency(i));
+            copy.setNullable(i, source.isNullable(i));
+            copy.setSigned(i, source.isSigned(i));
+            copy.setSearchable(i, source.isSearchable(i));
+            copy.setColumnDisplaySize(i, Math.max(0, source.getColumnDisplaySize(i)));
+            copy.setColumnLabel(i, source.getColumnLabel(i));
+            copy.setColumnName(i, source.getColumnName(i));
+            copy.setSchemaName(i, source.getSchemaName(i) == null ? "" : source.getSchemaName(i));
+            copy.setPrecision(i, Math.max(0, source.getPrecision(i)));
+            copy.setScale(i, Math.max(0, source.getScale(i)));
+            copy.setTableName(i, source.getTableName(i) == null ? "" : source.getTableName(i));
+            copy.setCatalogName(i, source.getCatalogName(i) == null ? "" : source.getCatalogName(i));
+            copy.setColumnType(i, source.getColumnType(i));
+            copy.setColumnTypeName(i, source.getColumnTypeName(i));
+        }
+        return copy;
+    }
+
+    // CachedRowSet
+
+    public ResultSetMetaData getMetaData() throws SQLException {
+        return metadata;
+    }
+
+    public void setMetaData(RowSetMetaData md) throws SQLException {
+        if (size() > 0) {
+            throw new SQLException("The row set already holds rows");
+        }
+        metadata = md;
+    }
+
+    public void release() throws SQLException {
+        freeRows();
+        cursor = 0;
+        notifyRowSetChanged();
+    }
+
+    public void close() throws SQLException {
+        if (!closed) {
+            freeRows();
+            cursor = 0;
+            closed = true;
+        }
+    }
+
+    public boolean isClosed() throws SQLException {
+        return closed;
+    }
+
+    /**
+     * Returns a row set that reads the rows stored by this one, with its own
+     * cursor. It becomes empty when this row set is released or closed.
+     */
+    public CachedRowSet createShared() throws SQLException {
+        return new SharedRowSet(this, 0, size());
+    }
+
+    public CachedRowSet createCopy() throws SQLException {
+        ReadOnlyRowSet copy = newRowSet();
+        copy.populate(createShared());
+        copy.setTableName(tableName);
+        copy.keyColumns = keyColumns;
+        copy.matchColumnIndexes = matchColumnIndexes;
+        copy.matchColumnNames = matchColumnNames;
+        return copy;
+    }
+
+    /**
+     * Serializes a reference CachedRowSet with the rows and properties of
+     * this one in place of this one.
+     */
+    protected Object writeReplace() throws ObjectStreamException {
+        try {
+            CachedRowSet copy = RowSetProvider.newFactory(REFERENCE_FACTORY, null).createCachedRowSet();
+            copy.populate(createShared());
+            if (getCommand() != null) {
+                copy.setCommand(getCommand());
+            }
+            copy.setDataSourceName(getDataSourceName());
+            copy.setUrl(getUrl());
+            copy.setUsername(getUsername());
+            copy.setPassword(getPassword());
+            if (tableName != null) {
+                copy.setTableName(tableName);
+            }
+            if (keyColumns != null) {
+                copy.setKeyColumns(keyColumns);
+            }
+            copy.setConcurrency(CONCUR_READ_ONLY);
+            copy.setMaxRows(getMaxRows());
+            copy.setQueryTimeout(getQueryTimeout());
+            copy.setTransactionIsolation(getTransactionIsolation());
+            copy.setTypeMap(getTypeMap());
+            copy.beforeFirst();
+            return copy;
+        } catch (SQLException e) {
+            NotSerializableException failure = new NotSerializableException(getClass().getName());
+            failure.initCause(e);
+            throw failure;
+        }
+    }
+
+    public CachedRowSet createCopyNoConstraints() throws SQLException {
+        ReadOnlyRowSet copy = (ReadOnlyRowSet) createCopy();
+        copy.matchColumnIndexes = null;
+        copy.matchColumnNames = null;
+        return copy;
+    }
+
+    /**
+     * Returns an empty, updatable row set of the reference implementation
+     * with the same columns.
+     */
+    public CachedRowSet createCopySchema() throws SQLException {
+        CachedRowSet copy = RowSetProvider.newFactory(REFERENCE_FACTORY, null).createCachedRowSet();
+        if (metadata != null) {
+            copy.setMetaData(copyMetaData(metadata));
+        }
+        return copy;
+    }
+
+    public ResultSet getOriginal() throws SQLException {
+        return createShared();
+    }
+
+    public ResultSet getOriginalRow() throws SQLException {
+        if (!isOnRow()) {
+            throw new SQLException("The cursor is not on a row");
+        }
+        return new SharedRowSet(this, cursor - 1, 1);
+    }
+
+    public Collection<?> toCollection() throws SQLException {
+        List<Object[]> rows = new ArrayList<>(size());
+        int columns = metadata == null ? 0 : metadata.getColumnCount();
+        for (int row = 1; row <= size(); row++) {
+            Object[] values = new Object[columns];
+            for (int column = 1; column <= columns; column++) {
+                values[column - 1] = getValue(row, column);
+            }
+            rows.add(values);
+        }
+        return rows;
+    }
+
+    public Collection<?> toCollection(int column) throws SQLException {
+        if (metadata == null || column < 1 || column > metadata.getColumnCount()) {
+            throw new SQLException("Invalid column index: " + column);
+        }
+        List<Object> values = new ArrayList<>(size());
+        for (int row = 1; row <= size(); row++) {
+            values.add(getValue(row, column));
+        }
+        return values;
+    }
+
+    public Collection<?> toCollection(String column) throws SQLException {
+        return toCollection(findColumn(column));
+    }
+
+    public String getTableName() throws SQLException {
+        return tableName;
+    }
+
+    public void setTableName(String tabName) throws SQLException {
+        tableName = tabName;
+    }
+
+    public int[] getKeyColumns() throws SQLException {
+        return keyColumns == null ? new int[0] : keyColumns.clone();
+    }
+
+    public void setKeyColumns(int[] keys) throws SQLException {
+        keyColumns = keys == null ? null : keys.clone();
+    }
+
+    public void setPageSize(int size) throws SQLException {
+        if (size != 0) {
+            throw new SQLFeatureNotSupportedException("All rows are stored; paging is not supported");
+        }
+    }
+
+    public int getPageSize() {
+        return 0;
+    }
+
+    public boolean nextPage() throws SQLException {
+        return false;
+    }
+
+    public boolean previousPage() throws SQLException {
+        return false;
+    }
+
+    public void setConcurrency(int concurrency) throws SQLException {
+        if (concurrency != ResultSet.CONCUR_READ_ONLY) {
+            throw new SQLFeatureNotSupportedException("The row set is read-only");
+        }
+        super.setConcurrency(concurrency);
+    }
+
+    public int getHoldability() throws SQLException {
+        return ResultSet.HOLD_CURSORS_OVER_COMMIT;
+    }
+
+    public Statement getStatement() throws SQLException {
+        return null;
+    }
+
+    public String getCursorName() throws SQLException {
+        throw new SQLFeatureNotSupportedException("Row sets have no cursor name");
+    }
+
+    public SQLWarning getWarnings() throws SQLException {
+        return null;
+    }
+
+    public void clearWarnings() throws SQLException {
+    }
+
+    public RowSetWarning getRowSetWarnings() throws SQLException {
+        return null;
+    }
+
+    public SyncProvider getSyncProvider() throws SQLException {
+        return SyncFactory.getInstance(DEFAULT_PROVIDER);
+    }
+
+    public void setSyncProvider(String provider) throws SQLException {
+        throw readOnly();
+    }
+
+    public void rowSetPopulated(RowSetEvent event, int numRows) throws SQLException {
+        if (numRows <= 0 || numRows < getFetchSize()) {
+            throw new SQLException("numRows must be positive and at least the fetch size");
+        }
+        if (size() % numRows == 0) {
+            notifyRowSetChanged();
+        }
+    }
+
+    // Nothing is ever changed, so there is nothing to write or undo
+
+    public void acceptChanges() throws SyncProviderException {
+    }
+
+    public void acceptChanges(Connection con) throws SyncProviderException {
+    }
+
+    public void restoreOriginal() throws SQLException {
+    }
+
+    public void setOriginalRow() throws SQLException {
+    }
+
+    public void commit() throws SQLException {
+    }
+
+    public void rollback() throws SQLException {
+    }
+
+    public void rollback(Savepoint s) throws SQLException {
+    }
+
+    public boolean columnUpdated(int idx) throws SQLException {
+        return false;
+    }
+
+    public boolean columnUpdated(String columnName) throws SQLException {
+        return false;
+    }
+
+    public boolean rowUpdated() throws SQLException {
+        return false;
+    }
+
+    public boolean rowInserted() throws SQLException {
+        return false;
+    }
+
+    public boolean rowDeleted() throws SQLException {
+        return false;
+    }
+
+    public void moveToCurrentRow() throws SQLException {
+    }
+
+    public void refreshRow() throws SQLException {
+    }
+
+    public void cancelRowUpdates() throws SQLException {
+    }
+
+    public void undoDelete() throws SQLException {
+        throw readOnly();
+    }
+
+    public void undoInsert() throws SQLException {
+        throw readOnly();
+    }
+
+    public void undoUpdate() throws SQLException {
+        throw readOnly();
+    }
+
+    // Joinable
+
+    public void setMatchColumn(int columnIdx) throws SQLException {
+        setMatchColumn(new int[]{columnIdx});
+    }
+
+    public void setMatchColumn(int[] columnIdxes) throws SQLException {
+        for (int index : columnIdxes) {
+            if (index < 1) {
+                throw new SQLException("Match columns are counted from 1");
+            }
+        }
+        matchColumnIndexes = columnIdxes.clone();
+        matchColumnNames = null;
+    }
+
+    public void setMatchColumn(String columnName) throws SQLException {
+        setMatchColumn(new String[]{columnName});
+    }
+
+    public void setMatchColumn(String[] columnNames) throws SQLException {
+        matchColumnNames = columnNames.clone();
+        matchColumnIndexes = null;
+    }
+
+    public int[] getMatchColumnIndexes() throws SQLException {
+        if (matchColumnIndexes == null) {
+            throw new SQLException("No match column indexes are set");
+        }
+        return matchColumnIndexes.clone();
+    }
+
+    public String[] getMatchColumnNames() throws SQLException {
+        if (matchColumnNames == null) {
+            throw new SQLException("No match column names are set");
+        }
+        return matchColumnNames.clone();
+    }
+
+    public void unsetMatchColumn(int columnIdx) throws SQLException {
+        unsetMatchColumn(new int[]{columnIdx});
+    }
+
+    public void unsetMatchColumn(int[] columnIdxes) throws SQLException {
+        if (matchColumnIndexes == null || !java.util.Arrays.equals(matchColumnIndexes, columnIdxes)) {
+            throw new SQLException("Those columns are not the match columns");
+        }
+        matchColumnIndexes = null;
+    }
+
+    public void unsetMatchColumn(String columnName) throws SQLException {
+        unsetMatchColumn(new String[]{columnName});
+    }
+
+    public void unsetMatchColumn(String[] columnIdxes) throws SQLException {
+        if (matchColumnNames == null || !java.util.Arrays.equals(matchColumnNames, columnIdxes)) {
+            throw new SQLException("Those columns are not the match columns");
+        }
+        matchColumnNames = null;
+    }
+
+    // Wrapper
+
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * A view of some of the rows of another ReadOnlyRowSet.
+     */
+    private static final class SharedRowSet extends ReadOnlyRowSet {
+        private static final long serialVersionUID = 1L;
+
+        private final ReadOnlyRowSet target;
+        private final int offset;
+        private int count;
+
+        SharedRowSet(ReadOnlyRowSet target, int offset, int count) throws SQLException {
+            this.target = target;
+            this.offset = offset;
+            this.count = count;
+            this.metadata = target.metadata;
+            setTableName(target.getTableName());
+            setKeyColumns(target.getKeyColumns());
+        }
+
+        public int size() {
+            // Empty once the rows of the target are freed
+            return Math.min(count, Math.max(0, target.size() - offset));
+        }
+
+        protected Object getValue(int row, int column) throws SQLException {
+            return target.getValue(offset + row, column);
+        }
+
+        protected boolean isNull(int row, int column) throws SQLException {
+            return target.isNull(offset + row, column);
+        }
+
+        protected long getLongValue(int row, int column) throws SQLException {
+            return target.getLongValue(offset + row, column);
+        }
+
+        protected double getDoubleValue(int row, int column) throws SQLException {
+            return target.getDoubleValue(offset + row, column);
+        }
+
+        protected void storeRows(ResultSet data, int startRow) throws SQLException {
+            throw new SQLFeatureNotSupportedException("A shared row set cannot be populated");
+        }
+
+        protected void freeRows() {
+            count = 0;
+        }
+
+        protected ReadOnlyRowSet newRowSet() throws SQLException {
+            return target.newRowSet();
+        }
+    }
+
+    // Changes
+
+    protected static SQLFeatureNotSupportedException readOnly() {
+        return new SQLFeatureNotSupportedException("The row set is read-only");
+    }
+
+    public void moveToInsertRow() throws SQLException {
+        throw readOnly();
+    }
+
+    public void insertRow() throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateRow() throws SQLException {
+        throw readOnly();
+    }
+
+    public void deleteRow() throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateArray(String columnLabel, Array x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateArray(int columnIndex, Array x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateAsciiStream(String columnLabel, InputStream x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateAsciiStream(String columnLabel, InputStream x, int length) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateAsciiStream(String columnLabel, InputStream x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateAsciiStream(int columnIndex, InputStream x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateAsciiStream(int columnIndex, InputStream x, int length) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateAsciiStream(int columnIndex, InputStream x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateBigDecimal(String columnLabel, BigDecimal x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateBigDecimal(int columnIndex, BigDecimal x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateBinaryStream(String columnLabel, InputStream x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateBinaryStream(String columnLabel, InputStream x, int length) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateBinaryStream(String columnLabel, InputStream x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateBinaryStream(int columnIndex, InputStream x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateBinaryStream(int columnIndex, InputStream x, int length) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateBinaryStream(int columnIndex, InputStream x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateBlob(String columnLabel, Blob x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateBlob(String columnLabel, InputStream x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateBlob(String columnLabel, InputStream x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateBlob(int columnIndex, Blob x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateBlob(int columnIndex, InputStream x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateBlob(int columnIndex, InputStream x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateBoolean(String columnLabel, boolean x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateBoolean(int columnIndex, boolean x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateByte(String columnLabel, byte x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateByte(int columnIndex, byte x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateBytes(String columnLabel, byte[] x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateBytes(int columnIndex, byte[] x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateCharacterStream(String columnLabel, Reader x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateCharacterStream(String columnLabel, Reader x, int length) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateCharacterStream(String columnLabel, Reader x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateCharacterStream(int columnIndex, Reader x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateCharacterStream(int columnIndex, Reader x, int length) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateCharacterStream(int columnIndex, Reader x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateClob(String columnLabel, Clob x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateClob(String columnLabel, Reader x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateClob(String columnLabel, Reader x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateClob(int columnIndex, Clob x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateClob(int columnIndex, Reader x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateClob(int columnIndex, Reader x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateDate(String columnLabel, Date x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateDate(int columnIndex, Date x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateDouble(String columnLabel, double x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateDouble(int columnIndex, double x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateFloat(String columnLabel, float x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateFloat(int columnIndex, float x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateInt(String columnLabel, int x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateInt(int columnIndex, int x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateLong(String columnLabel, long x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateLong(int columnIndex, long x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateNCharacterStream(String columnLabel, Reader x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateNCharacterStream(String columnLabel, Reader x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateNCharacterStream(int columnIndex, Reader x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateNCharacterStream(int columnIndex, Reader x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateNClob(String columnLabel, NClob x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateNClob(String columnLabel, Reader x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateNClob(String columnLabel, Reader x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateNClob(int columnIndex, NClob x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateNClob(int columnIndex, Reader x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateNClob(int columnIndex, Reader x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateNString(String columnLabel, String x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateNString(int columnIndex, String x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateNull(String columnLabel) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateNull(int columnIndex) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateObject(String columnLabel, Object x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateObject(String columnLabel, Object x, int scaleOrLength) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateObject(int columnIndex, Object x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateObject(int columnIndex, Object x, int scaleOrLength) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateRef(String columnLabel, Ref x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateRef(int columnIndex, Ref x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateRowId(String columnLabel, RowId x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateRowId(int columnIndex, RowId x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateSQLXML(String columnLabel, SQLXML x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateSQLXML(int columnIndex, SQLXML x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateShort(String columnLabel, short x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateShort(int columnIndex, short x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateString(String columnLabel, String x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateString(int columnIndex, String x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateTime(String columnLabel, Time x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateTime(int columnIndex, Time x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateTimestamp(String columnLabel, Timestamp x) throws SQLException {
+        throw readOnly();
+    }
+
+    public void updateTimestamp(int columnIndex, Timestamp x) throws SQLException {
+        throw readOnly();
+    }
+}
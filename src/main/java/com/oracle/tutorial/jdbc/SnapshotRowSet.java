@@ -0,0 +1,436 @@
+package com.oracle.tutorial.jdbc;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+import javax.sql.rowset.RowSetMetaDataImpl;
+
+import static com.oracle.tutorial.jdbc.SnapshotWriter.BOOLEAN;
+import static com.oracle.tutorial.jdbc.SnapshotWriter.BYTES;
+import static com.oracle.tutorial.jdbc.SnapshotWriter.DATE;
+import static com.oracle.tutorial.jdbc.SnapshotWriter.DECIMAL;
+import static com.oracle.tutorial.jdbc.SnapshotWriter.DICTIONARY;
+import static com.oracle.tutorial.jdbc.SnapshotWriter.DOUBLE;
+import static com.oracle.tutorial.jdbc.SnapshotWriter.FIXED_DECIMAL;
+import static com.oracle.tutorial.jdbc.SnapshotWriter.FLOAT;
+import static com.oracle.tutorial.jdbc.SnapshotWriter.INT;
+import static com.oracle.tutorial.jdbc.SnapshotWriter.LONG;
+import static com.oracle.tutorial.jdbc.SnapshotWriter.STRING;
+import static com.oracle.tutorial.jdbc.SnapshotWriter.TIME;
+import static com.oracle.tutorial.jdbc.SnapshotWriter.TIMESTAMP;
+
+/**
+ * A read-only CachedRowSet over a snapshot written by SnapshotWriter. The
+ * file is memory-mapped, so opening it reads only the columns and the block
+ * index; a block is decoded, one column at a time, when the cursor first
+ * reads from it, and only the block the cursor is in stays decoded. See
+ * ReadOnlyRowSet for what read-only means here.
+ *
+ * populate and execute write the rows to a snapshot in a temporary file,
+ * which is deleted when the row set is released or closed. Snapshots of up
+ * to 2 GB can be opened.
+ */
+public class SnapshotRowSet extends ReadOnlyRowSet {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private ByteBuffer file;
+    private FileChannel temporary;
+    private byte[] kinds;
+    private int[] scales;
+    private long[] blockOffsets;
+    private int[] blockStarts; // Number of the first row of each block, from 0
+    private int rowCount;
+
+    // Decoded block
+    private int block = -1;
+    private int[] chunkOffsets;
+    private Chunk[] chunks;
+    private int index; // Of the row last passed to chunk() within its block
+
+    public SnapshotRowSet() {
+    }
+
+    /**
+     * Returns a row set over the snapshot in file.
+     */
+    public static SnapshotRowSet open(Path file) throws SQLException {
+        SnapshotRowSet rowSet = new SnapshotRowSet();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            rowSet.map(channel);
+        } catch (IOException e) {
+            throw new SQLException("Cannot open snapshot " + file, e);
+        }
+        return rowSet;
+    }
+
+    public int size() {
+        return rowCount;
+    }
+
+    protected ReadOnlyRowSet newRowSet() {
+        return new SnapshotRowSet();
+    }
+
+    protected void storeRows(ResultSet data, int startRow) throws SQLException {
+        for (int i = 1; i < startRow; i++) {
+            if (!data.next()) {
+                break;
+            }
+        }
+        try {
+            Path path = Files.createTempFile("rowset", ".snapshot");
+            temporary = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(temporary), 64 * 1024);
+            try (SnapshotWriter writer = new SnapshotWriter(out)) {
+                writer.writeStart(data.getMetaData());
+                int maxRows = getMaxRows();
+                while ((maxRows == 0 || writer.getRowCount() < maxRows) && data.next()) {
+                    writer.writeRow(data);
+                }
+                writer.writeEnd();
+            }
+            map(temporary);
+        } catch (IOException e) {
+            throw new SQLException("Cannot write the snapshot", e);
+        }
+    }
+
+    private void map(FileChannel channel) throws IOException, SQLException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new SQLException("Snapshots larger than 2 GB are not supported");
+        }
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (size < 17 || buffer.getInt(0) != SnapshotWriter.MAGIC || buffer.getInt((int) size - 4) != SnapshotWriter.MAGIC) {
+            throw new SQLException("Not a row set snapshot");
+        }
+        if (buffer.get(4) != SnapshotWriter.VERSION) {
+            throw new SQLException("Unsupported snapshot version " + buffer.get(4));
+        }
+        ByteBuffer in = buffer.duplicate();
+        in.position(5);
+        int count = getVarInt(in);
+        RowSetMetaDataImpl md = new RowSetMetaDataImpl();
+        md.setColumnCount(count);
+        kinds = new byte[count];
+        scales = new int[count];
+        for (int i = 0; i < count; i++) {
+            int column = i + 1;
+            md.setColumnName(column, getString(in));
+            md.setColumnLabel(column, getString(in));
+            md.setColumnType(column, getVarInt(in));
+            md.setColumnTypeName(column, getString(in));
+            md.setPrecision(column, getVarInt(in));
+            scales[i] = (int) getSignedVarLong(in);
+            md.setScale(column, Math.max(0, scales[i]));
+            md.setNullable(column, getVarInt(in));
+            md.setTableName(column, getString(in));
+            kinds[i] = in.get();
+        }
+        in.position((int) buffer.getLong((int) size - 12));
+        int blocks = getVarInt(in);
+        blockOffsets = new long[blocks];
+        blockStarts = new int[blocks + 1];
+        for (int i = 0; i < blocks; i++) {
+            blockOffsets[i] = in.getLong();
+            blockStarts[i + 1] = blockStarts[i] + getVarInt(in);
+        }
+        file = buffer;
+        metadata = md;
+        rowCount = blockStarts[blocks];
+        block = -1;
+        chunks = new Chunk[count];
+        chunkOffsets = new int[count];
+    }
+
+    protected void freeRows() throws SQLException {
+        file = null;
+        rowCount = 0;
+        block = -1;
+        if (temporary != null) {
+            try {
+                temporary.close();
+            } catch (IOException e) {
+                throw new SQLException("Cannot delete the snapshot", e);
+            } finally {
+                temporary = null;
+            }
+        }
+    }
+
+    // Reading
+
+    /**
+     * Returns the decoded values of column in the block holding row, and
+     * sets index to the position of row in the block.
+     */
+    private Chunk chunk(int row, int column) throws SQLException {
+        int r = row - 1;
+        if (block < 0 || r < blockStarts[block] || r >= blockStarts[block + 1]) {
+            enterBlock(r);
+        }
+        Chunk chunk = chunks[column - 1];
+        if (chunk == null) {
+            chunk = decode(column - 1);
+            chunks[column - 1] = chunk;
+        }
+        index = r - blockStarts[block];
+        return chunk;
+    }
+
+    private void enterBlock(int r) {
+        int found = Arrays.binarySearch(blockStarts, r);
+        block = found >= 0 ? found : -found - 2;
+        ByteBuffer in = file.duplicate();
+        in.position((int) blockOffsets[block]);
+        getVarInt(in); // Rows
+        for (int i = 0; i < kinds.length; i++) {
+            int length = getVarInt(in);
+            chunkOffsets[i] = in.position();
+            in.position(in.position() + length);
+        }
+        Arrays.fill(chunks, null);
+    }
+
+    private Chunk decode(int i) throws SQLException {
+        int rows = blockStarts[block + 1] - blockStarts[block];
+        ByteBuffer in = file.duplicate();
+        in.position(chunkOffsets[i]);
+        Chunk chunk = new Chunk();
+        boolean hasNulls = in.get() != 0;
+        chunk.nulls = new boolean[rows];
+        if (hasNulls) {
+            for (int r = 0; r < rows; r += 8) {
+                int bits = in.get() & 0xFF;
+                for (int b = 0; b < 8 && r + b < rows; b++) {
+                    chunk.nulls[r + b] = (bits & 1 << b) != 0;
+                }
+            }
+        }
+        switch (kinds[i]) {
+            case BOOLEAN:
+            case INT:
+            case LONG:
+            case FIXED_DECIMAL:
+            case DATE:
+            case TIME:
+                chunk.longs = new long[rows];
+                for (int r = 0; r < rows; r++) {
+                    if (!chunk.nulls[r]) {
+                        chunk.longs[r] = kinds[i] == BOOLEAN ? in.get() : getSignedVarLong(in);
+                    }
+                }
+                break;
+            case TIMESTAMP:
+                chunk.longs = new long[rows];
+                chunk.nanos = new int[rows];
+                for (int r = 0; r < rows; r++) {
+                    if (!chunk.nulls[r]) {
+                        chunk.longs[r] = getSignedVarLong(in);
+                        chunk.nanos[r] = getVarInt(in);
+                    }
+                }
+                break;
+            case FLOAT:
+            case DOUBLE:
+                chunk.doubles = new double[rows];
+                for (int r = 0; r < rows; r++) {
+                    if (!chunk.nulls[r]) {
+                        chunk.doubles[r] = kinds[i] == FLOAT ? Float.intBitsToFloat(in.getInt()) : in.getDouble();
+                    }
+                }
+                break;
+            case DECIMAL:
+                chunk.objects = new Object[rows];
+                for (int r = 0; r < rows; r++) {
+                    if (!chunk.nulls[r]) {
+                        int scale = (int) getSignedVarLong(in);
+                        chunk.objects[r] = new BigDecimal(new BigInteger(getBytes(in)), scale);
+                    }
+                }
+                break;
+            case BYTES:
+                chunk.objects = new Object[rows];
+                for (int r = 0; r < rows; r++) {
+                    if (!chunk.nulls[r]) {
+                        chunk.objects[r] = getBytes(in);
+                    }
+                }
+                break;
+            case STRING: {
+                chunk.objects = new Object[rows];
+                String[] dictionary = null;
+                if (in.get() == DICTIONARY) {
+                    dictionary = new String[getVarInt(in)];
+                    for (int d = 0; d < dictionary.length; d++) {
+                        dictionary[d] = getString(in);
+                    }
+                }
+                for (int r = 0; r < rows; r++) {
+                    if (!chunk.nulls[r]) {
+                        chunk.objects[r] = dictionary != null ? dictionary[getVarInt(in)] : getString(in);
+                    }
+                }
+                break;
+            }
+            default:
+                throw new SQLException("Unknown encoding " + kinds[i] + " of column " + (i + 1));
+        }
+        return chunk;
+    }
+
+    protected boolean isNull(int row, int column) throws SQLException {
+        return chunk(row, column).nulls[index];
+    }
+
+    protected Object getValue(int row, int column) throws SQLException {
+        Chunk chunk = chunk(row, column);
+        int r = index;
+        if (chunk.nulls[r]) {
+            return null;
+        }
+        int i = column - 1;
+        switch (kinds[i]) {
+            case BOOLEAN:
+                return chunk.longs[r] != 0;
+            case INT:
+                return (int) chunk.longs[r];
+            case LONG:
+                return chunk.longs[r];
+            case FIXED_DECIMAL:
+                return BigDecimal.valueOf(chunk.longs[r], scales[i]);
+            case DATE:
+                return new Date(chunk.longs[r]);
+            case TIME:
+                return new Time(chunk.longs[r]);
+            case TIMESTAMP: {
+                Timestamp value = new Timestamp(chunk.longs[r]);
+                value.setNanos(chunk.nanos[r]);
+                return value;
+            }
+            case FLOAT:
+                return (float) chunk.doubles[r];
+            case DOUBLE:
+                return chunk.doubles[r];
+            case BYTES:
+                return ((byte[]) chunk.objects[r]).clone();
+            default:
+                return chunk.objects[r];
+        }
+    }
+
+    protected long getLongValue(int row, int column) throws SQLException {
+        Chunk chunk = chunk(row, column);
+        int i = column - 1;
+        switch (kinds[i]) {
+            case INT:
+            case LONG:
+                return chunk.longs[index];
+            case FIXED_DECIMAL:
+                // Truncates toward zero, as BigDecimal.longValue does
+                return chunk.longs[index] / POWERS_OF_TEN[scales[i]];
+            default:
+                return super.getLongValue(row, column);
+        }
+    }
+
+    protected double getDoubleValue(int row, int column) throws SQLException {
+        Chunk chunk = chunk(row, column);
+        int i = column - 1;
+        switch (kinds[i]) {
+            case INT:
+            case LONG:
+                return chunk.longs[index];
+            case FLOAT:
+            case DOUBLE:
+                return chunk.doubles[index];
+            case FIXED_DECIMAL: {
+                long unscaled = chunk.longs[index];
+                // Both operands are exact doubles here, so the quotient is
+                // rounded once, as BigDecimal.doubleValue rounds
+                if (scales[i] <= 15 && Math.abs(unscaled) < 1L << 53) {
+                    return unscaled / (double) POWERS_OF_TEN[scales[i]];
+                }
+                return BigDecimal.valueOf(unscaled, scales[i]).doubleValue();
+            }
+            default:
+                return super.getDoubleValue(row, column);
+        }
+    }
+
+    /**
+     * The decoded values of one column in one block.
+     */
+    private static class Chunk {
+        boolean[] nulls;
+        long[] longs;
+        int[] nanos;
+        double[] doubles;
+        Object[] objects;
+    }
+
+    // Encoding, as SnapshotWriter.Buffer writes it
+
+    private static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static int getVarInt(ByteBuffer in) {
+        return (int) getVarLong(in);
+    }
+
+    private static long getSignedVarLong(ByteBuffer in) {
+        long v = getVarLong(in);
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static byte[] getBytes(ByteBuffer in) {
+        byte[] bytes = new byte[getVarInt(in)];
+        in.get(bytes);
+        return bytes;
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = getVarInt(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
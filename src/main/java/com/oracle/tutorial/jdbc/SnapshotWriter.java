@@ -0,0 +1,498 @@
+package com.oracle.tutorial.jdbc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes a result as a binary row set snapshot, which SnapshotRowSet reads.
+ * A snapshot is a fraction of the size of the same rows as WebRowSet XML
+ * and needs no parsing to read.
+ *
+ * The file starts with the columns (name, label, SQL type, precision, scale
+ * and how each is encoded) and stores the rows in blocks of up to blockSize
+ * rows. Within a block the values of each column are stored together, after
+ * a bitmap of the nulls if there are any:
+ *
+ *   - integers, dates and times as zigzag varints, so small values and
+ *     values near zero take one or two bytes;
+ *   - DECIMAL and NUMERIC with up to 18 digits, such as PRICE, as the
+ *     varint of the unscaled value, the scale being that of the column;
+ *   - strings as UTF-8, through a dictionary of the distinct values when
+ *     they repeat, as COF_NAME does not but SUP_ID-like codes do;
+ *   - REAL and DOUBLE as their IEEE bits.
+ *
+ * An index of the blocks at the end of the file lets the reader find any
+ * row. Only the current block is buffered, so the rows are written straight
+ * from a forward-only ResultSet. Large objects are stored whole, as strings
+ * or bytes; types with no such form are stored as their getString text.
+ */
+public class SnapshotWriter implements AutoCloseable {
+
+    public static final int DEFAULT_BLOCK_SIZE = 4096;
+
+    static final int MAGIC = 0x52534e50; // "RSNP"
+    static final byte VERSION = 1;
+
+    // Column encodings
+    static final byte BOOLEAN = 0;
+    static final byte INT = 1;
+    static final byte LONG = 2;
+    static final byte FLOAT = 3;
+    static final byte DOUBLE = 4;
+    static final byte FIXED_DECIMAL = 5;
+    static final byte DECIMAL = 6;
+    static final byte DATE = 7;
+    static final byte TIME = 8;
+    static final byte TIMESTAMP = 9;
+    static final byte STRING = 10;
+    static final byte BYTES = 11;
+
+    // String chunk encodings
+    static final byte PLAIN = 0;
+    static final byte DICTIONARY = 1;
+
+    private final OutputStream out;
+    private final int blockSize;
+    private long written;
+
+    private byte[] kinds;
+    private int[] scales;
+    private Column[] columns;
+    private int blockRows;
+    private long rows;
+    private final Buffer blockIndex = new Buffer();
+    private int blocks;
+    private boolean ended;
+
+    public SnapshotWriter(OutputStream out) {
+        this(out, DEFAULT_BLOCK_SIZE);
+    }
+
+    public SnapshotWriter(OutputStream out, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize must be positive");
+        }
+        this.out = out;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Writes the rows of rs, from its current position to the end, and
+     * returns how many there were.
+     */
+    public static long write(ResultSet rs, OutputStream out) throws SQLException {
+        try (SnapshotWriter writer = new SnapshotWriter(out)) {
+            writer.writeStart(rs.getMetaData());
+            while (rs.next()) {
+                writer.writeRow(rs);
+            }
+            writer.writeEnd();
+            return writer.getRowCount();
+        }
+    }
+
+    public void writeStart(ResultSetMetaData md) throws SQLException {
+        if (columns != null) {
+            throw new IllegalStateException("writeStart has already been called");
+        }
+        int count = md.getColumnCount();
+        kinds = new byte[count];
+        scales = new int[count];
+        columns = new Column[count];
+        Buffer header = new Buffer();
+        header.putInt(MAGIC);
+        header.put(VERSION);
+        header.putVarInt(count);
+        for (int i = 0; i < count; i++) {
+            int column = i + 1;
+            int precision = Math.max(0, md.getPrecision(column));
+            int scale = md.getScale(column);
+            kinds[i] = kindOf(md.getColumnType(column), precision, scale);
+            scales[i] = scale;
+            columns[i] = new Column(kinds[i], blockSize);
+            header.putString(md.getColumnName(column));
+            header.putString(md.getColumnLabel(column));
+            header.putVarInt(md.getColumnType(column));
+            header.putString(md.getColumnTypeName(column));
+            header.putVarInt(precision);
+            header.putSignedVarLong(scale);
+            header.putVarInt(md.isNullable(column));
+            header.putString(md.getTableName(column));
+            header.put(kinds[i]);
+        }
+        write(header);
+    }
+
+    static byte kindOf(int type, int precision, int scale) {
+        switch (type) {
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return BOOLEAN;
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                return INT;
+            case Types.BIGINT:
+                return LONG;
+            case Types.REAL:
+                return FLOAT;
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return DOUBLE;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return precision > 0 && precision <= 18 && scale >= 0 && scale <= precision ? FIXED_DECIMAL : DECIMAL;
+            case Types.DATE:
+                return DATE;
+            case Types.TIME:
+                return TIME;
+            case Types.TIMESTAMP:
+                return TIMESTAMP;
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+            case Types.BLOB:
+                return BYTES;
+            default:
+                return STRING;
+        }
+    }
+
+    /**
+     * Adds the current row of rs.
+     */
+    public void writeRow(ResultSet rs) throws SQLException {
+        if (columns == null || ended) {
+            throw new IllegalStateException(columns == null ? "writeStart has not been called" : "writeEnd has been called");
+        }
+        for (int i = 0; i < columns.length; i++) {
+            int column = i + 1;
+            Column values = columns[i];
+            switch (kinds[i]) {
+                case BOOLEAN: {
+                    boolean value = rs.getBoolean(column);
+                    if (!values.nullIf(rs.wasNull(), blockRows)) {
+                        values.data.put((byte) (value ? 1 : 0));
+                    }
+                    break;
+                }
+                case INT:
+                case LONG: {
+                    long value = rs.getLong(column);
+                    if (!values.nullIf(rs.wasNull(), blockRows)) {
+                        values.data.putSignedVarLong(value);
+                    }
+                    break;
+                }
+                case FLOAT: {
+                    float value = rs.getFloat(column);
+                    if (!values.nullIf(rs.wasNull(), blockRows)) {
+                        values.data.putInt(Float.floatToIntBits(value));
+                    }
+                    break;
+                }
+                case DOUBLE: {
+                    double value = rs.getDouble(column);
+                    if (!values.nullIf(rs.wasNull(), blockRows)) {
+                        values.data.putLong(Double.doubleToLongBits(value));
+                    }
+                    break;
+                }
+                case FIXED_DECIMAL: {
+                    BigDecimal value = rs.getBigDecimal(column);
+                    if (!values.nullIf(value == null, blockRows)) {
+                        try {
+                            values.data.putSignedVarLong(value.setScale(scales[i], RoundingMode.UNNECESSARY)
+                                    .unscaledValue().longValueExact());
+                        } catch (ArithmeticException e) {
+                            throw new SQLException("Value " + value + " does not fit column " + column, e);
+                        }
+                    }
+                    break;
+                }
+                case DECIMAL: {
+                    BigDecimal value = rs.getBigDecimal(column);
+                    if (!values.nullIf(value == null, blockRows)) {
+                        values.data.putSignedVarLong(value.scale());
+                        values.data.putBytes(value.unscaledValue().toByteArray());
+                    }
+                    break;
+                }
+                case DATE: {
+                    Date value = rs.getDate(column);
+                    if (!values.nullIf(value == null, blockRows)) {
+                        values.data.putSignedVarLong(value.getTime());
+                    }
+                    break;
+                }
+                case TIME: {
+                    Time value = rs.getTime(column);
+                    if (!values.nullIf(value == null, blockRows)) {
+                        values.data.putSignedVarLong(value.getTime());
+                    }
+                    break;
+                }
+                case TIMESTAMP: {
+                    Timestamp value = rs.getTimestamp(column);
+                    if (!values.nullIf(value == null, blockRows)) {
+                        values.data.putSignedVarLong(value.getTime());
+                        values.data.putVarInt(value.getNanos());
+                    }
+                    break;
+                }
+                case BYTES: {
+                    byte[] value = rs.getBytes(column);
+                    if (!values.nullIf(value == null, blockRows)) {
+                        values.data.putBytes(value);
+                    }
+                    break;
+                }
+                default: {
+                    String value = rs.getString(column);
+                    if (!values.nullIf(value == null, blockRows)) {
+                        values.addString(value);
+                    }
+                    break;
+                }
+            }
+        }
+        rows++;
+        if (++blockRows == blockSize) {
+            writeBlock();
+        }
+    }
+
+    /**
+     * Writes the last block and the index, and flushes the stream.
+     */
+    public void writeEnd() throws SQLException {
+        if (columns == null || ended) {
+            throw new IllegalStateException(columns == null ? "writeStart has not been called" : "writeEnd has been called");
+        }
+        if (blockRows > 0) {
+            writeBlock();
+        }
+        long indexOffset = written;
+        Buffer footer = new Buffer();
+        footer.putVarInt(blocks);
+        footer.put(blockIndex.bytes, 0, blockIndex.size);
+        footer.putLong(indexOffset);
+        footer.putInt(MAGIC);
+        write(footer);
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new SQLException("Cannot write the snapshot", e);
+        }
+        ended = true;
+    }
+
+    public long getRowCount() {
+        return rows;
+    }
+
+    /**
+     * Does nothing; the stream is not closed.
+     */
+    public void close() {
+    }
+
+    private void writeBlock() throws SQLException {
+        blockIndex.putLong(written);
+        blockIndex.putVarInt(blockRows);
+        Buffer block = new Buffer();
+        block.putVarInt(blockRows);
+        Buffer chunk = new Buffer();
+        for (Column column : columns) {
+            chunk.size = 0;
+            column.writeChunk(chunk, blockRows);
+            block.putVarInt(chunk.size);
+            block.put(chunk.bytes, 0, chunk.size);
+            column.clear();
+        }
+        write(block);
+        blocks++;
+        blockRows = 0;
+    }
+
+    private void write(Buffer buffer) throws SQLException {
+        try {
+            out.write(buffer.bytes, 0, buffer.size);
+        } catch (IOException e) {
+            throw new SQLException("Cannot write the snapshot", e);
+        }
+        written += buffer.size;
+    }
+
+    /**
+     * The values of one column in the current block.
+     */
+    private static class Column {
+        final byte kind;
+        final Buffer data = new Buffer();
+        final long[] nulls; // One bit per row of a block
+        boolean hasNulls;
+        String[] strings;
+        int stringCount;
+
+        Column(byte kind, int blockSize) {
+            this.kind = kind;
+            this.nulls = new long[(blockSize + 63) / 64];
+            if (kind == STRING) {
+                strings = new String[64];
+            }
+        }
+
+        /**
+         * Records whether the value of row is null and returns isNull.
+         */
+        boolean nullIf(boolean isNull, int row) {
+            if (isNull) {
+                nulls[row / 64] |= 1L << (row % 64);
+                hasNulls = true;
+            }
+            return isNull;
+        }
+
+        void addString(String value) {
+            if (stringCount == strings.length) {
+                strings = Arrays.copyOf(strings, stringCount * 2);
+            }
+            strings[stringCount++] = value;
+        }
+
+        void writeChunk(Buffer chunk, int rows) {
+            chunk.put((byte) (hasNulls ? 1 : 0));
+            if (hasNulls) {
+                for (int i = 0; i < rows; i += 8) {
+                    chunk.put((byte) (nulls[i / 64] >>> (i % 64)));
+                }
+            }
+            if (kind != STRING) {
+                chunk.put(data.bytes, 0, data.size);
+                return;
+            }
+            // A dictionary pays off when values repeat
+            Map<String, Integer> ids = new HashMap<>();
+            for (int i = 0; i < stringCount && ids.size() <= stringCount / 2; i++) {
+                ids.putIfAbsent(strings[i], ids.size());
+            }
+            if (ids.size() <= stringCount / 2) {
+                chunk.put(DICTIONARY);
+                String[] dictionary = new String[ids.size()];
+                for (Map.Entry<String, Integer> entry : ids.entrySet()) {
+                    dictionary[entry.getValue()] = entry.getKey();
+                }
+                chunk.putVarInt(dictionary.length);
+                for (String value : dictionary) {
+                    chunk.putString(value);
+                }
+                for (int i = 0; i < stringCount; i++) {
+                    chunk.putVarInt(ids.get(strings[i]));
+                }
+            } else {
+                chunk.put(PLAIN);
+                for (int i = 0; i < stringCount; i++) {
+                    chunk.putString(strings[i]);
+                }
+            }
+        }
+
+        void clear() {
+            data.size = 0;
+            if (hasNulls) {
+                Arrays.fill(nulls, 0);
+                hasNulls = false;
+            }
+            if (strings != null) {
+                Arrays.fill(strings, 0, stringCount, null);
+                stringCount = 0;
+            }
+        }
+    }
+
+    /**
+     * A growable big-endian byte buffer.
+     */
+    private static class Buffer {
+        byte[] bytes = new byte[256];
+        int size;
+
+        void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+
+        void put(byte b) {
+            ensure(1);
+            bytes[size++] = b;
+        }
+
+        void put(byte[] b, int offset, int length) {
+            ensure(length);
+            System.arraycopy(b, offset, bytes, size, length);
+            size += length;
+        }
+
+        void putInt(int v) {
+            ensure(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                bytes[size++] = (byte) (v >>> shift);
+            }
+        }
+
+        void putLong(long v) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[size++] = (byte) (v >>> shift);
+            }
+        }
+
+        void putVarInt(int v) {
+            putVarLong(v & 0xFFFFFFFFL);
+        }
+
+        void putVarLong(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            bytes[size++] = (byte) v;
+        }
+
+        void putSignedVarLong(long v) {
+            putVarLong((v << 1) ^ (v >> 63));
+        }
+
+        void putBytes(byte[] b) {
+            putVarInt(b.length);
+            put(b, 0, b.length);
+        }
+
+        void putString(String s) {
+            if (s == null) {
+                putVarInt(0);
+                return;
+            }
+            // Stored length + 1, so that 0 is null
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            putVarInt(utf8.length + 1);
+            put(utf8, 0, utf8.length);
+        }
+    }
+}
@@ -32,80 +32,66 @@
 package com.oracle.tutorial.jdbc;
 
 import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
 
 import javax.sql.RowSet;
-import javax.sql.rowset.CachedRowSet;
-import javax.sql.rowset.Predicate;
 
-public class StateFilter implements Predicate {
+/**
+ * Matches rows whose int column lies between lo and hi, inclusive. Rows are
+ * read with getInt, so the values are not boxed.
+ */
+public class StateFilter extends ColumnPredicate {
 
-    private int lo;
-    private int hi;
-    private String colName = null;
-    private int colNumber = -1;
+    private final int lo;
+    private final int hi;
 
     public StateFilter(int lo, int hi, int colNumber) {
+        super(colNumber);
         this.lo = lo;
         this.hi = hi;
-        this.colNumber = colNumber;
     }
 
     public StateFilter(int lo, int hi, String colName) {
+        super(colName);
         this.lo = lo;
         this.hi = hi;
-        this.colName = colName;
     }
 
-    public boolean evaluate(Object value, String columnName) {
-
-        boolean evaluation = true;
-        if (columnName.equalsIgnoreCase(this.colName)) {
-            int columnValue = ((Integer) value).intValue();
-            if ((columnValue >= this.lo) && (columnValue <= this.hi)) {
-                evaluation = true;
-            } else {
-                evaluation = false;
-            }
-        }
-        return evaluation;
+    public int getLo() {
+        return lo;
     }
 
-    public boolean evaluate(Object value, int columnNumber) {
+    public int getHi() {
+        return hi;
+    }
 
-        boolean evaluation = true;
-        if (this.colNumber == columnNumber) {
-            int columnValue = ((Integer) value).intValue();
-            if ((columnValue >= this.lo) && (columnValue <= this.hi)) {
-                evaluation = true;
-            } else {
-                evaluation = false;
-            }
-        }
-        return evaluation;
+    protected boolean matches(Object value) {
+        return value instanceof Number && inRange(((Number) value).intValue());
     }
 
+    protected boolean matches(RowSet rs, int column) throws SQLException {
+        int columnValue = rs.getInt(column);
+        return !rs.wasNull() && inRange(columnValue);
+    }
 
-    public boolean evaluate(RowSet rs) {
+    /**
+     * Returns column BETWEEN ? AND ?.
+     */
+    public String toSql() {
+        String column = sqlColumnName();
+        return column == null ? null : column + " BETWEEN ? AND ?";
+    }
 
-        CachedRowSet frs = (CachedRowSet) rs;
-        boolean evaluation = false;
-        try {
-            int columnValue = -1;
+    public List<Object> getParameters() {
+        return Arrays.asList(lo, hi);
+    }
 
-            if (this.colNumber > 0) {
-                columnValue = frs.getInt(this.colNumber);
-            } else if (this.colName != null) {
-                columnValue = frs.getInt(this.colName);
-            } else {
-                return false;
-            }
+    private boolean inRange(int columnValue) {
+        return columnValue >= lo && columnValue <= hi;
+    }
 
-            if ((columnValue >= this.lo) && (columnValue <= this.hi)) {
-                evaluation = true;
-            }
-        } catch (SQLException e) {
-            return false;
-        }
-        return evaluation;
+    public String toString() {
+        return "StateFilter[" + lo + ".." + hi + "]";
     }
 }
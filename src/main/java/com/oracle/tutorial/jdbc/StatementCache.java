@@ -0,0 +1,293 @@
+package com.oracle.tutorial.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A least recently used cache of PreparedStatement objects that belongs to
+ * one physical connection. Statements are keyed by SQL text, result set type
+ * and result set concurrency. Closing a statement obtained from the cache
+ * clears its parameters and keeps it open for the next caller that prepares
+ * the same SQL; the statements are only closed when they are evicted or when
+ * the physical connection is closed.
+ *
+ * Connections borrowed from PooledDataSource use the cache automatically;
+ * call {@code connection.unwrap(StatementCache.class)} to read the hit and
+ * miss counters.
+ */
+public class StatementCache {
+
+    private final int maxSize;
+    private final LinkedHashMap<Key, CachedStatement> statements;
+    // Statements in use that are not in the cache: private copies of a busy
+    // statement and statements evicted while in use
+    private final Set<CachedStatement> detached = new HashSet<>();
+    private long hits;
+    private long misses;
+
+    public StatementCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return statements.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns a statement for the given SQL text, reusing a cached one if it
+     * is not already in use. The returned statement reports
+     * {@code logicalConnection} from getConnection().
+     */
+    PreparedStatement prepare(Connection physicalConnection, Connection logicalConnection,
+                              String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        Key key = new Key(sql, resultSetType, resultSetConcurrency);
+        CachedStatement cached;
+        synchronized (this) {
+            cached = statements.get(key);
+            if (cached != null && !cached.inUse) {
+                hits++;
+                cached.inUse = true;
+                return cached.newProxy(logicalConnection);
+            }
+            misses++;
+        }
+
+        PreparedStatement statement =
+                physicalConnection.prepareStatement(sql, resultSetType, resultSetConcurrency);
+        CachedStatement created;
+        try {
+            created = new CachedStatement(key, statement);
+        } catch (SQLException e) {
+            statement.close();
+            throw e;
+        }
+        created.inUse = true;
+        if (cached != null || maxSize <= 0) {
+            // The cached statement is busy (or caching is off); hand out a
+            // private statement that is really closed by close().
+            created.evicted = true;
+            synchronized (this) {
+                detached.add(created);
+            }
+            return created.newProxy(logicalConnection);
+        }
+
+        List<CachedStatement> toClose = new ArrayList<>();
+        synchronized (this) {
+            statements.put(key, created);
+            Iterator<CachedStatement> it = statements.values().iterator();
+            while (statements.size() > maxSize && it.hasNext()) {
+                CachedStatement eldest = it.next();
+                it.remove();
+                eldest.evicted = true;
+                if (eldest.inUse) {
+                    detached.add(eldest);
+                } else {
+                    toClose.add(eldest);
+                }
+            }
+        }
+        for (CachedStatement eldest : toClose) {
+            eldest.closeQuietly();
+        }
+        return created.newProxy(logicalConnection);
+    }
+
+    /**
+     * Logically closes every statement still held by the caller that is
+     * returning the connection to the pool.
+     */
+    synchronized void releaseAll() {
+        List<CachedStatement> held = new ArrayList<>(statements.values());
+        held.addAll(detached);
+        for (CachedStatement cached : held) {
+            if (cached.inUse && cached.handler != null) {
+                cached.handler.release();
+            }
+        }
+    }
+
+    /**
+     * Closes all cached statements; called when the physical connection is
+     * closed.
+     */
+    void invalidate() {
+        List<CachedStatement> toClose;
+        synchronized (this) {
+            toClose = new ArrayList<>(statements.values());
+            toClose.addAll(detached);
+            statements.clear();
+            detached.clear();
+        }
+        for (CachedStatement cached : toClose) {
+            cached.evicted = true;
+            cached.closeQuietly();
+        }
+    }
+
+    private static final class Key {
+        final String sql;
+        final int resultSetType;
+        final int resultSetConcurrency;
+
+        Key(String sql, int resultSetType, int resultSetConcurrency) {
+            this.sql = sql;
+            this.resultSetType = resultSetType;
+            this.resultSetConcurrency = resultSetConcurrency;
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return resultSetType == other.resultSetType &&
+                    resultSetConcurrency == other.resultSetConcurrency &&
+                    sql.equals(other.sql);
+        }
+
+        public int hashCode() {
+            return Objects.hash(sql, resultSetType, resultSetConcurrency);
+        }
+    }
+
+    private final class CachedStatement {
+        final Key key;
+        final PreparedStatement statement;
+        final int defaultFetchSize;
+        final int defaultMaxRows;
+        boolean inUse;
+        boolean evicted;
+        StatementHandler handler;
+
+        CachedStatement(Key key, PreparedStatement statement) throws SQLException {
+            this.key = key;
+            this.statement = statement;
+            this.defaultFetchSize = statement.getFetchSize();
+            this.defaultMaxRows = statement.getMaxRows();
+        }
+
+        PreparedStatement newProxy(Connection logicalConnection) {
+            handler = new StatementHandler(this, logicalConnection);
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    handler);
+        }
+
+        void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                // The statement is being discarded anyway
+            }
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final CachedStatement cached;
+        private final Connection logicalConnection;
+        private boolean closed;
+
+        StatementHandler(CachedStatement cached, Connection logicalConnection) {
+            this.cached = cached;
+            this.logicalConnection = logicalConnection;
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached[" + cached.statement + "]";
+                case "close":
+                    release();
+                    return null;
+                case "isClosed":
+                    return closed || cached.statement.isClosed();
+                case "getConnection":
+                    return logicalConnection;
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            try {
+                return method.invoke(cached.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        void release() {
+            if (closed) return;
+            closed = true;
+            boolean reusable = !cached.evicted;
+            if (reusable) {
+                try {
+                    ResultSet rs = cached.statement.getResultSet();
+                    if (rs != null) {
+                        rs.close();
+                    }
+                    cached.statement.clearParameters();
+                    cached.statement.clearBatch();
+                    cached.statement.clearWarnings();
+                    // Settings such as a streaming fetch size must not leak
+                    // to the next caller
+                    if (cached.statement.getFetchSize() != cached.defaultFetchSize) {
+                        cached.statement.setFetchSize(cached.defaultFetchSize);
+                    }
+                    if (cached.statement.getMaxRows() != cached.defaultMaxRows) {
+                        cached.statement.setMaxRows(cached.defaultMaxRows);
+                    }
+                } catch (SQLException e) {
+                    reusable = false;
+                }
+            }
+            synchronized (StatementCache.this) {
+                cached.inUse = false;
+                cached.handler = null;
+                detached.remove(cached);
+                if (!reusable && !cached.evicted) {
+                    statements.remove(cached.key);
+                    cached.evicted = true;
+                }
+            }
+            if (cached.evicted) {
+                cached.closeQuietly();
+            }
+        }
+    }
+
+    public synchronized String toString() {
+        return "StatementCache[size=" + statements.size() + ", maxSize=" + maxSize +
+                ", hits=" + hits + ", misses=" + misses + "]";
+    }
+}
@@ -0,0 +1,152 @@
+package com.oracle.tutorial.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Runs queries whose rows are read lazily instead of being buffered in client
+ * memory before the first row is returned.
+ *
+ * The statement is forward-only and read-only, and its fetch size tells the
+ * driver how many rows to transfer per round trip. MySQL Connector/J ignores
+ * positive fetch sizes unless cursor fetch is enabled and otherwise reads the
+ * whole result into memory, so for MySQL the statement uses a fetch size of
+ * Integer.MIN_VALUE, which makes the driver stream rows one at a time. While
+ * such a result is open, MySQL does not allow other statements on the same
+ * connection, so read or close it before issuing the next query.
+ */
+public final class StreamingQuery {
+
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    /**
+     * Maps the current row of a ResultSet to an object.
+     */
+    public interface RowMapper<T> {
+        T mapRow(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Processes the current row of a ResultSet. Returning false stops the
+     * query without reading the remaining rows.
+     */
+    public interface RowHandler {
+        boolean handleRow(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Thrown by streams returned from stream() when reading a row fails.
+     */
+    public static class UncheckedSQLException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public UncheckedSQLException(SQLException cause) {
+            super(cause);
+        }
+
+        public SQLException getCause() {
+            return (SQLException) super.getCause();
+        }
+    }
+
+    private StreamingQuery() {
+    }
+
+    /**
+     * Prepares a forward-only, read-only statement whose results are fetched
+     * fetchSize rows at a time (or row by row on MySQL).
+     */
+    public static PreparedStatement prepare(Connection con, String sql, int fetchSize) throws SQLException {
+        PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        try {
+            ps.setFetchSize(isMySQL(con) ? Integer.MIN_VALUE : fetchSize);
+        } catch (SQLException e) {
+            ps.close();
+            throw e;
+        }
+        return ps;
+    }
+
+    /**
+     * Calls handler for each row of the query until the rows run out or the
+     * handler returns false. Returns the number of rows handled.
+     */
+    public static int forEach(Connection con, String sql, int fetchSize, RowHandler handler,
+                              Object... parameters) throws SQLException {
+        int count = 0;
+        try (PreparedStatement ps = prepare(con, sql, fetchSize)) {
+            setParameters(ps, parameters);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    count++;
+                    if (!handler.handleRow(rs)) {
+                        break;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns a lazily populated stream of the rows of the query, mapped with
+     * mapper. Rows are read from the database only as the stream is consumed.
+     * The stream holds an open statement and must be closed, for example
+     * with try-with-resources.
+     */
+    public static <T> Stream<T> stream(Connection con, String sql, int fetchSize, RowMapper<T> mapper,
+                                       Object... parameters) throws SQLException {
+        PreparedStatement ps = prepare(con, sql, fetchSize);
+        ResultSet rs;
+        try {
+            setParameters(ps, parameters);
+            rs = ps.executeQuery();
+        } catch (SQLException e) {
+            ps.close();
+            throw e;
+        }
+
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.mapRow(rs));
+                    return true;
+                } catch (SQLException e) {
+                    throw new UncheckedSQLException(e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(rows, false).onClose(() -> {
+            try {
+                try {
+                    rs.close();
+                } finally {
+                    ps.close();
+                }
+            } catch (SQLException e) {
+                throw new UncheckedSQLException(e);
+            }
+        });
+    }
+
+    private static void setParameters(PreparedStatement ps, Object[] parameters) throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            ps.setObject(i + 1, parameters[i]);
+        }
+    }
+
+    static boolean isMySQL(Connection con) throws SQLException {
+        return "MySQL".equalsIgnoreCase(con.getMetaData().getDatabaseProductName());
+    }
+}
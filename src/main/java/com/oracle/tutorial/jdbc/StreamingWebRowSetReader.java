@@ -0,0 +1,415 @@
+package com.oracle.tutorial.jdbc;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.RowSetMetaData;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.oracle.tutorial.jdbc.StreamingWebRowSetWriter.RowState;
+
+/**
+ * Reads WebRowSet XML, as written by WebRowSet.writeXml or
+ * StreamingWebRowSetWriter, with StAX, one row at a time. Only the current
+ * row is held in memory, whereas WebRowSet.readXml loads every row into the
+ * row set.
+ *
+ * The constructor reads the properties and metadata; next() then moves from
+ * row to row, like ResultSet.next. Column values are decoded from their text
+ * by column type as readXml decodes them: DATE, TIME and TIMESTAMP are
+ * milliseconds, NUMERIC and DECIMAL are BigDecimal, and so on. DTDs and
+ * external entities are not processed.
+ */
+public class StreamingWebRowSetReader implements AutoCloseable {
+
+    private static final XMLInputFactory FACTORY = XMLInputFactory.newFactory();
+
+    static {
+        FACTORY.setProperty(XMLInputFactory.IS_COALESCING, true);
+        FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final XMLStreamReader xml;
+    private final Map<String, String> properties = new HashMap<>();
+    private final List<Integer> keyColumns = new ArrayList<>();
+    private final Map<String, String> typeMap = new LinkedHashMap<>();
+    private final RowSetMetaDataImpl metadata = new RowSetMetaDataImpl();
+    private int[] types;
+
+    // Current row
+    private RowState state;
+    private String[] values; // null for SQL NULL
+    private String[] updates;
+    private boolean[] updated;
+    private int row;
+    private boolean done;
+
+    public StreamingWebRowSetReader(Reader in) throws SQLException {
+        try {
+            xml = FACTORY.createXMLStreamReader(in);
+            xml.nextTag(); // webRowSet
+            xml.nextTag();
+            expect("properties");
+            readProperties();
+            xml.nextTag();
+            expect("metadata");
+            readMetaData();
+            xml.nextTag();
+            expect("data");
+        } catch (XMLStreamException e) {
+            throw new SQLException("Cannot read the WebRowSet header", e);
+        }
+        int columns = metadata.getColumnCount();
+        types = new int[columns];
+        for (int i = 0; i < columns; i++) {
+            types[i] = metadata.getColumnType(i + 1);
+        }
+        values = new String[columns];
+        updates = new String[columns];
+        updated = new boolean[columns];
+    }
+
+    /**
+     * Returns the text of a property, such as "command" or "table-name", or
+     * null if it is null or absent.
+     */
+    public String getProperty(String name) {
+        return properties.get(name);
+    }
+
+    public int[] getKeyColumns() {
+        int[] columns = new int[keyColumns.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = keyColumns.get(i);
+        }
+        return columns;
+    }
+
+    /**
+     * Returns the type map as SQL type names and class names; the classes are
+     * not loaded.
+     */
+    public Map<String, String> getTypeMap() {
+        return typeMap;
+    }
+
+    public RowSetMetaData getMetaData() {
+        return metadata;
+    }
+
+    /**
+     * Sets the properties read to target, as readXml does, and gives it the
+     * metadata, so rows can be inserted into it.
+     */
+    public void applyProperties(CachedRowSet target) throws SQLException {
+        String type = getProperty("rowset-type");
+        if (type != null) {
+            target.setType(type.endsWith("FORWARD_ONLY") ? ResultSet.TYPE_FORWARD_ONLY
+                    : type.endsWith("SCROLL_SENSITIVE") ? ResultSet.TYPE_SCROLL_SENSITIVE
+                    : ResultSet.TYPE_SCROLL_INSENSITIVE);
+        }
+        if (properties.containsKey("command")) {
+            target.setCommand(getProperty("command"));
+        }
+        Integer value;
+        if ((value = intProperty("concurrency")) != null) {
+            target.setConcurrency(value);
+        }
+        if (getProperty("datasource") != null) {
+            target.setDataSourceName(getProperty("datasource"));
+        }
+        if (getProperty("escape-processing") != null) {
+            target.setEscapeProcessing(Boolean.parseBoolean(getProperty("escape-processing")));
+        }
+        if ((value = intProperty("fetch-direction")) != null) {
+            target.setFetchDirection(value);
+        }
+        if ((value = intProperty("fetch-size")) != null) {
+            target.setFetchSize(value);
+        }
+        if ((value = intProperty("isolation-level")) != null) {
+            target.setTransactionIsolation(value);
+        }
+        if (!keyColumns.isEmpty()) {
+            target.setKeyColumns(getKeyColumns());
+        }
+        if ((value = intProperty("max-field-size")) != null) {
+            target.setMaxFieldSize(value);
+        }
+        if ((value = intProperty("max-rows")) != null) {
+            target.setMaxRows(value);
+        }
+        if ((value = intProperty("query-timeout")) != null) {
+            target.setQueryTimeout(value);
+        }
+        if (getProperty("read-only") != null) {
+            target.setReadOnly(Boolean.parseBoolean(getProperty("read-only")));
+        }
+        if (getProperty("show-deleted") != null) {
+            target.setShowDeleted(Boolean.parseBoolean(getProperty("show-deleted")));
+        }
+        if (getProperty("table-name") != null) {
+            target.setTableName(getProperty("table-name"));
+        }
+        if (getProperty("url") != null) {
+            target.setUrl(getProperty("url"));
+        }
+        target.setMetaData(ReadOnlyRowSet.copyMetaData(metadata));
+    }
+
+    /**
+     * Moves to the next row, returning false after the last one.
+     */
+    public boolean next() throws SQLException {
+        if (done) {
+            return false;
+        }
+        try {
+            if (xml.nextTag() == XMLStreamConstants.END_ELEMENT) {
+                done = true; // </data>
+                return false;
+            }
+            state = rowState(xml.getLocalName());
+            Arrays.fill(updates, null);
+            Arrays.fill(updated, false);
+            int column = 0;
+            while (xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if (xml.getLocalName().equals("updateRow") && column > 0) {
+                    updates[column - 1] = readValue();
+                    updated[column - 1] = true;
+                } else if (xml.getLocalName().equals("columnValue") && column < values.length) {
+                    values[column++] = readValue();
+                } else {
+                    throw new SQLException("Unexpected <" + xml.getLocalName() + "> in row " + (row + 1));
+                }
+            }
+            if (column < values.length) {
+                throw new SQLException("Row " + (row + 1) + " has " + column + " of " + values.length + " columns");
+            }
+        } catch (XMLStreamException e) {
+            throw new SQLException("Cannot read row " + (row + 1), e);
+        }
+        row++;
+        return true;
+    }
+
+    /**
+     * Returns the number of the current row, starting at 1.
+     */
+    public int getRow() {
+        return row;
+    }
+
+    public RowState getRowState() {
+        return state;
+    }
+
+    public boolean isColumnUpdated(int column) {
+        return updated[column - 1];
+    }
+
+    /**
+     * Returns the value of column in the current row, the updated value if
+     * it has been updated.
+     */
+    public Object getObject(int column) throws SQLException {
+        return decode(column, updated[column - 1] ? updates[column - 1] : values[column - 1]);
+    }
+
+    /**
+     * Returns the value of column before it was updated.
+     */
+    public Object getOriginalObject(int column) throws SQLException {
+        return decode(column, values[column - 1]);
+    }
+
+    /**
+     * Returns the text of the value of column, or null.
+     */
+    public String getString(int column) {
+        return updated[column - 1] ? updates[column - 1] : values[column - 1];
+    }
+
+    public void close() throws SQLException {
+        try {
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new SQLException(e);
+        }
+    }
+
+    private Object decode(int column, String text) throws SQLException {
+        if (text == null) {
+            return null;
+        }
+        try {
+            switch (types[column - 1]) {
+                case Types.BIT:
+                case Types.BOOLEAN:
+                    return Boolean.valueOf(text);
+                case Types.TINYINT:
+                case Types.SMALLINT:
+                    return Short.valueOf(text);
+                case Types.INTEGER:
+                    return Integer.valueOf(text);
+                case Types.BIGINT:
+                    return Long.valueOf(text);
+                case Types.REAL:
+                case Types.FLOAT:
+                    return Float.valueOf(text);
+                case Types.DOUBLE:
+                    return Double.valueOf(text);
+                case Types.NUMERIC:
+                case Types.DECIMAL:
+                    return new BigDecimal(text);
+                case Types.DATE:
+                    return new Date(Long.parseLong(text));
+                case Types.TIME:
+                    return new Time(Long.parseLong(text));
+                case Types.TIMESTAMP:
+                    return new Timestamp(Long.parseLong(text));
+                default:
+                    return text;
+            }
+        } catch (NumberFormatException e) {
+            throw new SQLException("Bad value in row " + row + ", column " + column + ": " + text, e);
+        }
+    }
+
+    private static RowState rowState(String tag) throws SQLException {
+        for (RowState state : RowState.values()) {
+            if (state.tag.equals(tag)) {
+                return state;
+            }
+        }
+        throw new SQLException("Not a row: <" + tag + ">");
+    }
+
+    private void expect(String tag) throws SQLException {
+        if (!xml.getLocalName().equals(tag)) {
+            throw new SQLException("Expected <" + tag + "> but found <" + xml.getLocalName() + ">");
+        }
+    }
+
+    private Integer intProperty(String name) throws SQLException {
+        String text = getProperty(name);
+        try {
+            return text == null || text.isEmpty() ? null : Integer.valueOf(text.trim());
+        } catch (NumberFormatException e) {
+            throw new SQLException("Bad value of " + name + ": " + text, e);
+        }
+    }
+
+    private void readProperties() throws XMLStreamException, SQLException {
+        while (xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            String name = xml.getLocalName();
+            switch (name) {
+                case "key-columns":
+                    while (xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                        keyColumns.add(Integer.valueOf(readValue().trim()));
+                    }
+                    break;
+                case "map":
+                    String type = null;
+                    while (xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                        if (xml.getLocalName().equals("type")) {
+                            type = readValue();
+                        } else {
+                            typeMap.put(type, readValue());
+                        }
+                    }
+                    break;
+                case "sync-provider":
+                    while (xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                        properties.put(xml.getLocalName(), readValue());
+                    }
+                    break;
+                default:
+                    properties.put(name, readValue());
+            }
+        }
+    }
+
+    private void readMetaData() throws XMLStreamException, SQLException {
+        xml.nextTag();
+        expect("column-count");
+        metadata.setColumnCount(Integer.parseInt(readValue().trim()));
+        int column = 0;
+        while (xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            expect("column-definition");
+            Map<String, String> definition = new HashMap<>();
+            while (xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                definition.put(xml.getLocalName(), readValue());
+            }
+            String index = definition.get("column-index");
+            column = index == null ? column + 1 : Integer.parseInt(index.trim());
+            metadata.setAutoIncrement(column, Boolean.parseBoolean(definition.get("auto-increment")));
+            metadata.setCaseSensitive(column, Boolean.parseBoolean(definition.get("case-sensitive")));
+            metadata.setCurrency(column, Boolean.parseBoolean(definition.get("currency")));
+            metadata.setNullable(column, intValue(definition, "nullable"));
+            metadata.setSigned(column, Boolean.parseBoolean(definition.get("signed")));
+            metadata.setSearchable(column, Boolean.parseBoolean(definition.get("searchable")));
+            metadata.setColumnDisplaySize(column, intValue(definition, "column-display-size"));
+            metadata.setColumnLabel(column, definition.get("column-label"));
+            metadata.setColumnName(column, definition.get("column-name"));
+            metadata.setSchemaName(column, definition.get("schema-name"));
+            metadata.setPrecision(column, intValue(definition, "column-precision"));
+            metadata.setScale(column, intValue(definition, "column-scale"));
+            metadata.setTableName(column, definition.get("table-name"));
+            metadata.setCatalogName(column, definition.get("catalog-name"));
+            metadata.setColumnType(column, intValue(definition, "column-type"));
+            metadata.setColumnTypeName(column, definition.get("column-type-name"));
+        }
+    }
+
+    private static int intValue(Map<String, String> definition, String name) {
+        String text = definition.get(name);
+        return text == null || text.isEmpty() ? 0 : Integer.parseInt(text.trim());
+    }
+
+    /**
+     * Reads the value of the element the reader is on, leaving the reader on
+     * its end tag: its text, "" for <emptyString/> and null for <null/>.
+     */
+    private String readValue() throws XMLStreamException {
+        StringBuilder text = null;
+        boolean isNull = false;
+        boolean isEmpty = false;
+        int event;
+        while ((event = xml.next()) != XMLStreamConstants.END_ELEMENT) {
+            if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA ||
+                    event == XMLStreamConstants.SPACE) {
+                if (text == null) {
+                    text = new StringBuilder();
+                }
+                text.append(xml.getTextCharacters(), xml.getTextStart(), xml.getTextLength());
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                isNull = xml.getLocalName().equals("null");
+                isEmpty = xml.getLocalName().equals("emptyString");
+                xml.nextTag(); // Its end tag
+            }
+        }
+        if (isNull) {
+            return null;
+        }
+        return isEmpty || text == null ? "" : text.toString();
+    }
+}
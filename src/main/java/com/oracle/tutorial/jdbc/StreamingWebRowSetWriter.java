@@ -0,0 +1,517 @@
+package com.oracle.tutorial.jdbc;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Map;
+
+import javax.sql.RowSetMetaData;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
+import javax.sql.rowset.spi.SyncProvider;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Writes WebRowSet XML with StAX, one row at a time, so rows can be written
+ * straight from a forward-only ResultSet without holding them in memory.
+ * WebRowSet.writeXml needs the whole result in the row set first.
+ *
+ * The output has the same bytes as WebRowSet.writeXml of the reference
+ * implementation for the same properties, metadata and rows, down to its
+ * indentation, so either side of an exchange can use readXml or
+ * StreamingWebRowSetReader. Like writeXml, it leaves columnValue empty for
+ * binary, LOB and other types the format has no text form for.
+ *
+ * Call writeStart, then writeRow for each row, then writeEnd; or use one of
+ * the static write methods. close() does not close the underlying Writer.
+ */
+public class StreamingWebRowSetWriter implements AutoCloseable {
+
+    /**
+     * How a row has been changed since its row set was populated.
+     */
+    public enum RowState {
+        CURRENT("currentRow"),
+        INSERTED("insertRow"),
+        DELETED("deleteRow"),
+        INSERTED_AND_DELETED("modifyRow");
+
+        final String tag;
+
+        RowState(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    static final String NAMESPACE = "http://java.sun.com/xml/ns/jdbc";
+
+    private static final XMLOutputFactory FACTORY = XMLOutputFactory.newFactory();
+
+    // The start tag breaks a line between attributes, which StAX cannot do
+    private static final String PROLOG = "<?xml version=\"1.0\"?>\n" +
+            "<webRowSet xmlns=\"" + NAMESPACE + "\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n" +
+            "xsi:schemaLocation=\"" + NAMESPACE + " " + NAMESPACE + "/webrowset.xsd\">\n";
+
+    private static final char[] SPACES = new char[64];
+
+    static {
+        Arrays.fill(SPACES, ' ');
+    }
+
+    private final Writer out;
+    private XMLStreamWriter xml;
+    private int depth;
+    private int[] types;
+    private int rows;
+    private boolean ended;
+
+    public StreamingWebRowSetWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes the rows of rs, from its current position to the end, with the
+     * properties of the given row set, and returns how many there were.
+     */
+    public static int write(ResultSet rs, CachedRowSet properties, Writer out) throws SQLException {
+        try (StreamingWebRowSetWriter writer = new StreamingWebRowSetWriter(out)) {
+            writer.writeStart(properties, rs.getMetaData());
+            while (rs.next()) {
+                writer.writeRow(rs);
+            }
+            writer.writeEnd();
+            return writer.getRowCount();
+        }
+    }
+
+    /**
+     * Writes the rows of rs with the properties of a new row set, whose
+     * command and table name are not set.
+     */
+    public static int write(ResultSet rs, Writer out) throws SQLException {
+        try (CachedRowSet properties = RowSetProvider.newFactory(ReadOnlyRowSet.REFERENCE_FACTORY, null)
+                .createWebRowSet()) {
+            return write(rs, properties, out);
+        }
+    }
+
+    /**
+     * Writes crs, including its inserted, deleted and updated rows, as
+     * WebRowSet.writeXml does. The cursor is left after the last row.
+     */
+    public static void write(CachedRowSet crs, Writer out) throws SQLException {
+        boolean showDeleted = crs.getShowDeleted();
+        try (StreamingWebRowSetWriter writer = new StreamingWebRowSetWriter(out)) {
+            // The properties keep the caller's show-deleted, as writeXml does
+            writer.writeStart(crs, crs.getMetaData());
+            crs.setShowDeleted(true);
+            crs.beforeFirst();
+            while (crs.next()) {
+                writer.writeRow(crs);
+            }
+            writer.writeEnd();
+        } finally {
+            crs.setShowDeleted(showDeleted);
+        }
+    }
+
+    /**
+     * Writes only the inserted, updated and deleted rows of crs, with their
+     * original and new values, and returns how many there were. Rows that
+     * were inserted and then deleted are left out. Call it before
+     * acceptChanges, which forgets the changes; WebRowSetDeltaImporter
+     * applies the result to a table, matching rows on crs's key columns.
+     */
+    public static int writeChanges(CachedRowSet crs, Writer out) throws SQLException {
+        boolean showDeleted = crs.getShowDeleted();
+        try (StreamingWebRowSetWriter writer = new StreamingWebRowSetWriter(out)) {
+            // The properties keep the caller's show-deleted, as writeXml does
+            writer.writeStart(crs, crs.getMetaData());
+            crs.setShowDeleted(true);
+            crs.beforeFirst();
+            while (crs.next()) {
+                if (crs.rowDeleted() ? !crs.rowInserted() : crs.rowInserted() || crs.rowUpdated()) {
+                    writer.writeRow(crs);
+                }
+            }
+            writer.writeEnd();
+            return writer.getRowCount();
+        } finally {
+            crs.setShowDeleted(showDeleted);
+        }
+    }
+
+    /**
+     * Writes everything up to the first row: the properties of the given row
+     * set, which need not be populated, and the columns of metadata.
+     */
+    public void writeStart(CachedRowSet properties, ResultSetMetaData metadata) throws SQLException {
+        if (xml != null) {
+            throw new IllegalStateException("writeStart has already been called");
+        }
+        RowSetMetaData columns = ReadOnlyRowSet.copyMetaData(metadata);
+        try {
+            out.write(PROLOG);
+            xml = FACTORY.createXMLStreamWriter(out);
+            depth = 1;
+            writeProperties(properties);
+            writeMetaData(columns);
+            begin("data");
+        } catch (IOException | XMLStreamException e) {
+            throw new SQLException("Cannot write the WebRowSet header", e);
+        }
+        types = new int[columns.getColumnCount()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = columns.getColumnType(i + 1);
+        }
+    }
+
+    /**
+     * Writes the current row of rs as an unchanged row.
+     */
+    public void writeRow(ResultSet rs) throws SQLException {
+        writeRow(RowState.CURRENT, rs);
+    }
+
+    public void writeRow(RowState state, ResultSet rs) throws SQLException {
+        checkStarted();
+        try {
+            begin(state.tag);
+            for (int i = 1; i <= types.length; i++) {
+                prop("columnValue", rs, i);
+            }
+            end();
+        } catch (XMLStreamException e) {
+            throw new SQLException("Cannot write row " + (rows + 1), e);
+        }
+        rows++;
+    }
+
+    /**
+     * Writes the current row of crs with its state, and for each updated
+     * column both the original and the new value. Deleted rows are only
+     * visible while crs.getShowDeleted() is true.
+     */
+    public void writeRow(CachedRowSet crs) throws SQLException {
+        checkStarted();
+        RowState state = crs.rowDeleted()
+                ? crs.rowInserted() ? RowState.INSERTED_AND_DELETED : RowState.DELETED
+                : crs.rowInserted() ? RowState.INSERTED : RowState.CURRENT;
+        try {
+            begin(state.tag);
+            ResultSet original = null;
+            for (int i = 1; i <= types.length; i++) {
+                if (crs.columnUpdated(i)) {
+                    if (original == null) {
+                        original = crs.getOriginalRow();
+                        original.next();
+                    }
+                    prop("columnValue", original, i);
+                    prop("updateRow", crs, i);
+                } else {
+                    prop("columnValue", crs, i);
+                }
+            }
+            end();
+        } catch (XMLStreamException e) {
+            throw new SQLException("Cannot write row " + (rows + 1), e);
+        }
+        rows++;
+    }
+
+    /**
+     * Writes the end of the document and flushes the Writer.
+     */
+    public void writeEnd() throws SQLException {
+        checkStarted();
+        try {
+            end();
+            xml.flush();
+            out.write("</webRowSet>\n");
+            out.flush();
+        } catch (IOException | XMLStreamException e) {
+            throw new SQLException("Cannot write the end of the WebRowSet", e);
+        }
+        ended = true;
+    }
+
+    public int getRowCount() {
+        return rows;
+    }
+
+    public void close() throws SQLException {
+        if (xml != null) {
+            try {
+                xml.close();
+            } catch (XMLStreamException e) {
+                throw new SQLException(e);
+            }
+        }
+    }
+
+    private void checkStarted() {
+        if (xml == null || ended) {
+            throw new IllegalStateException(xml == null ? "writeStart has not been called" : "writeEnd has been called");
+        }
+    }
+
+    private void writeProperties(CachedRowSet rowSet) throws SQLException, XMLStreamException {
+        begin("properties");
+        prop("command", rowSet.getCommand());
+        prop("concurrency", rowSet.getConcurrency());
+        prop("datasource", rowSet.getDataSourceName());
+        prop("escape-processing", rowSet.getEscapeProcessing());
+        try {
+            int direction = rowSet.getFetchDirection();
+            prop("fetch-direction", direction);
+        } catch (SQLException e) {
+            // Not set; writeXml leaves it out too
+        }
+        prop("fetch-size", rowSet.getFetchSize());
+        prop("isolation-level", rowSet.getTransactionIsolation());
+        begin("key-columns");
+        int[] keyColumns = rowSet.getKeyColumns();
+        for (int i = 0; keyColumns != null && i < keyColumns.length; i++) {
+            prop("column", keyColumns[i]);
+        }
+        end();
+        begin("map");
+        Map<String, Class<?>> typeMap = rowSet.getTypeMap();
+        if (typeMap != null) {
+            for (Map.Entry<String, Class<?>> entry : typeMap.entrySet()) {
+                prop("type", entry.getKey());
+                prop("class", entry.getValue().getName());
+            }
+        }
+        end();
+        prop("max-field-size", rowSet.getMaxFieldSize());
+        prop("max-rows", rowSet.getMaxRows());
+        prop("query-timeout", rowSet.getQueryTimeout());
+        prop("read-only", rowSet.isReadOnly());
+        int type = rowSet.getType();
+        prop("rowset-type", type == ResultSet.TYPE_FORWARD_ONLY ? "ResultSet.TYPE_FORWARD_ONLY"
+                : type == ResultSet.TYPE_SCROLL_INSENSITIVE ? "ResultSet.TYPE_SCROLL_INSENSITIVE"
+                : type == ResultSet.TYPE_SCROLL_SENSITIVE ? "ResultSet.TYPE_SCROLL_SENSITIVE" : "");
+        prop("show-deleted", rowSet.getShowDeleted());
+        prop("table-name", rowSet.getTableName());
+        prop("url", rowSet.getUrl());
+        begin("sync-provider");
+        SyncProvider provider = rowSet.getSyncProvider();
+        prop("sync-provider-name", provider.getClass().getName());
+        // writeXml always writes these two
+        prop("sync-provider-vendor", "Oracle Corporation");
+        prop("sync-provider-version", "1.0");
+        prop("sync-provider-grade", provider.getProviderGrade());
+        prop("data-source-lock", provider.getDataSourceLock());
+        end();
+        end();
+    }
+
+    private void writeMetaData(RowSetMetaData md) throws SQLException, XMLStreamException {
+        begin("metadata");
+        int columns = md.getColumnCount();
+        prop("column-count", columns);
+        for (int i = 1; i <= columns; i++) {
+            begin("column-definition");
+            prop("column-index", i);
+            prop("auto-increment", md.isAutoIncrement(i));
+            prop("case-sensitive", md.isCaseSensitive(i));
+            prop("currency", md.isCurrency(i));
+            prop("nullable", md.isNullable(i));
+            prop("signed", md.isSigned(i));
+            prop("searchable", md.isSearchable(i));
+            prop("column-display-size", md.getColumnDisplaySize(i));
+            prop("column-label", md.getColumnLabel(i));
+            prop("column-name", md.getColumnName(i));
+            prop("schema-name", md.getSchemaName(i));
+            prop("column-precision", md.getPrecision(i));
+            prop("column-scale", md.getScale(i));
+            prop("table-name", md.getTableName(i));
+            prop("catalog-name", md.getCatalogName(i));
+            prop("column-type", md.getColumnType(i));
+            prop("column-type-name", md.getColumnTypeName(i));
+            end();
+        }
+        end();
+    }
+
+    // Elements, laid out as writeXml lays them out
+
+    private void begin(String tag) throws XMLStreamException {
+        depth++;
+        indent();
+        xml.writeStartElement(tag);
+        xml.writeCharacters("\n");
+    }
+
+    private void end() throws XMLStreamException {
+        indent();
+        xml.writeEndElement();
+        xml.writeCharacters("\n");
+        depth--;
+    }
+
+    private void prop(String tag, int value) throws XMLStreamException {
+        prop(tag, Integer.toString(value));
+    }
+
+    private void prop(String tag, boolean value) throws XMLStreamException {
+        prop(tag, Boolean.toString(value));
+    }
+
+    private void prop(String tag, String value) throws XMLStreamException {
+        depth++;
+        indent();
+        xml.writeStartElement(tag);
+        if (value == null) {
+            xml.writeEmptyElement("null");
+        } else {
+            text(value);
+        }
+        xml.writeEndElement();
+        xml.writeCharacters("\n");
+        depth--;
+    }
+
+    private void prop(String tag, ResultSet rs, int column) throws SQLException, XMLStreamException {
+        depth++;
+        indent();
+        xml.writeStartElement(tag);
+        value(rs, column);
+        xml.writeEndElement();
+        xml.writeCharacters("\n");
+        depth--;
+    }
+
+    private void value(ResultSet rs, int column) throws SQLException, XMLStreamException {
+        String text;
+        switch (types[column - 1]) {
+            case Types.BIT:
+            case Types.BOOLEAN: {
+                boolean value = rs.getBoolean(column);
+                text = rs.wasNull() ? null : Boolean.toString(value);
+                break;
+            }
+            case Types.TINYINT:
+            case Types.SMALLINT: {
+                short value = rs.getShort(column);
+                text = rs.wasNull() ? null : Short.toString(value);
+                break;
+            }
+            case Types.INTEGER: {
+                int value = rs.getInt(column);
+                text = rs.wasNull() ? null : Integer.toString(value);
+                break;
+            }
+            case Types.BIGINT: {
+                long value = rs.getLong(column);
+                text = rs.wasNull() ? null : Long.toString(value);
+                break;
+            }
+            case Types.REAL:
+            case Types.FLOAT: {
+                float value = rs.getFloat(column);
+                text = rs.wasNull() ? null : Float.toString(value);
+                break;
+            }
+            case Types.DOUBLE: {
+                double value = rs.getDouble(column);
+                text = rs.wasNull() ? null : Double.toString(value);
+                break;
+            }
+            case Types.NUMERIC:
+            case Types.DECIMAL: {
+                BigDecimal value = rs.getBigDecimal(column);
+                text = value == null ? null : value.toString();
+                break;
+            }
+            case Types.DATE: {
+                Date value = rs.getDate(column);
+                text = value == null ? null : Long.toString(value.getTime());
+                break;
+            }
+            case Types.TIME: {
+                Time value = rs.getTime(column);
+                text = value == null ? null : Long.toString(value.getTime());
+                break;
+            }
+            case Types.TIMESTAMP: {
+                Timestamp value = rs.getTimestamp(column);
+                text = value == null ? null : Long.toString(value.getTime());
+                break;
+            }
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR: {
+                String value = rs.getString(column);
+                if (value != null && value.isEmpty()) {
+                    xml.writeEmptyElement("emptyString");
+                    return;
+                }
+                text = value;
+                break;
+            }
+            default:
+                return;
+        }
+        if (text == null) {
+            xml.writeEmptyElement("null");
+        } else {
+            text(text);
+        }
+    }
+
+    /**
+     * Writes s, escaping the characters writeXml escapes the same way.
+     */
+    private void text(String s) throws XMLStreamException {
+        int start = 0;
+        for (int i = 0; i < s.length(); i++) {
+            String entity;
+            switch (s.charAt(i)) {
+                case '&':
+                    entity = "amp";
+                    break;
+                case '<':
+                    entity = "lt";
+                    break;
+                case '>':
+                    entity = "gt";
+                    break;
+                case '\'':
+                    entity = "apos";
+                    break;
+                case '"':
+                    entity = "quot";
+                    break;
+                default:
+                    continue;
+            }
+            if (i > start) {
+                xml.writeCharacters(s.substring(start, i));
+            }
+            xml.writeEntityRef(entity);
+            start = i + 1;
+        }
+        if (start < s.length()) {
+            xml.writeCharacters(s.substring(start));
+        }
+    }
+
+    private void indent() throws XMLStreamException {
+        int spaces = 2 * (depth - 1);
+        if (spaces > 0) {
+            xml.writeCharacters(SPACES, 0, Math.min(spaces, SPACES.length));
+        }
+    }
+}
@@ -60,6 +60,8 @@ public class SuppliersTable {
 
         try (Statement stmt = con.createStatement()) {
             stmt.executeUpdate(createString);
+            // Lookups by supplier name, as in CoffeesTable.getCoffeesBoughtBySupplier
+            stmt.executeUpdate("create index SUPPLIERS_SUP_NAME on SUPPLIERS (SUP_NAME)");
         }
     }
 
@@ -105,19 +107,17 @@ public class SuppliersTable {
     public static void viewTable(Connection con) throws SQLException {
         String query =
                 "select SUP_ID, SUP_NAME, STREET, CITY, STATE, ZIP from SUPPLIERS";
-        try (Statement stmt = con.createStatement()) {
-            ResultSet rs = stmt.executeQuery(query);
-            while (rs.next()) {
-                int supplierID = rs.getInt("SUP_ID");
-                String supplierName = rs.getString("SUP_NAME");
-                String street = rs.getString("STREET");
-                String city = rs.getString("CITY");
-                String state = rs.getString("STATE");
-                String zip = rs.getString("ZIP");
-                System.out.println(supplierName + "(" + supplierID + "): " + street +
-                        ", " + city + ", " + state + ", " + zip);
-            }
-        }
+        StreamingQuery.forEach(con, query, StreamingQuery.DEFAULT_FETCH_SIZE, rs -> {
+            int supplierID = rs.getInt("SUP_ID");
+            String supplierName = rs.getString("SUP_NAME");
+            String street = rs.getString("STREET");
+            String city = rs.getString("CITY");
+            String state = rs.getString("STATE");
+            String zip = rs.getString("ZIP");
+            System.out.println(supplierName + "(" + supplierID + "): " + street +
+                    ", " + city + ", " + state + ", " + zip);
+            return true;
+        });
     }
 
     public static void main(String[] args) throws SQLException {
@@ -0,0 +1,399 @@
+package com.oracle.tutorial.jdbc;
+
+import java.io.Reader;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.RowSetMetaData;
+
+import com.oracle.tutorial.jdbc.BatchingRowSetWriter.ConflictException;
+import com.oracle.tutorial.jdbc.BatchingRowSetWriter.ConflictPolicy;
+
+/**
+ * Applies a delta written by StreamingWebRowSetWriter.writeChanges to a
+ * table, reading the delta one row at a time and writing it in JDBC
+ * batches, so the work is proportional to the number of changed rows.
+ *
+ * The table is the delta's table-name property, or the one set with
+ * setTableName, and rows are matched on the delta's key columns:
+ *
+ *   - an inserted row is inserted;
+ *   - a deleted row is deleted only if the other side has not changed
+ *     it: WHERE key = ? AND column = (the original value), for each
+ *     other column;
+ *   - an updated row has only its updated columns set, and only if the
+ *     other side has not changed them: WHERE key = ? AND column = (the
+ *     original value), for each updated column.
+ *
+ * An update or delete that matches no row is a conflict, resolved by the
+ * ConflictPolicy as BatchingRowSetWriter resolves it. With OVERWRITE, the
+ * updates and deletes match the key only. The delta is applied in one transaction,
+ * which is rolled back if a statement fails or, with FAIL, if there are
+ * conflicts; the connection's auto-commit mode is restored afterwards.
+ */
+public class WebRowSetDeltaImporter {
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private final Connection con;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private ConflictPolicy conflictPolicy = ConflictPolicy.FAIL;
+    private String tableName;
+
+    private int inserted;
+    private int updated;
+    private int deleted;
+    private List<Object> skippedKeys = Collections.emptyList();
+
+    // Statements waiting for the next flush, in the order they are run
+    private final Map<String, List<Change>> deletes = new LinkedHashMap<>();
+    private final Map<String, List<Change>> updates = new LinkedHashMap<>();
+    private final Map<String, List<Change>> inserts = new LinkedHashMap<>();
+    private int pending;
+    private final List<Object> conflictKeys = new ArrayList<>();
+
+    public WebRowSetDeltaImporter(Connection con) {
+        this.con = con;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setConflictPolicy(ConflictPolicy conflictPolicy) {
+        this.conflictPolicy = conflictPolicy;
+    }
+
+    public ConflictPolicy getConflictPolicy() {
+        return conflictPolicy;
+    }
+
+    /**
+     * Sets the table to apply deltas to, instead of their table-name.
+     */
+    public void setTableName(String tableName) {
+        if (tableName != null && !ColumnPredicate.isIdentifier(tableName)) {
+            throw new IllegalArgumentException("Not a table name: " + tableName);
+        }
+        this.tableName = tableName;
+    }
+
+    public int getInsertedRows() {
+        return inserted;
+    }
+
+    public int getUpdatedRows() {
+        return updated;
+    }
+
+    public int getDeletedRows() {
+        return deleted;
+    }
+
+    /**
+     * Returns the keys of the conflicting rows left unchanged by the last
+     * apply with ConflictPolicy.SKIP.
+     */
+    public List<Object> getSkippedKeys() {
+        return skippedKeys;
+    }
+
+    private static final class Change {
+        final Object key;
+        final Object[] parameters;
+        final int[] types;
+
+        Change(Object key, Object[] parameters, int[] types) {
+            this.key = key;
+            this.parameters = parameters;
+            this.types = types;
+        }
+    }
+
+    /**
+     * Applies the delta and returns the number of rows changed.
+     */
+    public int apply(Reader delta) throws SQLException {
+        inserted = 0;
+        updated = 0;
+        deleted = 0;
+        skippedKeys = Collections.emptyList();
+        conflictKeys.clear();
+        boolean autoCommit = con.getAutoCommit();
+        con.setAutoCommit(false);
+        try (StreamingWebRowSetReader reader = new StreamingWebRowSetReader(delta)) {
+            Table table = new Table(reader);
+            while (reader.next()) {
+                switch (reader.getRowState()) {
+                    case INSERTED:
+                        add(inserts, table.insertSql, table.insert(reader));
+                        break;
+                    case DELETED:
+                        StringBuilder deleteSql = new StringBuilder();
+                        Change deletion = table.delete(reader, deleteSql);
+                        add(deletes, deleteSql.toString(), deletion);
+                        break;
+                    case CURRENT:
+                        StringBuilder sql = new StringBuilder();
+                        Change change = table.update(reader, sql);
+                        if (change != null) {
+                            add(updates, sql.toString(), change);
+                        }
+                        break;
+                    default:
+                        // Inserted and then deleted: nothing to apply
+                }
+            }
+            flush();
+            if (!conflictKeys.isEmpty()) {
+                if (conflictPolicy != ConflictPolicy.SKIP) {
+                    throw new ConflictException(conflictKeys);
+                }
+                skippedKeys = Collections.unmodifiableList(new ArrayList<>(conflictKeys));
+            }
+            con.commit();
+        } catch (SQLException | RuntimeException e) {
+            con.rollback();
+            inserted = 0;
+            updated = 0;
+            deleted = 0;
+            throw e;
+        } finally {
+            deletes.clear();
+            updates.clear();
+            inserts.clear();
+            pending = 0;
+            con.setAutoCommit(autoCommit);
+        }
+        return inserted + updated + deleted;
+    }
+
+    private void add(Map<String, List<Change>> batches, String sql, Change change) throws SQLException {
+        batches.computeIfAbsent(sql, s -> new ArrayList<>()).add(change);
+        if (++pending >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Runs the pending deletes, then updates, then inserts, so that a key
+     * deleted and inserted again in the delta is free when it is inserted.
+     */
+    private void flush() throws SQLException {
+        deleted += execute(deletes);
+        updated += execute(updates);
+        inserted += execute(inserts);
+        pending = 0;
+    }
+
+    /**
+     * Executes each statement as one batch, records the changes that
+     * matched no row as conflicts, and returns the number that did.
+     */
+    private int execute(Map<String, List<Change>> batches) throws SQLException {
+        int matched = 0;
+        for (Map.Entry<String, List<Change>> batch : batches.entrySet()) {
+            List<Change> changes = batch.getValue();
+            try (PreparedStatement ps = con.prepareStatement(batch.getKey())) {
+                for (Change change : changes) {
+                    for (int i = 0; i < change.parameters.length; i++) {
+                        if (change.parameters[i] == null) {
+                            ps.setNull(i + 1, change.types[i]);
+                        } else {
+                            ps.setObject(i + 1, change.parameters[i]);
+                        }
+                    }
+                    ps.addBatch();
+                }
+                int[] counts;
+                try {
+                    counts = ps.executeBatch();
+                } catch (BatchUpdateException e) {
+                    throw new SQLException("Applying the delta failed: " + e.getMessage(), e);
+                }
+                // Drivers may return SUCCESS_NO_INFO, which counts as a match
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0) {
+                        conflictKeys.add(changes.get(i).key);
+                    } else {
+                        matched++;
+                    }
+                }
+            }
+        }
+        batches.clear();
+        return matched;
+    }
+
+    /**
+     * The statements of the delta's table.
+     */
+    private class Table {
+        final String name;
+        final String[] columns;
+        final int[] types;
+        final int[] keys; // 1-based column numbers
+        final String insertSql;
+        final String whereKey;
+
+        Table(StreamingWebRowSetReader reader) throws SQLException {
+            name = tableName != null ? tableName : reader.getProperty("table-name");
+            if (name == null || !ColumnPredicate.isIdentifier(name)) {
+                throw new SQLException("The delta has no valid table name: " + name);
+            }
+            RowSetMetaData md = reader.getMetaData();
+            columns = new String[md.getColumnCount()];
+            types = new int[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = md.getColumnName(i + 1);
+                types[i] = md.getColumnType(i + 1);
+                if (!ColumnPredicate.isIdentifier(columns[i])) {
+                    throw new SQLException("Not a column name: " + columns[i]);
+                }
+            }
+            keys = reader.getKeyColumns();
+            if (keys.length == 0) {
+                throw new SQLException("The delta has no key columns");
+            }
+            StringBuilder where = new StringBuilder();
+            for (int key : keys) {
+                if (key < 1 || key > columns.length) {
+                    throw new SQLException("Key column " + key + " is not one of the " + columns.length + " columns");
+                }
+                where.append(where.length() == 0 ? "" : " and ").append(columns[key - 1]).append(" = ?");
+            }
+            whereKey = where.toString();
+            char[] placeholders = new char[2 * columns.length - 1];
+            Arrays.fill(placeholders, '?');
+            for (int i = 1; i < placeholders.length; i += 2) {
+                placeholders[i] = ',';
+            }
+            insertSql = "insert into " + name + " (" + String.join(", ", columns) + ") values (" +
+                    new String(placeholders) + ")";
+        }
+
+        Change insert(StreamingWebRowSetReader reader) throws SQLException {
+            Object[] values = new Object[columns.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = reader.getObject(i + 1);
+            }
+            return new Change(key(reader), values, types);
+        }
+
+        /**
+         * Returns the delete of the current row, with its statement in sql.
+         */
+        Change delete(StreamingWebRowSetReader reader, StringBuilder sql) throws SQLException {
+            List<Object> parameters = new ArrayList<>();
+            List<Integer> parameterTypes = new ArrayList<>();
+            sql.append("delete from ").append(name).append(" where ").append(whereKey);
+            addKey(reader, parameters, parameterTypes);
+            if (conflictPolicy != ConflictPolicy.OVERWRITE) {
+                for (int i = 1; i <= columns.length; i++) {
+                    if (isKey(i)) {
+                        continue;
+                    }
+                    Object original = reader.getOriginalObject(i);
+                    sql.append(" and ").append(columns[i - 1]).append(original == null ? " is null" : " = ?");
+                    if (original != null) {
+                        parameters.add(original);
+                        parameterTypes.add(types[i - 1]);
+                    }
+                }
+            }
+            return change(reader, parameters, parameterTypes);
+        }
+
+        private boolean isKey(int column) {
+            for (int key : keys) {
+                if (key == column) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns the update of the current row, with its statement in sql,
+         * or null if no column was updated.
+         */
+        Change update(StreamingWebRowSetReader reader, StringBuilder sql) throws SQLException {
+            List<Object> parameters = new ArrayList<>();
+            List<Integer> parameterTypes = new ArrayList<>();
+            StringBuilder unchanged = new StringBuilder();
+            sql.append("update ").append(name).append(" set ");
+            boolean first = true;
+            for (int i = 1; i <= columns.length; i++) {
+                if (!reader.isColumnUpdated(i)) {
+                    continue;
+                }
+                sql.append(first ? "" : ", ").append(columns[i - 1]).append(" = ?");
+                first = false;
+                parameters.add(reader.getObject(i));
+                parameterTypes.add(types[i - 1]);
+                if (conflictPolicy != ConflictPolicy.OVERWRITE) {
+                    Object original = reader.getOriginalObject(i);
+                    unchanged.append(" and ").append(columns[i - 1]).append(original == null ? " is null" : " = ?");
+                }
+            }
+            if (first) {
+                return null;
+            }
+            sql.append(" where ").append(whereKey).append(unchanged);
+            addKey(reader, parameters, parameterTypes);
+            if (conflictPolicy != ConflictPolicy.OVERWRITE) {
+                for (int i = 1; i <= columns.length; i++) {
+                    Object original = reader.isColumnUpdated(i) ? reader.getOriginalObject(i) : null;
+                    if (original != null) {
+                        parameters.add(original);
+                        parameterTypes.add(types[i - 1]);
+                    }
+                }
+            }
+            return change(reader, parameters, parameterTypes);
+        }
+
+        private void addKey(StreamingWebRowSetReader reader, List<Object> parameters, List<Integer> parameterTypes)
+                throws SQLException {
+            for (int key : keys) {
+                parameters.add(reader.getOriginalObject(key));
+                parameterTypes.add(types[key - 1]);
+            }
+        }
+
+        private Change change(StreamingWebRowSetReader reader, List<Object> parameters, List<Integer> parameterTypes)
+                throws SQLException {
+            int[] parameterTypeArray = new int[parameterTypes.size()];
+            for (int i = 0; i < parameterTypeArray.length; i++) {
+                parameterTypeArray[i] = parameterTypes.get(i);
+            }
+            return new Change(key(reader), parameters.toArray(), parameterTypeArray);
+        }
+
+        private Object key(StreamingWebRowSetReader reader) throws SQLException {
+            if (keys.length == 1) {
+                return reader.getOriginalObject(keys[0]);
+            }
+            List<Object> key = new ArrayList<>(keys.length);
+            for (int column : keys) {
+                key.add(reader.getOriginalObject(column));
+            }
+            return key;
+        }
+    }
+}
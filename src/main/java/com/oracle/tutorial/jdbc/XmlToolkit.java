@@ -0,0 +1,184 @@
+package com.oracle.tutorial.jdbc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * The XML parsers, transformers and XPath expressions used by the tutorial
+ * tables, created once instead of on every call.
+ *
+ * The factories are looked up once. DocumentBuilder, Transformer and
+ * XPathExpression are not thread-safe, so each thread gets its own, reset
+ * after each use; XMLInputFactory is thread-safe once configured and is
+ * shared. Documents are parsed namespace-aware, without loading external
+ * DTDs, and StAX readers do not process DTDs or external entities.
+ */
+public final class XmlToolkit {
+
+    private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = DocumentBuilderFactory.newInstance();
+    private static final TransformerFactory TRANSFORMER_FACTORY = TransformerFactory.newInstance();
+    private static final XPathFactory XPATH_FACTORY = XPathFactory.newInstance();
+    private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newFactory();
+
+    static {
+        DOCUMENT_BUILDER_FACTORY.setNamespaceAware(true);
+        try {
+            DOCUMENT_BUILDER_FACTORY.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            DOCUMENT_BUILDER_FACTORY.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private static final ThreadLocal<DocumentBuilder> DOCUMENT_BUILDER = ThreadLocal.withInitial(() -> {
+        try {
+            return DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private static final ThreadLocal<Transformer> TRANSFORMER = ThreadLocal.withInitial(() -> {
+        try {
+            return TRANSFORMER_FACTORY.newTransformer();
+        } catch (TransformerConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private static final ThreadLocal<Expressions> EXPRESSIONS = ThreadLocal.withInitial(Expressions::new);
+
+    /**
+     * The compiled expressions of one thread. The coffee name of
+     * coffeeItems is the variable $coffee, read from the coffee field.
+     */
+    private static final class Expressions {
+        final XPathExpression rssTitle;
+        final XPathExpression coffeeItems;
+        final XPathExpression description;
+        String coffee;
+
+        Expressions() {
+            XPath xPath = XPATH_FACTORY.newXPath();
+            xPath.setXPathVariableResolver(name -> name.equals(new QName("coffee")) ? coffee : null);
+            try {
+                rssTitle = xPath.compile("/rss/channel/title[1]");
+                coffeeItems = xPath.compile("/coffee-product-information/item[coffee = $coffee]");
+                description = xPath.compile("description");
+            } catch (XPathExpressionException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private XmlToolkit() {
+    }
+
+    public static Document parse(String uri) throws SAXException, IOException {
+        DocumentBuilder builder = DOCUMENT_BUILDER.get();
+        try {
+            return builder.parse(uri);
+        } finally {
+            builder.reset();
+        }
+    }
+
+    public static Document parse(InputStream in) throws SAXException, IOException {
+        DocumentBuilder builder = DOCUMENT_BUILDER.get();
+        try {
+            return builder.parse(in);
+        } finally {
+            builder.reset();
+        }
+    }
+
+    public static Document parse(Reader reader) throws SAXException, IOException {
+        DocumentBuilder builder = DOCUMENT_BUILDER.get();
+        try {
+            return builder.parse(new InputSource(reader));
+        } finally {
+            builder.reset();
+        }
+    }
+
+    /**
+     * Serializes a document, with an XML declaration.
+     */
+    public static String toString(Document doc) throws TransformerException {
+        Transformer transformer = TRANSFORMER.get();
+        StringWriter sw = new StringWriter();
+        try {
+            transformer.transform(new DOMSource(doc), new StreamResult(sw));
+        } finally {
+            transformer.reset();
+        }
+        return sw.toString();
+    }
+
+    /**
+     * Returns a StAX reader of the stream. Closing the reader does not
+     * close the stream.
+     */
+    public static XMLStreamReader createXMLStreamReader(InputStream in) throws XMLStreamException {
+        return XML_INPUT_FACTORY.createXMLStreamReader(in);
+    }
+
+    /**
+     * Returns the first /rss/channel/title element, or null.
+     */
+    public static Node rssTitle(Document doc) throws XPathExpressionException {
+        return (Node) EXPRESSIONS.get().rssTitle.evaluate(doc, XPathConstants.NODE);
+    }
+
+    /**
+     * Returns the /coffee-product-information/item elements whose coffee
+     * element is the given coffee.
+     */
+    public static NodeList coffeeItems(Document doc, String coffee) throws XPathExpressionException {
+        Expressions expressions = EXPRESSIONS.get();
+        expressions.coffee = coffee;
+        try {
+            return (NodeList) expressions.coffeeItems.evaluate(doc, XPathConstants.NODESET);
+        } finally {
+            expressions.coffee = null;
+        }
+    }
+
+    /**
+     * Returns the description child element of an item, or null.
+     */
+    public static Node description(Node item) throws XPathExpressionException {
+        return (Node) EXPRESSIONS.get().description.evaluate(item, XPathConstants.NODE);
+    }
+}
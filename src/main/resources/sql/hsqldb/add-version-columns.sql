@@ -0,0 +1,3 @@
+alter table COFFEES add column ROW_VERSION integer default 0 NOT NULL;
+
+alter table MERCH_INVENTORY add column ROW_VERSION integer default 0 NOT NULL;
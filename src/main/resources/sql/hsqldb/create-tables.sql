@@ -6,6 +6,8 @@ create table SUPPLIERS
   STATE char(2) NOT NULL,
   ZIP char(5),
   PRIMARY KEY (SUP_ID));
+
+create index SUPPLIERS_SUP_NAME on SUPPLIERS (SUP_NAME);
   
 create table COFFEES
   (COF_NAME varchar(32) NOT NULL,
@@ -25,6 +27,7 @@ create table COFFEE_DESCRIPTIONS
 create table RSS_FEEDS
   (RSS_NAME varchar(32) NOT NULL,
   RSS_FEED_XML VARCHAR(255) NOT NULL,
+  RSS_DIGEST CHAR(64) NOT NULL,
   PRIMARY KEY (RSS_NAME));
   
 create table COF_INVENTORY
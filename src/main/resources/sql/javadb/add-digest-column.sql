@@ -0,0 +1 @@
+alter table RSS_FEEDS add column RSS_DIGEST char(64) default '' NOT NULL;
@@ -0,0 +1,2 @@
+alter table RSS_FEEDS
+    add column RSS_DIGEST char(64) NOT NULL default '';
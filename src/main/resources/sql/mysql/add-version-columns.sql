@@ -0,0 +1,5 @@
+alter table COFFEES
+    add column ROW_VERSION integer NOT NULL default 0;
+
+alter table MERCH_INVENTORY
+    add column ROW_VERSION integer NOT NULL default 0;
@@ -9,6 +9,8 @@ create table SUPPLIERS
     PRIMARY KEY (SUP_ID)
 );
 
+create index SUPPLIERS_SUP_NAME on SUPPLIERS (SUP_NAME);
+
 create table COFFEES
 (
     COF_NAME varchar(32)    NOT NULL,
@@ -32,6 +34,7 @@ create table RSS_FEEDS
 (
     RSS_NAME     varchar(32) NOT NULL,
     RSS_FEED_XML longtext    NOT NULL,
+    RSS_DIGEST   char(64)    NOT NULL,
     PRIMARY KEY (RSS_NAME)
 );
 
@@ -12,9 +12,17 @@ public abstract class AbstractSample {
     protected String dbms;
     protected JDBCTutorialUtilities utils;
 
+    // Shared by all samples so that they borrow from one connection pool
+    private static JDBCTutorialUtilities sharedUtils;
+
     @BeforeEach
     void init() throws Exception{
-        utils = new JDBCTutorialUtilities("mysql-sample-properties.xml");
+        synchronized (AbstractSample.class) {
+            if (sharedUtils == null) {
+                sharedUtils = new JDBCTutorialUtilities("mysql-sample-properties.xml");
+            }
+            utils = sharedUtils;
+        }
         con = utils.getConnection();
         dbName = utils.dbName;
         dbms = utils.dbms;
@@ -29,8 +29,12 @@ package com.oracle.tutorial.jdbc;/*
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 
+import com.oracle.tutorial.jdbc.BatchingRowSetWriter;
+import com.oracle.tutorial.jdbc.BatchingSyncProvider;
 import com.oracle.tutorial.jdbc.ExampleRowSetListener;
 import com.oracle.tutorial.jdbc.JDBCTutorialUtilities;
+import com.oracle.tutorial.jdbc.KeysetPager;
+import com.oracle.tutorial.jdbc.OffHeapCachedRowSet;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -38,8 +42,6 @@ import org.junit.jupiter.api.Test;
 import javax.sql.rowset.CachedRowSet;
 import javax.sql.rowset.RowSetFactory;
 import javax.sql.rowset.RowSetProvider;
-import javax.sql.rowset.spi.SyncProviderException;
-import javax.sql.rowset.spi.SyncResolver;
 import java.net.MalformedURLException;
 import java.sql.*;
 import java.util.Calendar;
@@ -52,6 +54,7 @@ public class CachedRowSetSample extends AbstractSample{
         this.con.setAutoCommit(false);
         RowSetFactory factory = RowSetProvider.newFactory();
         CachedRowSet crs = factory.createCachedRowSet();
+        BatchingRowSetWriter writer = null;
 
         try {
             crs.setUsername(utils.userName);
@@ -68,6 +71,17 @@ public class CachedRowSetSample extends AbstractSample{
 
             crs.addRowSetListener(new ExampleRowSetListener());
 
+            // Write changes in batches; if MERCH_INVENTORY has a ROW_VERSION
+            // column (add-version-columns.sql), conflicts are detected with
+            // it instead of by comparing every column
+            writer = BatchingSyncProvider.install(crs).getWriter();
+            ResultSetMetaData metadata = crs.getMetaData();
+            for (int j = 1; j <= metadata.getColumnCount(); j++) {
+                if (metadata.getColumnName(j).equalsIgnoreCase("ROW_VERSION")) {
+                    writer.setVersionColumn("ROW_VERSION");
+                }
+            }
+
             // Keep on getting data in chunks until done.
             int i = 1;
             do {
@@ -116,44 +130,57 @@ public class CachedRowSetSample extends AbstractSample{
                 System.out.println("Added a row...");
                 this.viewTable(con);
             }
-        } catch (SyncProviderException spe) {
-
-            SyncResolver resolver = spe.getSyncResolver();
-
-            Object crsValue; // value in the RowSet object
-            Object resolverValue; // value in the SyncResolver object
-            Object resolvedValue; // value to be persisted
-
-            while (resolver.nextConflict()) {
-
-                if (resolver.getStatus() == SyncResolver.INSERT_ROW_CONFLICT) {
-                    int row = resolver.getRow();
-                    crs.absolute(row);
-
-                    int colCount = crs.getMetaData().getColumnCount();
-                    for (int j = 1; j <= colCount; j++) {
-                        if (resolver.getConflictValue(j) != null) {
-                            crsValue = crs.getObject(j);
-                            resolverValue = resolver.getConflictValue(j);
-
-                            // Compare crsValue and resolverValue to determine
-                            // which should be the resolved value (the value to persist)
-                            //
-                            // This example choses the value in the RowSet object,
-                            // crsValue, to persist.,
+        } catch (BatchingRowSetWriter.ConflictException ce) {
+
+            // Resolve all the conflicts at once. This example chooses the
+            // values in the RowSet object, so it writes them again over the
+            // values in the database.
+            System.out.println("Overwriting rows changed by another user: " + ce.getConflictKeys());
+            writer.setConflictPolicy(BatchingRowSetWriter.ConflictPolicy.OVERWRITE);
+            crs.acceptChanges(con);
+        } finally {
+            if (crs != null) crs.close();
+            this.con.setAutoCommit(true);
+        }
 
-                            resolvedValue = crsValue;
+    }
 
-                            resolver.setResolvedValue(j, resolvedValue);
-                        }
-                    }
+    @Test
+    public void testKeysetPaging() throws SQLException {
+        // Each page is read with WHERE ITEM_ID > (last ITEM_ID of the
+        // previous page), so no rows are read and skipped
+        try (KeysetPager pager = new KeysetPager(utils.getDataSource(), "MERCH_INVENTORY", "*", "ITEM_ID", 4, true)) {
+            int i = 1;
+            CachedRowSet page;
+            while ((page = pager.nextPage()) != null && page.size() > 0) {
+                System.out.println("Page number: " + i++);
+                while (page.next()) {
+                    System.out.println("Found item " + page.getInt("ITEM_ID") + ": " + page.getString("ITEM_NAME"));
                 }
             }
-        } finally {
-            if (crs != null) crs.close();
-            this.con.setAutoCommit(true);
+
+            page = pager.previousPage();
+            if (page != null) {
+                page.first();
+                System.out.println("Previous page starts with item " + page.getInt("ITEM_ID"));
+            }
         }
+    }
 
+    @Test
+    public void testOffHeapRowSet() throws SQLException {
+        // Rows are kept in direct memory, or in a temporary file past the
+        // memory budget, instead of as objects on the heap; the row set is
+        // read-only
+        try (OffHeapCachedRowSet crs = new OffHeapCachedRowSet(1024 * 1024)) {
+            crs.setCommand("select * from MERCH_INVENTORY");
+            crs.execute(con);
+            while (crs.next()) {
+                System.out.println("Found item " + crs.getInt("ITEM_ID") + ": " + crs.getString("ITEM_NAME"));
+            }
+            System.out.println(crs.size() + " rows, " + crs.getDirectBytes() + " bytes in memory, " +
+                    crs.getSpilledBytes() + " bytes spilled");
+        }
     }
 
     private void viewTable(Connection con) throws SQLException {
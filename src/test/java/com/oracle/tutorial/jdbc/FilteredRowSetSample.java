@@ -51,10 +51,10 @@ public class FilteredRowSetSample extends AbstractSample{
     @Test
     public void testFilteredRowSet() throws SQLException {
 
-        StateFilter myStateFilter = new StateFilter(10000, 10999, 1);
+        StateFilter myStateFilter = new StateFilter(10000, 10999, "STORE_ID");
         String[] cityArray = {"SF", "LA"};
 
-        CityFilter myCityFilter = new CityFilter(cityArray, 2);
+        CityFilter myCityFilter = new CityFilter(cityArray, "CITY");
 
         RowSetFactory factory = RowSetProvider.newFactory();
 
@@ -68,14 +68,25 @@ public class FilteredRowSetSample extends AbstractSample{
             System.out.println("\nBefore filter:");
             FilteredRowSetSample.viewTable(this.con);
 
+            // applyTo evaluates the filter once per row and keeps the result,
+            // so moving the cursor does not evaluate it again
             System.out.println("\nSetting state filter:");
-            frs.beforeFirst();
-            frs.setFilter(myStateFilter);
+            myStateFilter.applyTo(frs);
             this.viewFilteredRowSet(frs);
 
             System.out.println("\nSetting city filter:");
-            frs.beforeFirst();
-            frs.setFilter(myCityFilter);
+            myCityFilter.applyTo(frs);
+            this.viewFilteredRowSet(frs);
+
+            System.out.println("\nSetting state or city filter:");
+            CompositePredicate.or(myStateFilter, myCityFilter).applyTo(frs);
+            this.viewFilteredRowSet(frs);
+        }
+
+        // The filters can also be run by the database, which then sends
+        // only the matching rows
+        System.out.println("\nCity filter as " + myCityFilter.toSql() + ":");
+        try (FilteredRowSet frs = FilteredRowSets.create(factory, this.con, "COFFEE_HOUSES", myCityFilter)) {
             this.viewFilteredRowSet(frs);
         }
     }
@@ -54,17 +54,11 @@ public class JoinSample {
     // JoinSample.getCoffeesBoughtBySupplier("Acme, Inc.", myConnection);
     @BeforeAll
     public static void getCoffeesBoughtBySupplier(String supplierName, Connection con) throws SQLException {
-        String query = "SELECT COFFEES.COF_NAME FROM COFFEES, SUPPLIERS " +
-                "WHERE SUPPLIERS.SUP_NAME LIKE ? and SUPPLIERS.SUP_ID = COFFEES.SUP_ID";
-
-        try (PreparedStatement ps = con.prepareStatement(query)) {
-            ps.setString(1, supplierName);
-            ResultSet rs = ps.executeQuery();
-            System.out.println("Coffees bought from " + supplierName + ": ");
-            while (rs.next()) {
-                String coffeeName = rs.getString(1);
-                System.out.println("     " + coffeeName);
-            }
+        // The join and the supplier name are evaluated by the database
+        CoffeesTable coffeesTable = new CoffeesTable(con, null, null);
+        System.out.println("Coffees bought from " + supplierName + ": ");
+        for (String coffeeName : coffeesTable.getCoffeesBoughtBySupplier(supplierName)) {
+            System.out.println("     " + coffeeName);
         }
     }
 
@@ -73,8 +67,36 @@ public class JoinSample {
         this.settings = settingsArg;
     }
 
+    // JoinSample.testHashJoin("Acme, Inc.", suppliersConnection, coffeesConnection);
+    public static void testHashJoin(String supplierName, Connection suppliersCon, Connection coffeesCon)
+            throws SQLException {
+        // When SUPPLIERS and COFFEES are in different databases, read the
+        // matching suppliers into a hash table keyed by SUP_ID and stream
+        // COFFEES past it
+        HashJoin<String> suppliers;
+        try (PreparedStatement ps = suppliersCon.prepareStatement(
+                "SELECT SUP_ID, SUP_NAME FROM SUPPLIERS WHERE SUP_NAME LIKE ?")) {
+            ps.setString(1, supplierName);
+            try (ResultSet rs = ps.executeQuery()) {
+                suppliers = HashJoin.build(rs, "SUP_ID", r -> r.getString("SUP_NAME"));
+            }
+        }
+
+        System.out.println("Coffees bought from " + supplierName + ": ");
+        try (PreparedStatement ps = StreamingQuery.prepare(coffeesCon,
+                "SELECT COF_NAME, SUP_ID FROM COFFEES", StreamingQuery.DEFAULT_FETCH_SIZE);
+             ResultSet rs = ps.executeQuery()) {
+            suppliers.probe(rs, "SUP_ID", (coffee, supplier) -> {
+                System.out.println("     " + coffee.getString("COF_NAME"));
+                return true;
+            });
+        }
+    }
+
     // JoinSample myJoinSample = new JoinSample(myConnection, myJDBCTutorialUtilities);
     // myJoinSample.testJoinRowSet("Acme, Inc.");
+    // JoinRowSet copies both tables into memory and compares every pair of
+    // rows; getCoffeesBoughtBySupplier and testHashJoin are the faster ways
     @Test
     public void testJoinRowSet(String supplierName) throws SQLException {
         RowSetFactory factory = RowSetProvider.newFactory();
@@ -117,6 +139,9 @@ public class JoinSample {
             System.out.println("\nCoffees bought by each supplier:");
             JoinSample.getCoffeesBoughtBySupplier("Acme, Inc.", myConnection);
 
+            System.out.println("\nUsing a client-side hash join:");
+            JoinSample.testHashJoin("Acme, Inc.", myConnection, myConnection);
+
             System.out.println("\nUsing JoinRowSet:");
             JoinSample myJoinSample = new JoinSample(myConnection, myJDBCTutorialUtilities);
             myJoinSample.testJoinRowSet("Acme, Inc.");
@@ -35,11 +35,21 @@ import javax.sql.rowset.CachedRowSet;
 import javax.sql.rowset.RowSetFactory;
 import javax.sql.rowset.RowSetProvider;
 import javax.sql.rowset.WebRowSet;
+import java.io.BufferedOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Objects;
 
 public class WebRowSetSample {
 
@@ -128,6 +138,142 @@ public class WebRowSetSample {
         }
     }
 
+    public void testStreamingWebRowSet() throws SQLException, IOException {
+        String priceListFileName = "pricelist.xml";
+        RowSetFactory factory = RowSetProvider.newFactory();
+        String query = "select COF_NAME, PRICE from COFFEES";
+        int size1;
+        try (WebRowSet properties = factory.createWebRowSet();
+             PreparedStatement ps = StreamingQuery.prepare(con, query, StreamingQuery.DEFAULT_FETCH_SIZE);
+             ResultSet rs = ps.executeQuery();
+             FileWriter fWriter = new FileWriter(priceListFileName)) {
+            properties.setCommand(query);
+            properties.setKeyColumns(new int[]{1});
+            properties.setTableName("COFFEES");
+
+            // Write the rows as they are read, without a WebRowSet holding
+            // them; WebRowSet.readXml can read the file
+            size1 = StreamingWebRowSetWriter.write(rs, properties, fWriter);
+            System.out.println("Wrote " + size1 + " rows");
+        }
+
+        // Read the rows back one at a time
+        int size2 = 0;
+        try (FileReader fReader = new FileReader(priceListFileName);
+             StreamingWebRowSetReader reader = new StreamingWebRowSetReader(fReader)) {
+            while (reader.next()) {
+                System.out.println(reader.getObject(1) + ", " + reader.getObject(2));
+                size2++;
+            }
+        }
+        if (size1 == size2) {
+            System.out.println("WebRowSet streamed and read back properly");
+        } else {
+            System.out.println("Error....streaming/reading the WebRowSet");
+        }
+    }
+
+    public void testStreamingMatchesWriteXml() throws SQLException, IOException {
+        RowSetFactory factory = RowSetProvider.newFactory();
+        try (WebRowSet priceList = factory.createWebRowSet()) {
+            priceList.setCommand("select COF_NAME, PRICE from COFFEES");
+            priceList.setKeyColumns(new int[]{1});
+            priceList.setTableName("COFFEES");
+            priceList.execute(con);
+
+            // Insert, delete and update a row, so that every row state is written
+            priceList.moveToInsertRow();
+            priceList.updateString("COF_NAME", "Kona");
+            priceList.updateBigDecimal("PRICE", new BigDecimal("8.99"));
+            priceList.insertRow();
+            priceList.moveToCurrentRow();
+            priceList.beforeFirst();
+            while (priceList.next()) {
+                if (priceList.getString(1).equals("Espresso")) {
+                    priceList.deleteRow();
+                } else if (priceList.getString(1).equals("Colombian")) {
+                    priceList.updateBigDecimal(2, new BigDecimal("6.99"));
+                    priceList.updateRow();
+                }
+            }
+
+            StringWriter expected = new StringWriter();
+            priceList.writeXml(expected);
+            // writeXml turns show-deleted on and leaves it on
+            priceList.setShowDeleted(false);
+            StringWriter streamed = new StringWriter();
+            StreamingWebRowSetWriter.write(priceList, streamed);
+            if (streamed.toString().equals(expected.toString())) {
+                System.out.println("StreamingWebRowSetWriter wrote the same XML as writeXml");
+            } else {
+                System.out.println("Error....StreamingWebRowSetWriter and writeXml differ");
+            }
+        }
+    }
+
+    public void testDeltaExport() throws SQLException, IOException {
+        String deltaFileName = "pricelist-delta.xml";
+        RowSetFactory factory = RowSetProvider.newFactory();
+        try (WebRowSet priceList = factory.createWebRowSet()) {
+            priceList.setCommand("select COF_NAME, PRICE from COFFEES");
+            priceList.setKeyColumns(new int[]{1});
+            priceList.setTableName("COFFEES");
+            priceList.execute(con);
+
+            // Raise the price of Colombian
+            while (priceList.next()) {
+                if (priceList.getString(1).equals("Colombian")) {
+                    priceList.updateBigDecimal(2, priceList.getBigDecimal(2).add(new BigDecimal("0.10")));
+                    priceList.updateRow();
+                }
+            }
+
+            // Write only the changed rows, with their original values
+            try (FileWriter fWriter = new FileWriter(deltaFileName)) {
+                int rows = StreamingWebRowSetWriter.writeChanges(priceList, fWriter);
+                System.out.println("Wrote " + rows + " changed rows of " + priceList.size());
+            }
+        }
+
+        // Apply the changes to COFFEES as another site would; a price changed
+        // there since the price list was read is a conflict
+        try (FileReader fReader = new FileReader(deltaFileName)) {
+            WebRowSetDeltaImporter importer = new WebRowSetDeltaImporter(con);
+            importer.apply(fReader);
+            System.out.println("Inserted " + importer.getInsertedRows() + ", updated " + importer.getUpdatedRows() +
+                    ", deleted " + importer.getDeletedRows() + " rows");
+        }
+    }
+
+    public void testSnapshot() throws SQLException, IOException {
+        Path priceListFile = Paths.get("pricelist.snapshot");
+        String query = "select COF_NAME, PRICE from COFFEES order by COF_NAME";
+        try (PreparedStatement ps = StreamingQuery.prepare(con, query, StreamingQuery.DEFAULT_FETCH_SIZE);
+             ResultSet rs = ps.executeQuery();
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(priceListFile))) {
+            long rows = SnapshotWriter.write(rs, out);
+            System.out.println("Wrote " + rows + " rows in a snapshot of " + Files.size(priceListFile) + " bytes");
+        }
+
+        // Check that the snapshot has the same rows as the table
+        RowSetFactory factory = RowSetProvider.newFactory();
+        try (SnapshotRowSet priceList = SnapshotRowSet.open(priceListFile);
+             CachedRowSet expected = factory.createCachedRowSet()) {
+            expected.setCommand(query);
+            expected.execute(con);
+            boolean same = priceList.size() == expected.size();
+            while (same && priceList.next() && expected.next()) {
+                same = Objects.equals(priceList.getString(1), expected.getString(1)) &&
+                        Objects.equals(priceList.getBigDecimal(2), expected.getBigDecimal(2));
+            }
+            if (same) {
+                System.out.println("Snapshot written and read back properly");
+            } else {
+                System.out.println("Error....snapshot differs at row " + priceList.getRow());
+            }
+        }
+    }
+
     public static void main(String[] args) throws SQLException {
         JDBCTutorialUtilities myJDBCTutorialUtilities;
         Connection myConnection = null;
@@ -152,6 +298,10 @@ public class WebRowSetSample {
             WebRowSetSample myWebRowSetSample = new WebRowSetSample(myConnection,
                     myJDBCTutorialUtilities);
             myWebRowSetSample.testWebRowSet();
+            myWebRowSetSample.testStreamingWebRowSet();
+            myWebRowSetSample.testStreamingMatchesWriteXml();
+            myWebRowSetSample.testDeltaExport();
+            myWebRowSetSample.testSnapshot();
 
         } catch (Exception ex) {
             System.out.println("Unexpected exception");